@@ -0,0 +1,138 @@
+package com.example.projeto2.adapter;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.R;
+import com.example.projeto2.model.Tarefa;
+import com.example.projeto2.utils.DataCodec;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Custo da verificação "tarefa vencida" no bind: o jeito antigo (substring +
+ * parseInt + Calendar.getInstance a cada linha) contra o epoch day do modelo
+ * comparado com DataCodec.hoje(). Mede também a montagem das LinhaTarefa (feita
+ * em segundo plano quando a lista chega) e o onBindViewHolder, que só copia campos.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BindTarefaBenchmarkTest {
+
+    private static final String TAG = "BindTarefaBenchmark";
+    private static final int LINHAS = 100_000;
+    private static final int REPETICOES = 5;
+    private static final int BINDS = 20_000;
+
+    @Test
+    public void vencidaAntigaContraEpoch() {
+        List<Tarefa> tarefas = gerar(LINHAS);
+
+        long melhorAntiga = Long.MAX_VALUE, melhorNova = Long.MAX_VALUE;
+        int vencidasAntiga = 0, vencidasNova = 0;
+        for (int r = 0; r < REPETICOES; r++) {
+            long inicio = SystemClock.elapsedRealtimeNanos();
+            vencidasAntiga = 0;
+            for (Tarefa t : tarefas) if (isVencidaAntiga(t.getData())) vencidasAntiga++;
+            melhorAntiga = Math.min(melhorAntiga, SystemClock.elapsedRealtimeNanos() - inicio);
+
+            inicio = SystemClock.elapsedRealtimeNanos();
+            vencidasNova = 0;
+            for (Tarefa t : tarefas) {
+                int data = t.getDataEpoch();
+                if (data != DataCodec.SEM_DATA && data < DataCodec.hoje()) vencidasNova++;
+            }
+            melhorNova = Math.min(melhorNova, SystemClock.elapsedRealtimeNanos() - inicio);
+        }
+
+        Log.i(TAG, LINHAS + " linhas: antiga=" + melhorAntiga / LINHAS + "ns/linha, epoch="
+                + melhorNova / LINHAS + "ns/linha");
+        assertEquals(vencidasAntiga, vencidasNova);
+        assertTrue(melhorNova < melhorAntiga);
+    }
+
+    @Test
+    public void montagemDasLinhas() {
+        List<Tarefa> tarefas = gerar(LINHAS);
+        long melhor = Long.MAX_VALUE;
+        for (int r = 0; r < REPETICOES; r++) {
+            long inicio = SystemClock.elapsedRealtimeNanos();
+            assertEquals(LINHAS, TarefaAdapter.montarLinhas(tarefas).size());
+            melhor = Math.min(melhor, SystemClock.elapsedRealtimeNanos() - inicio);
+        }
+        Log.i(TAG, "montarLinhas (segundo plano): " + melhor / LINHAS + "ns/linha");
+    }
+
+    @Test
+    public void onBindViewHolderCompleto() throws InterruptedException {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        Context context = new ContextThemeWrapper(instrumentation.getTargetContext(), R.style.Theme_Projeto2);
+        List<Tarefa> tarefas = gerar(BINDS);
+
+        TarefaAdapter[] adapter = new TarefaAdapter[1];
+        instrumentation.runOnMainSync(() -> {
+            adapter[0] = new TarefaAdapter(context, null);
+            adapter[0].submeterLista(tarefas);
+        });
+        long limite = SystemClock.elapsedRealtime() + 10_000;
+        while (adapter[0].getItemCount() < BINDS) { // diff roda em segundo plano
+            assertTrue(SystemClock.elapsedRealtime() < limite);
+            Thread.sleep(10);
+            instrumentation.waitForIdleSync();
+        }
+
+        long[] melhor = {Long.MAX_VALUE};
+        instrumentation.runOnMainSync(() -> {
+            TarefaAdapter.ViewHolder holder = adapter[0].onCreateViewHolder(new FrameLayout(context), 0);
+            for (int r = 0; r < REPETICOES; r++) {
+                long inicio = SystemClock.elapsedRealtimeNanos();
+                for (int i = 0; i < BINDS; i++) adapter[0].onBindViewHolder(holder, i);
+                melhor[0] = Math.min(melhor[0], SystemClock.elapsedRealtimeNanos() - inicio);
+            }
+        });
+        Log.i(TAG, "onBindViewHolder: " + melhor[0] / BINDS + "ns/linha");
+    }
+
+    // Implementação anterior de TarefaAdapter.isVencida (referência para comparação)
+    private static boolean isVencidaAntiga(String dataStr) {
+        if (dataStr == null || dataStr.length() != 10) return false;
+        if (dataStr.charAt(2) != '/' || dataStr.charAt(5) != '/') return false;
+        try {
+            int dia = Integer.parseInt(dataStr.substring(0, 2));
+            int mes = Integer.parseInt(dataStr.substring(3, 5));
+            int ano = Integer.parseInt(dataStr.substring(6, 10));
+            Calendar c = Calendar.getInstance();
+            int hoje = c.get(Calendar.YEAR) * 10000
+                    + (c.get(Calendar.MONTH) + 1) * 100
+                    + c.get(Calendar.DAY_OF_MONTH);
+            return ano * 10000 + mes * 100 + dia < hoje;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static List<Tarefa> gerar(int quantidade) {
+        Random r = new Random(quantidade);
+        List<Tarefa> lista = new ArrayList<>(quantidade);
+        int hoje = DataCodec.hoje();
+        for (int i = 0; i < quantidade; i++) {
+            String data = DataCodec.formatar(hoje - 365 + r.nextInt(730)); // metade vencida
+            lista.add(new Tarefa(i + 1, "Tarefa " + i, null, data, 1 + r.nextInt(3), r.nextInt(4) == 0));
+        }
+        return lista;
+    }
+}
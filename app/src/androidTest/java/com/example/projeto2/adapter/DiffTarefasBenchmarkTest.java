@@ -0,0 +1,152 @@
+package com.example.projeto2.adapter;
+
+import android.util.Log;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Custo do diff da lista (roda em segundo plano no TarefaAdapter) com 10 mil e
+ * 100 mil tarefas, numa atualização típica: ~1% removidas, ~1% inseridas,
+ * ~1% marcadas/desmarcadas e algumas movidas.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DiffTarefasBenchmarkTest {
+
+    private static final String TAG = "DiffTarefasBenchmark";
+    private static final int REPETICOES = 3;
+
+    @Test
+    public void diff10mil() {
+        medir(10_000);
+    }
+
+    @Test
+    public void diff100mil() {
+        medir(100_000);
+    }
+
+    @Test
+    public void soStatusGeraPayload() {
+        List<Tarefa> antiga = gerar(100, new Random(1));
+        List<Tarefa> nova = copiar(antiga);
+        nova.get(10).setConcluido(!nova.get(10).isConcluido());
+
+        DiffTarefas diff = new DiffTarefas(antiga, nova);
+        assertFalse(diff.areContentsTheSame(10, 10));
+        assertSame(DiffTarefas.PAYLOAD_STATUS, diff.getChangePayload(10, 10));
+
+        nova.get(20).setTitulo("outro");
+        assertNull(diff.getChangePayload(20, 20));
+    }
+
+    private void medir(int tamanho) {
+        Random r = new Random(tamanho);
+        List<Tarefa> antiga = gerar(tamanho, r);
+        List<Tarefa> nova = alterar(antiga, r);
+
+        long melhor = Long.MAX_VALUE;
+        Contador eventos = null;
+        for (int i = 0; i < REPETICOES; i++) {
+            long inicio = System.nanoTime();
+            DiffUtil.DiffResult resultado = DiffUtil.calculateDiff(new DiffTarefas(antiga, nova));
+            melhor = Math.min(melhor, System.nanoTime() - inicio);
+
+            eventos = new Contador();
+            resultado.dispatchUpdatesTo(eventos);
+        }
+
+        long semMudanca = System.nanoTime();
+        DiffUtil.calculateDiff(new DiffTarefas(antiga, copiar(antiga)));
+        semMudanca = System.nanoTime() - semMudanca;
+
+        Log.i(TAG, String.format("%d tarefas: diff %d ms (sem mudanças: %d ms) → %s",
+                tamanho, melhor / 1_000_000, semMudanca / 1_000_000, eventos));
+
+        assertTrue(eventos.inseridas > 0 && eventos.removidas > 0 && eventos.alteradas > 0);
+        assertEquals(nova.size(), antiga.size() + eventos.inseridas - eventos.removidas);
+    }
+
+    // ================================
+    // Dados
+    // ================================
+    private static List<Tarefa> gerar(int tamanho, Random r) {
+        List<Tarefa> lista = new ArrayList<>(tamanho);
+        for (int i = 1; i <= tamanho; i++) {
+            lista.add(new Tarefa(i, "Tarefa " + i, null,
+                    String.format("%02d/%02d/2025", 1 + r.nextInt(28), 1 + r.nextInt(12)),
+                    1 + r.nextInt(3), r.nextInt(4) == 0));
+        }
+        return lista;
+    }
+
+    private static List<Tarefa> copiar(List<Tarefa> lista) {
+        List<Tarefa> copia = new ArrayList<>(lista.size());
+        for (Tarefa t : lista) {
+            copia.add(new Tarefa(t.getId(), t.getTitulo(), t.getDescricao(), t.getData(),
+                    t.getPrioridade(), t.isConcluido()));
+        }
+        return copia;
+    }
+
+    private static List<Tarefa> alterar(List<Tarefa> antiga, Random r) {
+        List<Tarefa> nova = copiar(antiga);
+        int n = antiga.size();
+        int proximoId = n + 1;
+
+        for (int i = 0; i < n / 100; i++) nova.remove(r.nextInt(nova.size()));
+        for (int i = 0; i < n / 100; i++) {
+            nova.add(r.nextInt(nova.size()), new Tarefa(proximoId++, "Nova", null, "01/01/2025", 2, false));
+        }
+        for (int i = 0; i < n / 100; i++) {
+            Tarefa t = nova.get(r.nextInt(nova.size()));
+            t.setConcluido(!t.isConcluido());
+        }
+        for (int i = 0; i < n / 1000; i++) {
+            nova.add(r.nextInt(nova.size()), nova.remove(r.nextInt(nova.size())));
+        }
+        return nova;
+    }
+
+    private static class Contador implements ListUpdateCallback {
+        int inseridas, removidas, movidas, alteradas;
+
+        @Override
+        public void onInserted(int position, int count) {
+            inseridas += count;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            removidas += count;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            movidas++;
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            alteradas += count;
+        }
+
+        @Override
+        public String toString() {
+            return "inseridas=" + inseridas + " removidas=" + removidas
+                    + " movidas=" + movidas + " alteradas=" + alteradas;
+        }
+    }
+}
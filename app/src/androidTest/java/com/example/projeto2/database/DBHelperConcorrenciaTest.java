@@ -0,0 +1,146 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifica que, com a conexão compartilhada em modo WAL, leituras rodam
+ * ao mesmo tempo que uma escrita sem SQLiteDatabaseLockedException.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DBHelperConcorrenciaTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_concorrencia.db";
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void walEstaAtivo() {
+        assertTrue(helper.getWritableDatabase().isWriteAheadLoggingEnabled());
+    }
+
+    @Test
+    public void leituraNaoEsperaTransacaoDeEscritaAberta() throws Exception {
+        dao.inserir(new Tarefa(0, "Existente", "", "01/01/2025", 1, false));
+
+        CountDownLatch escritaAberta = new CountDownLatch(1);
+        CountDownLatch leituraFeita = new CountDownLatch(1);
+        AtomicInteger totalLido = new AtomicInteger(-1);
+
+        Thread escritor = new Thread(() -> {
+            SQLiteDatabase db = helper.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                dao.inserir(new Tarefa(0, "Nova", "", "02/01/2025", 2, false));
+                escritaAberta.countDown();
+                // Mantém a transação aberta até o leitor terminar
+                leituraFeita.await(5, TimeUnit.SECONDS);
+                db.setTransactionSuccessful();
+            } catch (InterruptedException ignorada) {
+                Thread.currentThread().interrupt();
+            } finally {
+                db.endTransaction();
+            }
+        });
+        escritor.start();
+
+        assertTrue(escritaAberta.await(5, TimeUnit.SECONDS));
+
+        // Lê em outra thread enquanto a escrita ainda não foi confirmada
+        Thread leitor = new Thread(() -> {
+            try (Cursor c = helper.getReadableDatabase().rawQuery("SELECT COUNT(*) FROM tarefas", null)) {
+                c.moveToFirst();
+                totalLido.set(c.getInt(0));
+            }
+            leituraFeita.countDown();
+        });
+        leitor.start();
+
+        assertTrue("leitura bloqueou atrás da escrita", leituraFeita.await(2, TimeUnit.SECONDS));
+        escritor.join();
+        leitor.join();
+
+        // Leitor vê o snapshot anterior à transação
+        assertEquals(1, totalLido.get());
+        assertEquals(2, contarTarefas());
+    }
+
+    @Test
+    public void leiturasEEscritasSimultaneasSemErro() throws Exception {
+        final int threads = 4;
+        final int operacoes = 200;
+        List<Throwable> erros = new CopyOnWriteArrayList<>();
+        CountDownLatch largada = new CountDownLatch(1);
+        Thread[] trabalhadores = new Thread[threads];
+
+        for (int i = 0; i < threads; i++) {
+            final boolean escritor = i == 0;
+            trabalhadores[i] = new Thread(() -> {
+                try {
+                    largada.await();
+                    for (int n = 0; n < operacoes; n++) {
+                        if (escritor) {
+                            Tarefa t = new Tarefa(0, "T" + n, "", "01/01/2025", 1 + n % 3, false);
+                            t.setId((int) dao.inserir(t));
+                            t.setConcluido(true);
+                            dao.atualizar(t);
+                        } else {
+                            dao.listar();
+                        }
+                    }
+                } catch (Throwable e) {
+                    erros.add(e);
+                }
+            });
+            trabalhadores[i].start();
+        }
+
+        largada.countDown();
+        for (Thread t : trabalhadores) t.join();
+
+        assertTrue("erros: " + erros, erros.isEmpty());
+        assertEquals(operacoes, contarTarefas());
+    }
+
+    private int contarTarefas() {
+        try (Cursor c = helper.getReadableDatabase().rawQuery("SELECT COUNT(*) FROM tarefas", null)) {
+            c.moveToFirst();
+            return c.getInt(0);
+        }
+    }
+}
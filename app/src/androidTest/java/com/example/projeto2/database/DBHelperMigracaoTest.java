@@ -0,0 +1,74 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.utils.DataCodec;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Migração de um banco na versão 1 (sem data_epoch): nenhuma linha pode ser perdida
+ * e data_epoch deve ser preenchida a partir do texto dd/MM/yyyy.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DBHelperMigracaoTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_migracao.db";
+    private static final int LINHAS = 1234; // mais de um bloco da migração
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void migraVersao1SemPerderDados() {
+        // Cria o banco exatamente como a versão 1 criava
+        SQLiteDatabase v1 = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(BANCO_TESTE), null);
+        v1.execSQL("CREATE TABLE tarefas (id INTEGER PRIMARY KEY AUTOINCREMENT, titulo TEXT NOT NULL," +
+                "descricao TEXT, data TEXT, prioridade INTEGER, concluido INTEGER DEFAULT 0)");
+        for (int i = 0; i < LINHAS; i++) {
+            String data = i == 0 ? "data ruim" : String.format("%02d/%02d/2025", 1 + i % 28, 1 + i % 12);
+            v1.execSQL("INSERT INTO tarefas (titulo, data, prioridade) VALUES (?, ?, ?)",
+                    new Object[]{"T" + i, data, 1 + i % 3});
+        }
+        v1.setVersion(1);
+        v1.close();
+
+        DBHelper helper = new DBHelper(context, BANCO_TESTE);
+        SQLiteDatabase db = helper.getWritableDatabase();
+
+        try (Cursor c = db.rawQuery("SELECT data, data_epoch FROM tarefas ORDER BY id", null)) {
+            assertEquals(LINHAS, c.getCount());
+            while (c.moveToNext()) {
+                assertEquals(DataCodec.paraEpochDay(c.getString(0)), c.getInt(1));
+            }
+        }
+
+        try (Cursor c = db.rawQuery("EXPLAIN QUERY PLAN SELECT id FROM tarefas ORDER BY data_epoch", null)) {
+            StringBuilder plano = new StringBuilder();
+            while (c.moveToNext()) plano.append(c.getString(c.getColumnCount() - 1)).append('\n');
+            assertFalse(plano.toString(), plano.toString().contains("TEMP B-TREE"));
+        }
+
+        helper.close();
+    }
+}
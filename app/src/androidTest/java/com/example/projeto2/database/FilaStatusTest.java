@@ -0,0 +1,137 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.SystemClock;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Fila de status: toques aparecem na hora nas leituras, toques repetidos viram
+ * um único commit, e nada se perde (outra escrita, fechamento do banco).
+ */
+@RunWith(AndroidJUnit4.class)
+public class FilaStatusTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_fila.db";
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+    private long[] ids;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+
+        List<Tarefa> tarefas = new ArrayList<>();
+        for (int i = 0; i < 10; i++) tarefas.add(new Tarefa(0, "T" + i, "", "01/01/2025", 1, false));
+        ids = dao.inserirLote(tarefas);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void toquesSeguidosViramUmCommit() {
+        FilaStatus fila = dao.getFilaStatus();
+        long versaoAntes = helper.getRastreador().getVersao(RastreadorAlteracoes.TABELA_TAREFAS);
+
+        // 3 toques em cada tarefa → termina marcada
+        for (int volta = 0; volta < 3; volta++) {
+            for (long id : ids) fila.enfileirar((int) id, volta % 2 == 0);
+        }
+
+        // Leitura já vê o valor; o banco ainda não
+        assertTrue(dao.buscarPorId((int) ids[0]).isConcluido());
+        assertEquals(0, contarConcluidas());
+
+        SystemClock.sleep(FilaStatus.ESPERA_MS * 3);
+
+        assertEquals(ids.length, contarConcluidas());
+        assertEquals(0, fila.getPendentes());
+        assertEquals(versaoAntes + 1, helper.getRastreador().getVersao(RastreadorAlteracoes.TABELA_TAREFAS));
+    }
+
+    @Test
+    public void outraEscritaGravaAFilaAntes() {
+        dao.getFilaStatus().enfileirar((int) ids[0], true);
+        dao.excluirConcluidas(); // deve considerar o toque ainda na fila
+
+        assertNull(dao.buscarPorId((int) ids[0]));
+        assertEquals(ids.length - 1, dao.lerContadores().getTotal());
+    }
+
+    @Test
+    public void fecharBancoGravaAFila() {
+        dao.getFilaStatus().enfileirar((int) ids[3], true);
+        helper.close();
+
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+        assertEquals(1, contarConcluidas());
+        assertTrue(dao.buscarPorId((int) ids[3]).isConcluido());
+    }
+
+    @Test
+    public void gravacaoRodaNaThreadDeEscrita() throws Exception {
+        dao.getFilaStatus().enfileirar((int) ids[1], true);
+        String[] thread = new String[1];
+        helper.getRastreador().inscrever(() -> thread[0] = Thread.currentThread().getName(),
+                RastreadorAlteracoes.TABELA_TAREFAS);
+
+        dao.getFilaStatus().descarregarNaEscrita().get();
+
+        assertTrue(thread[0], thread[0].startsWith("tarefas-escrita"));
+        assertEquals(1, contarConcluidas());
+    }
+
+    @Test
+    public void falhaNaGravacaoBarraAEscritaSeguinte() {
+        helper.getWritableDatabase().execSQL("CREATE TRIGGER falha_status BEFORE UPDATE OF concluido "
+                + "ON tarefas BEGIN SELECT RAISE(ABORT, 'falha simulada'); END");
+        dao.getFilaStatus().enfileirar((int) ids[1], true);
+
+        try {
+            dao.deletar((int) ids[2]);
+            fail("a exclusão não pode passar à frente do toque não gravado");
+        } catch (RuntimeException esperado) {
+            // a fila falhou antes: a exclusão nem rodou
+        }
+        assertEquals(1, dao.getFilaStatus().getPendentes());
+        assertNotNull(dao.buscarPorId((int) ids[2]));
+
+        helper.getWritableDatabase().execSQL("DROP TRIGGER falha_status");
+        dao.deletar((int) ids[2]);
+        assertEquals(0, dao.getFilaStatus().getPendentes());
+        assertEquals(1, contarConcluidas());
+        assertNull(dao.buscarPorId((int) ids[2]));
+    }
+
+    private int contarConcluidas() {
+        try (Cursor c = helper.getReadableDatabase()
+                .rawQuery("SELECT COUNT(*) FROM tarefas WHERE concluido = 1", null)) {
+            c.moveToFirst();
+            return c.getInt(0);
+        }
+    }
+}
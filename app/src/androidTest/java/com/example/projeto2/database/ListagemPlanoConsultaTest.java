@@ -0,0 +1,95 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Regressão de plano de consulta: nenhuma das 24 combinações de listar()
+ * (4 ordenações × ocultar concluídas × 3 prioridades mínimas) pode cair em
+ * varredura completa + ordenação em árvore temporária.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ListagemPlanoConsultaTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_plano.db";
+    private static final int[] PRIORIDADES_MINIMAS = {0, 2, 3};
+
+    private Context context;
+    private DBHelper helper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void nenhumaCombinacaoOrdenaEmArvoreTemporaria() {
+        verificarTodasCombinacoes(); // tabela vazia, sem estatísticas
+
+        List<Tarefa> tarefas = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            tarefas.add(new Tarefa(0, "Tarefa " + (i * 7919 % 2000), "",
+                    String.format("%02d/%02d/2025", 1 + i % 28, 1 + i % 12), 1 + i % 3, i % 2 == 0));
+        }
+        new TarefaDAO(context, helper).inserirLote(tarefas);
+        helper.getWritableDatabase().execSQL("ANALYZE");
+
+        verificarTodasCombinacoes(); // com dados e estatísticas do planejador
+    }
+
+    private void verificarTodasCombinacoes() {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        StringBuilder falhas = new StringBuilder();
+
+        for (int ordenacao = 0; ordenacao <= 3; ordenacao++) {
+            for (boolean ocultar : new boolean[]{false, true}) {
+                for (int prioridade : PRIORIDADES_MINIMAS) {
+                    PlanoConsulta consulta = TarefaDAO.planoListagem(new ConsultaTarefas(ocultar, ordenacao, prioridade));
+                    String plano = planoDe(db, consulta);
+
+                    if (plano.contains("USE TEMP B-TREE")) {
+                        falhas.append(consulta.getSql()).append("\n  → ").append(plano).append('\n');
+                    }
+                }
+            }
+        }
+
+        assertEquals("combinações com ordenação temporária:\n" + falhas, 0, falhas.length());
+    }
+
+    // Plano com os parâmetros ligados, como listar() executa
+    private static String planoDe(SQLiteDatabase db, PlanoConsulta consulta) {
+        StringBuilder plano = new StringBuilder();
+        try (Cursor c = db.rawQuery("EXPLAIN QUERY PLAN " + consulta.getSql(), consulta.getArgumentos())) {
+            int colDetalhe = c.getColumnIndexOrThrow("detail");
+            while (c.moveToNext()) {
+                plano.append(c.getString(colDetalhe)).append(" | ");
+            }
+        }
+        return plano.toString();
+    }
+}
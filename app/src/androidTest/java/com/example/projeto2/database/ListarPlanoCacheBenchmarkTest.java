@@ -0,0 +1,128 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Custo de preparar o SELECT em chamadas repetidas de listar()/listarResumo().
+ *
+ * Percorre as 24 combinações de filtros/ordenação (como o usuário trocando as
+ * configurações), sempre com o cache de resultados limpo, em dois cenários:
+ *  - cache de statements com 1 vaga: todo SELECT é compilado de novo (como antes,
+ *    quando cada chamada montava um texto com os valores literais e as variações
+ *    não cabiam no cache padrão de 25);
+ *  - DBHelper.TAMANHO_CACHE_SQL: o texto de cada PlanoConsulta é fixo, então o
+ *    statement compilado é reaproveitado. A diferença é o custo do preparo.
+ * Tabela pequena, para o preparo não se perder no tempo de leitura. Tempos no log.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ListarPlanoCacheBenchmarkTest {
+
+    private static final String TAG = "ListarPlanoBenchmark";
+    private static final String BANCO_TESTE = "tarefa_teste_plano_cache.db";
+    private static final int TAREFAS = 50;
+    private static final int REPETICOES = 20;
+    private static final int[] PRIORIDADES_MINIMAS = {0, 2, 3};
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+    private final List<ConsultaTarefas> consultas = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+
+        List<Tarefa> tarefas = new ArrayList<>();
+        for (int i = 0; i < TAREFAS; i++) {
+            tarefas.add(new Tarefa(0, "Tarefa " + i, "", String.format("%02d/03/2025", 1 + i % 28),
+                    1 + i % 3, i % 2 == 0));
+        }
+        dao.inserirLote(tarefas);
+
+        for (int ordenacao = 0; ordenacao <= 3; ordenacao++) {
+            for (boolean ocultar : new boolean[]{false, true}) {
+                for (int prioridade : PRIORIDADES_MINIMAS) {
+                    consultas.add(new ConsultaTarefas(ocultar, ordenacao, prioridade));
+                }
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void planoMontadoUmaVezPorCombinacao() {
+        Set<String> textos = new HashSet<>();
+        for (ConsultaTarefas consulta : consultas) {
+            PlanoConsulta plano = TarefaDAO.planoListagem(consulta);
+            assertSame(plano, TarefaDAO.planoListagem(new ConsultaTarefas(consulta.isOcultarConcluidas(),
+                    consulta.getOrdenacao(), consulta.getPrioridadeMinima())));
+            assertFalse(plano.getSql(), plano.getSql().contains("prioridade >= " + consulta.getPrioridadeMinima()));
+            textos.add(plano.getSql());
+        }
+        // prioridade mínima 2 e 3 usam o mesmo texto (o valor é parâmetro)
+        assertEquals(4 * 2 * 2, textos.size());
+    }
+
+    @Test
+    public void listarRepetidoSemRecompilar() {
+        SQLiteDatabase db = helper.getReadableDatabase();
+
+        db.setMaxSqlCacheSize(1);
+        long recompilando = medir();
+
+        db.setMaxSqlCacheSize(DBHelper.TAMANHO_CACHE_SQL);
+        medir(); // aquece: compila cada texto uma vez
+        long reaproveitando = medir();
+
+        int chamadas = consultas.size() * 2;
+        Log.i(TAG, String.format("%d chamadas: recompilando=%dus/chamada, statement em cache=%dus/chamada, "
+                        + "preparo≈%dus/chamada, planos=%d",
+                chamadas, recompilando / chamadas / 1000, reaproveitando / chamadas / 1000,
+                (recompilando - reaproveitando) / chamadas / 1000, PlanoConsulta.contarPlanos()));
+        assertTrue(reaproveitando < recompilando);
+    }
+
+    // Melhor tempo (ns) de uma volta por todas as combinações, em listar e listarResumo
+    private long medir() {
+        long melhor = Long.MAX_VALUE;
+        for (int r = 0; r < REPETICOES; r++) {
+            long inicio = SystemClock.elapsedRealtimeNanos();
+            for (ConsultaTarefas consulta : consultas) {
+                dao.getCache().limpar(); // força a ida ao banco
+                assertNotNull(dao.listar(consulta));
+                dao.getCache().limpar();
+                assertNotNull(dao.listarResumo(consulta));
+            }
+            melhor = Math.min(melhor, SystemClock.elapsedRealtimeNanos() - inicio);
+        }
+        return melhor;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Efeito da manutenção + perfil do SQLite em listar() e nas escritas.
+ *
+ * Base: banco com 20 mil tarefas, metade excluída (páginas livres), sem estatísticas
+ * e com os valores padrão do SQLite (cache ~2 MB, sem mmap, synchronous FULL).
+ * Depois: aplicarPerfil + uma passada da ManutencaoBanco. Os tempos vão para o log.
+ *
+ * Cada perfil é medido num banco próprio, montado do zero e reaberto antes de medir:
+ * o cache de páginas do SQLite começa vazio nos dois (o cache de arquivos do sistema
+ * não pode ser limpo daqui e pesa igual para ambos).
+ */
+@RunWith(AndroidJUnit4.class)
+public class ManutencaoBancoBenchmarkTest {
+
+    private static final String TAG = "ManutencaoBenchmark";
+    private static final String BANCO_TESTE = "tarefa_teste_manutencao.db";
+    private static final String BANCO_PADRAO = "tarefa_teste_manutencao_padrao.db";
+    private static final int TAREFAS = 20_000;
+    private static final int REPETICOES = 5;
+    private static final int ESCRITAS = 200;
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        context.deleteDatabase(BANCO_PADRAO);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+        fragmentar(dao);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+        context.deleteDatabase(BANCO_PADRAO);
+    }
+
+    // 20 mil tarefas, metade excluída: deixa páginas livres e nenhuma estatística
+    private static void fragmentar(TarefaDAO dao) {
+        Random r = new Random(7);
+        List<Tarefa> tarefas = new ArrayList<>();
+        for (int i = 0; i < TAREFAS; i++) {
+            tarefas.add(new Tarefa(0, "Tarefa " + r.nextInt(TAREFAS), "descrição da tarefa " + i,
+                    String.format("%02d/%02d/2025", 1 + r.nextInt(28), 1 + r.nextInt(12)),
+                    1 + r.nextInt(3), i % 2 == 0));
+        }
+        dao.inserirLote(tarefas);
+        dao.excluirConcluidas();
+        dao.esvaziarLixeira(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void manutencaoLiberaPaginasEColetaEstatisticas() {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        assertEquals(2, DatabaseUtils.longForQuery(db, "PRAGMA auto_vacuum", null)); // banco novo
+        long livresAntes = DatabaseUtils.longForQuery(db, "PRAGMA freelist_count", null);
+        assertTrue(livresAntes >= ManutencaoBanco.MIN_PAGINAS_LIVRES);
+
+        long liberadas = helper.getManutencao().executar(false);
+
+        assertTrue(liberadas > 0); // ANALYZE pode reaproveitar algumas páginas livres antes
+        assertEquals(0, DatabaseUtils.longForQuery(db, "PRAGMA freelist_count", null));
+        assertEquals(1, DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM sqlite_master WHERE name = 'sqlite_stat1'", null));
+        assertEquals(TAREFAS / 2, dao.lerContadores().getTotal());
+    }
+
+    @Test
+    public void listarEEscritasAntesEDepois() {
+        // Antes: banco próprio, aberto sempre sem o perfil
+        DBHelper padrao = abrirSemPerfil();
+        fragmentar(new TarefaDAO(context, padrao));
+        padrao.close();
+        padrao = abrirSemPerfil();
+        String antes = medir(new TarefaDAO(context, padrao));
+        padrao.close();
+
+        // Depois: o banco do setUp (com perfil) + manutenção, reaberto antes de medir
+        helper.getManutencao().executar(false);
+        helper.close();
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+        String depois = medir(dao);
+
+        Log.i(TAG, "antes:  " + antes);
+        Log.i(TAG, "depois: " + depois);
+    }
+
+    // Valores padrão do SQLite em todas as conexões (DBHelper.onConfigure não roda)
+    private DBHelper abrirSemPerfil() {
+        return new DBHelper(context, BANCO_PADRAO) {
+            @Override
+            public void onConfigure(SQLiteDatabase db) {
+                executarPragma(db, "PRAGMA synchronous = FULL");
+            }
+        };
+    }
+
+    // Melhor tempo de listar() em cada ordenação (sem o cache) + média por escrita
+    private static String medir(TarefaDAO dao) {
+        StringBuilder sb = new StringBuilder();
+        for (int ordenacao = 0; ordenacao < 4; ordenacao++) {
+            ConsultaTarefas consulta = new ConsultaTarefas(false, ordenacao, 2);
+            long melhor = Long.MAX_VALUE;
+            for (int i = 0; i < REPETICOES; i++) {
+                dao.getCache().limpar();
+                long inicio = SystemClock.elapsedRealtimeNanos();
+                dao.listar(consulta);
+                melhor = Math.min(melhor, SystemClock.elapsedRealtimeNanos() - inicio);
+            }
+            sb.append("listar(ord=").append(ordenacao).append(")=")
+                    .append(melhor / 1000).append("µs ");
+        }
+
+        long inicio = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < ESCRITAS; i++) {
+            dao.inserir(new Tarefa(0, "Nova " + i, "", "01/01/2025", 2, false));
+        }
+        long porEscrita = (SystemClock.elapsedRealtimeNanos() - inicio) / ESCRITAS;
+        sb.append("inserir=").append(porEscrita / 1000).append("µs");
+        return sb.toString();
+    }
+}
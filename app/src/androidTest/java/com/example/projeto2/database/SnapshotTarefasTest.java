@@ -0,0 +1,186 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.ContadoresTarefas;
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Snapshot binário: ida e volta preservando ids, busca e contadores; arquivo
+ * corrompido ou truncado é recusado sem alterar o banco; 500 mil tarefas
+ * restauradas em poucos segundos; a leitura do backup não trava as escritas.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SnapshotTarefasTest {
+
+    private static final String TAG = "SnapshotTarefas";
+    private static final String BANCO_TESTE = "tarefa_teste_snapshot.db";
+    private static final int QUINHENTAS_MIL = 500_000;
+    private static final long TEMPO_MAXIMO_MS = 10_000;
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+    private SnapshotTarefas snapshot;
+    private File arquivo;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+        snapshot = new SnapshotTarefas(dao);
+        arquivo = new File(context.getCacheDir(), "teste.snapshot");
+        arquivo.delete();
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+        arquivo.delete();
+    }
+
+    @Test
+    public void idaEVolta() throws IOException {
+        inserir(300);
+        dao.deletar(5); // ids com buraco
+        ArrayList<Tarefa> antes = dao.listar(new ConsultaTarefas(false, ConsultaTarefas.ORDEM_ID, 0));
+        ContadoresTarefas contadoresAntes = dao.lerContadores();
+
+        assertEquals(antes.size(), snapshot.gravar(arquivo));
+        dao.inserir(new Tarefa(0, "depois do backup", "", "01/01/2025", 1, false));
+        assertEquals(antes.size(), snapshot.restaurar(arquivo));
+
+        ArrayList<Tarefa> depois = dao.listar(new ConsultaTarefas(false, ConsultaTarefas.ORDEM_ID, 0));
+        assertEquals(antes.size(), depois.size());
+        for (int i = 0; i < antes.size(); i++) {
+            Tarefa a = antes.get(i);
+            Tarefa d = depois.get(i);
+            assertEquals(a.getId(), d.getId());
+            assertEquals(a.getTitulo(), d.getTitulo());
+            assertEquals(a.getDescricao(), d.getDescricao());
+            assertEquals(a.getData(), d.getData());
+            assertEquals(a.getPrioridade(), d.getPrioridade());
+            assertEquals(a.isConcluido(), d.isConcluido());
+        }
+
+        // FTS e contadores reconstruídos
+        ContadoresTarefas c = dao.lerContadores();
+        assertEquals(contadoresAntes.getTotal(), c.getTotal());
+        assertEquals(contadoresAntes.getConcluidas(), c.getConcluidas());
+        assertFalse(dao.buscar("especial", null).isEmpty());
+        assertTrue(dao.buscar("depois", null).isEmpty());
+
+        // triggers de volta: escritas seguintes continuam atualizando contadores
+        dao.inserir(new Tarefa(0, "nova", "", "01/01/2025", 1, true));
+        assertEquals(contadoresAntes.getConcluidas() + 1, dao.lerContadores().getConcluidas());
+    }
+
+    @Test
+    public void arquivoCorrompidoNaoAlteraOBanco() throws IOException {
+        inserir(100);
+        snapshot.gravar(arquivo);
+        dao.inserir(new Tarefa(0, "fica", "", "01/01/2025", 1, false));
+
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo, "rw")) {
+            raf.seek(raf.length() / 2);
+            int b = raf.read();
+            raf.seek(raf.length() / 2);
+            raf.write(b ^ 0x40);
+        }
+        assertInvalido();
+
+        snapshot.gravar(arquivo);
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo, "rw")) {
+            raf.setLength(raf.length() - 30); // truncado
+        }
+        assertInvalido();
+    }
+
+    private void assertInvalido() throws IOException {
+        int total = dao.lerContadores().getTotal();
+        try {
+            snapshot.restaurar(arquivo);
+            fail("arquivo inválido deveria ser recusado");
+        } catch (SnapshotTarefas.SnapshotInvalidoException esperado) {
+            assertEquals(total, dao.lerContadores().getTotal());
+        }
+    }
+
+    @Test
+    public void restaurar500mil() throws IOException {
+        inserir(QUINHENTAS_MIL);
+
+        long inicio = SystemClock.elapsedRealtime();
+        assertEquals(QUINHENTAS_MIL, snapshot.gravar(arquivo));
+        long msGravar = SystemClock.elapsedRealtime() - inicio;
+
+        inicio = SystemClock.elapsedRealtime();
+        assertEquals(QUINHENTAS_MIL, snapshot.restaurar(arquivo));
+        long msRestaurar = SystemClock.elapsedRealtime() - inicio;
+
+        Log.i(TAG, "500k: gravar=" + msGravar + "ms restaurar=" + msRestaurar + "ms arquivo="
+                + arquivo.length() / 1024 + " KB");
+        assertEquals(QUINHENTAS_MIL, dao.lerContadores().getTotal());
+        assertTrue("restauração levou " + msRestaurar + " ms", msRestaurar < TEMPO_MAXIMO_MS);
+    }
+
+    @Test
+    public void leituraDoBackupNaoTravaEscritas() throws IOException {
+        inserir(3 * TarefaDAO.PAGINA_PERCORRER);
+        TarefaDAO outraThread = new TarefaDAO(context, helper);
+        boolean[] escreveu = {false};
+
+        int visitadas = dao.lerEmTransacao(() -> dao.percorrer(t -> {
+            if (escreveu[0]) return;
+            // Escrita de outra thread no meio da volta: não espera a leitura terminar
+            Thread escrita = new Thread(() ->
+                    outraThread.inserir(new Tarefa(0, "Nova", "", "01/01/2025", 1, false)));
+            escrita.start();
+            try {
+                escrita.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            escreveu[0] = !escrita.isAlive();
+            assertTrue("escrita travada pela leitura do backup", escreveu[0]);
+        }));
+
+        // A tarefa inserida no meio fica fora do retrato
+        assertEquals(3 * TarefaDAO.PAGINA_PERCORRER, visitadas);
+        assertEquals(3 * TarefaDAO.PAGINA_PERCORRER + 1, dao.lerContadores().getTotal());
+    }
+
+    private void inserir(int quantidade) {
+        List<Tarefa> lote = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            lote.add(new Tarefa(0, "Tarefa " + (i % 1000), i % 7 == 0 ? null : "descrição especial " + i,
+                    String.format("%02d/%02d/2025", 1 + i % 28, 1 + i % 12), 1 + i % 3, i % 2 == 0));
+            if (lote.size() == 10_000) {
+                dao.inserirLote(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) dao.inserirLote(lote);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+import com.example.projeto2.utils.DataCodec;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+/**
+ * atualizarAlteracoes grava só os campos alterados e não escreve nada quando
+ * nada mudou. Mede também quantos bytes vão para o WAL a cada marcar/desmarcar
+ * de uma tarefa com descrição longa: UPDATE completo (atualizar) x mínimo.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaDAOAlteracoesTest {
+
+    private static final String TAG = "TarefaDAOAlteracoes";
+    private static final String BANCO_TESTE = "tarefa_teste_alteracoes.db";
+    private static final int TOQUES = 50;
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void lidaDoBancoComecaSemAlteracoes() {
+        int id = (int) dao.inserir(new Tarefa(0, "A", "desc", "01/01/2025", 2, false));
+        Tarefa t = dao.buscarPorId(id);
+        assertFalse(t.isAlterada());
+
+        t.setTitulo("A"); // mesmo valor
+        t.setPrioridade(2);
+        assertFalse(t.isAlterada());
+
+        t.setConcluido(true);
+        assertEquals(Tarefa.CAMPO_CONCLUIDO, t.getCamposAlterados());
+    }
+
+    @Test
+    public void semAlteracoesNaoGrava() {
+        int id = (int) dao.inserir(new Tarefa(0, "A", "desc", "01/01/2025", 2, false));
+        Tarefa t = dao.buscarPorId(id);
+
+        long antes = bytesWal();
+        assertEquals(0, dao.atualizarAlteracoes(t));
+        assertEquals(antes, bytesWal());
+    }
+
+    @Test
+    public void gravaSoCamposAlterados() {
+        int id = (int) dao.inserir(new Tarefa(0, "A", "desc", "01/01/2025", 2, false));
+        Tarefa t = dao.buscarPorId(id);
+        t.setData("15/03/2025");
+        t.setConcluido(true);
+        assertEquals(1, dao.atualizarAlteracoes(t));
+        assertFalse(t.isAlterada());
+
+        Tarefa lida = dao.buscarPorId(id);
+        assertEquals("A", lida.getTitulo());
+        assertEquals("desc", lida.getDescricao());
+        assertEquals("15/03/2025", lida.getData());
+        assertTrue(lida.isConcluido());
+
+        // data_epoch acompanha a data
+        try (Cursor c = helper.getReadableDatabase().rawQuery(
+                "SELECT data_epoch FROM tarefas WHERE id = ?", new String[]{String.valueOf(id)})) {
+            assertTrue(c.moveToFirst());
+            assertEquals(DataCodec.paraEpochDay("15/03/2025"), c.getLong(0));
+        }
+    }
+
+    @Test
+    public void bytesNoWalPorToque() {
+        StringBuilder longa = new StringBuilder();
+        for (int i = 0; i < 400; i++) longa.append("linha de descrição ").append(i).append('\n');
+        int id = (int) dao.inserir(new Tarefa(0, "Tarefa longa", longa.toString(), "01/01/2025", 2, false));
+
+        long completo = medirToques(id, true);
+        long minimo = medirToques(id, false);
+
+        Log.i(TAG, "bytes no WAL por toque: atualizar=" + completo
+                + " atualizarAlteracoes=" + minimo);
+        assertTrue("UPDATE mínimo deveria journalar menos", minimo < completo);
+    }
+
+    private long medirToques(int id, boolean completo) {
+        checkpoint();
+        long antes = bytesWal();
+        for (int i = 0; i < TOQUES; i++) {
+            Tarefa t = dao.buscarPorId(id);
+            t.setConcluido(!t.isConcluido());
+            if (completo) dao.atualizar(t);
+            else dao.atualizarAlteracoes(t);
+        }
+        return (bytesWal() - antes) / TOQUES;
+    }
+
+    // Zera o WAL para a medição começar do mesmo ponto
+    private void checkpoint() {
+        try (Cursor c = helper.getWritableDatabase().rawQuery("PRAGMA wal_checkpoint(TRUNCATE)", null)) {
+            c.moveToFirst();
+        }
+    }
+
+    private long bytesWal() {
+        File wal = new File(context.getDatabasePath(BANCO_TESTE).getPath() + "-wal");
+        return wal.exists() ? wal.length() : 0;
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.os.Looper;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.ContadoresTarefas;
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Com a verificação de thread ligada, nenhum método do DAO pode rodar na thread
+ * principal; a fachada assíncrona executa fora dela e entrega o resultado nela.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaDAOAsyncTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_async.db";
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+    private TarefaDAOAsync async;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+        async = new TarefaDAOAsync(dao, null);
+        TarefaDAO.setExigirSegundoPlano(true);
+    }
+
+    @After
+    public void tearDown() {
+        TarefaDAO.setExigirSegundoPlano(false);
+        async.cancelarTudo();
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void daoNaThreadPrincipalLancaExcecao() {
+        AtomicReference<Throwable> erro = new AtomicReference<>();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            try {
+                dao.lerContadores();
+            } catch (Throwable t) {
+                erro.set(t);
+            }
+        });
+        assertTrue(erro.get() instanceof IllegalStateException);
+
+        // Fora da thread principal continua permitido
+        assertEquals(0, dao.lerContadores().getTotal());
+    }
+
+    @Test
+    public void fachadaExecutaForaEEntregaNaPrincipal() throws Exception {
+        CountDownLatch fim = new CountDownLatch(1);
+        AtomicBoolean executouNaPrincipal = new AtomicBoolean(true);
+        AtomicBoolean entregouNaPrincipal = new AtomicBoolean(false);
+        AtomicReference<ContadoresTarefas> resultado = new AtomicReference<>();
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                async.escrever(d -> {
+                    executouNaPrincipal.set(Looper.myLooper() == Looper.getMainLooper());
+                    d.inserir(new Tarefa(0, "A", "", "01/01/2025", 1, false));
+                    return d.lerContadores();
+                }, contadores -> {
+                    entregouNaPrincipal.set(Looper.myLooper() == Looper.getMainLooper());
+                    resultado.set(contadores);
+                    fim.countDown();
+                }));
+
+        assertTrue(fim.await(5, TimeUnit.SECONDS));
+        assertFalse(executouNaPrincipal.get());
+        assertTrue(entregouNaPrincipal.get());
+        assertEquals(1, resultado.get().getTotal());
+    }
+
+    @Test
+    public void escritasExecutamNaOrdemDeEnvio() throws Exception {
+        long id = dao.inserir(new Tarefa(0, "A", "", "01/01/2025", 1, false));
+        final int vezes = 50;
+        CountDownLatch fim = new CountDownLatch(vezes);
+        List<Integer> ordem = Collections.synchronizedList(new ArrayList<>());
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            for (int i = 0; i < vezes; i++) {
+                final int n = i;
+                async.atualizarStatus((int) id, n % 2 == 0, linhas -> {
+                    ordem.add(n);
+                    fim.countDown();
+                });
+            }
+        });
+
+        assertTrue(fim.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < vezes; i++) assertEquals(i, (int) ordem.get(i));
+        assertFalse(dao.buscarPorId((int) id).isConcluido()); // última escrita (49) → pendente
+    }
+
+    @Test
+    public void falhaNaEscritaChegaAoErroNaPrincipal() throws Exception {
+        CountDownLatch fim = new CountDownLatch(1);
+        AtomicBoolean entregouResultado = new AtomicBoolean(false);
+        AtomicBoolean erroNaPrincipal = new AtomicBoolean(false);
+        AtomicReference<Exception> erro = new AtomicReference<>();
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                async.escrever(d -> {
+                    throw new IllegalStateException("falha simulada");
+                }, r -> entregouResultado.set(true), e -> {
+                    erroNaPrincipal.set(Looper.myLooper() == Looper.getMainLooper());
+                    erro.set(e);
+                    fim.countDown();
+                }));
+
+        assertTrue(fim.await(5, TimeUnit.SECONDS));
+        assertTrue(erroNaPrincipal.get());
+        assertEquals("falha simulada", erro.get().getMessage());
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        assertFalse(entregouResultado.get());
+    }
+
+    @Test
+    public void escritaNuncaERecusadaComFilaCheia() throws Exception {
+        long id = dao.inserir(new Tarefa(0, "A", "", "01/01/2025", 1, false));
+        final int vezes = 500; // bem mais que a fila de leitura (FILA_MAXIMA)
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(vezes);
+        AtomicBoolean falhou = new AtomicBoolean(false);
+        async.setOnErroListener(e -> falhou.set(true));
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            // Segura a thread de escrita enquanto a fila enche
+            async.escrever(d -> {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }, null);
+            for (int i = 0; i < vezes; i++) {
+                async.atualizarStatus((int) id, i % 2 == 0, linhas -> fim.countDown());
+            }
+        });
+        liberar.countDown();
+
+        assertTrue(fim.await(20, TimeUnit.SECONDS));
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        assertFalse(falhou.get());
+    }
+
+    @Test
+    public void falhaNumBlocoDaExclusaoChegaAoErro() throws Exception {
+        List<Tarefa> concluidas = new ArrayList<>();
+        for (int i = 0; i < TarefaDAO.BLOCO_EXCLUSAO + 100; i++) {
+            concluidas.add(new Tarefa(0, "T" + i, "", "01/01/2025", 1, true));
+        }
+        dao.inserirLote(concluidas);
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(1);
+        AtomicBoolean terminou = new AtomicBoolean(false);
+        AtomicReference<Exception> erro = new AtomicReference<>();
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            // 1º bloco na fila; a lixeira some antes do 2º (que entra no fim da fila)
+            async.escrever(d -> {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }, null);
+            async.excluirConcluidas(null, excluidas -> terminou.set(true), e -> {
+                erro.set(e);
+                fim.countDown();
+            });
+            async.escrever(d -> {
+                helper.getWritableDatabase().execSQL("ALTER TABLE tarefas_lixeira RENAME TO lixeira_fora");
+                return null;
+            }, null);
+        });
+        liberar.countDown();
+
+        assertTrue(fim.await(10, TimeUnit.SECONDS));
+        assertNotNull(erro.get());
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        assertFalse(terminou.get());
+        // O bloco já movido continua guardado (não foi perdido)
+        assertEquals(100, dao.lerContadores().getTotal());
+        assertEquals(TarefaDAO.BLOCO_EXCLUSAO, DatabaseUtils.queryNumEntries(
+                helper.getReadableDatabase(), "lixeira_fora"));
+    }
+
+    @Test
+    public void esvaziarLixeiraPulaExclusaoEmAndamento() throws Exception {
+        List<Tarefa> concluidas = new ArrayList<>();
+        for (int i = 0; i < TarefaDAO.BLOCO_EXCLUSAO + 100; i++) {
+            concluidas.add(new Tarefa(0, "T" + i, "", "01/01/2025", 1, true));
+        }
+        dao.inserirLote(concluidas);
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(1);
+        long[] excluidaEm = new long[1];
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            // 1º bloco, esvaziar (ex.: onCreate depois de uma rotação) e só então o 2º bloco
+            async.escrever(d -> {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }, null);
+            excluidaEm[0] = async.excluirConcluidas(null, excluidas -> fim.countDown(), null);
+            async.esvaziarLixeira(Long.MAX_VALUE);
+        });
+        liberar.countDown();
+
+        assertTrue(fim.await(10, TimeUnit.SECONDS));
+        assertFalse(async.isExcluindo(excluidaEm[0]));
+        // Nada da exclusão em andamento foi apagado: tudo pode ser desfeito
+        assertEquals(TarefaDAO.BLOCO_EXCLUSAO + 100, DatabaseUtils.queryNumEntries(
+                helper.getReadableDatabase(), "tarefas_lixeira"));
+
+        // Terminada, ela já pode ser esvaziada
+        async.esvaziarLixeira(Long.MAX_VALUE).get(5, TimeUnit.SECONDS);
+        assertEquals(0, DatabaseUtils.queryNumEntries(helper.getReadableDatabase(), "tarefas_lixeira"));
+    }
+
+    @Test
+    public void falhaDoBancoNoSnapshotViraResultado() throws Exception {
+        dao.inserirLote(Collections.singletonList(new Tarefa(0, "A", "", "01/01/2025", 1, false)));
+        File arquivo = new File(context.getCacheDir(), "snapshot_teste_async.bin");
+        CountDownLatch gravou = new CountDownLatch(1);
+        CountDownLatch restaurou = new CountDownLatch(1);
+        AtomicReference<TransferenciaTarefas.Resultado> gravacao = new AtomicReference<>();
+        AtomicReference<TransferenciaTarefas.Resultado> restauracao = new AtomicReference<>();
+
+        try {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                    async.gravarSnapshot(arquivo, r -> {
+                        gravacao.set(r);
+                        gravou.countDown();
+                    }));
+            assertTrue(gravou.await(5, TimeUnit.SECONDS));
+            assertTrue(gravacao.get().isSucesso());
+
+            // A restauração esvazia a lixeira: sem a tabela, o SQLite lança SQLiteException
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+                async.escrever(d -> {
+                    helper.getWritableDatabase().execSQL("ALTER TABLE tarefas_lixeira RENAME TO lixeira_fora");
+                    return null;
+                }, null);
+                async.restaurarSnapshot(arquivo, r -> {
+                    restauracao.set(r);
+                    restaurou.countDown();
+                });
+            });
+            assertTrue(restaurou.await(5, TimeUnit.SECONDS));
+            assertFalse(restauracao.get().isSucesso());
+            assertNotNull(restauracao.get().getErro());
+            assertEquals(1, dao.lerContadores().getTotal()); // nada mudou
+        } finally {
+            arquivo.delete();
+        }
+    }
+
+    @Test
+    public void cancelarTudoDescartaCallbacks() throws Exception {
+        CountDownLatch executou = new CountDownLatch(1);
+        AtomicBoolean entregou = new AtomicBoolean(false);
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            async.escrever(d -> {
+                executou.countDown();
+                return d.inserir(new Tarefa(0, "A", "", "01/01/2025", 1, false));
+            }, id -> entregou.set(true));
+            async.cancelarTudo();
+        });
+
+        assertTrue(executou.await(5, TimeUnit.SECONDS));
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        assertFalse(entregou.get());
+
+        // A escrita não é perdida, só o callback
+        assertEquals(1, dao.lerContadores().getTotal());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Busca textual: sincronização por triggers, relevância, cancelamento
+ * e latência num corpus de 100 mil tarefas.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaDAOBuscaTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_busca.db";
+    private static final String TAG = "TarefaDAOBuscaTest";
+
+    private static final String[] PALAVRAS = {
+            "comprar", "estudar", "reunião", "relatório", "mercado", "academia", "pagar",
+            "conta", "projeto", "entregar", "ligar", "médico", "viagem", "revisar", "código"
+    };
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void triggersMantemIndiceERelevanciaPriorizaTitulo() {
+        long[] ids = dao.inserirLote(Arrays.asList(
+                new Tarefa(0, "Estudar", "comprar livro de Configuração", "01/01/2025", 1, false),
+                new Tarefa(0, "Comprar pão", "padaria", "01/01/2025", 1, false)));
+
+        List<Tarefa> r = dao.buscar("compr", null);
+        assertEquals(2, r.size());
+        assertEquals(ids[1], r.get(0).getId()); // casou no título → primeiro
+        assertEquals(1, dao.buscar("configuracao", null).size()); // sem acento
+
+        Tarefa editada = dao.buscarPorId((int) ids[0]);
+        editada.setDescricao("nada aqui");
+        dao.atualizar(editada);
+        assertEquals(1, dao.buscar("compr", null).size());
+
+        dao.deletar((int) ids[1]);
+        assertTrue(dao.buscar("compr", null).isEmpty());
+        assertTrue(dao.buscar("\" * ( ", null).isEmpty()); // só sintaxe FTS → nada
+    }
+
+    @Test(expected = OperationCanceledException.class)
+    public void consultaCanceladaLancaExcecao() {
+        dao.inserir(new Tarefa(0, "Comprar", "", "01/01/2025", 1, false));
+        CancellationSignal sinal = new CancellationSignal();
+        sinal.cancel();
+        dao.buscar("comprar", sinal);
+    }
+
+    @Test
+    public void latenciaEm100milTarefas() {
+        final int total = 100_000;
+        List<Tarefa> lote = new ArrayList<>(10_000);
+        for (int i = 0; i < total; i++) {
+            String titulo = PALAVRAS[i % PALAVRAS.length] + " " + PALAVRAS[(i / 7) % PALAVRAS.length] + " " + i;
+            String descricao = PALAVRAS[(i / 3) % PALAVRAS.length] + " detalhes da tarefa número " + i;
+            lote.add(new Tarefa(0, titulo, descricao, "15/06/2025", 1 + i % 3, false));
+            if (lote.size() == 10_000) {
+                dao.inserirLote(lote);
+                lote.clear();
+            }
+        }
+
+        String[] consultas = {"c", "co", "com", "comp", "compr", "comprar", "comprar rev", "médico 12", "xyz"};
+        long pior = 0;
+        for (String consulta : consultas) {
+            long inicio = System.nanoTime();
+            List<Tarefa> r = dao.buscar(consulta, null);
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            pior = Math.max(pior, ms);
+            Log.i(TAG, String.format("'%s' → %d resultados em %d ms", consulta, r.size(), ms));
+        }
+
+        assertTrue("busca lenta demais: " + pior + " ms", pior < 1000);
+    }
+}
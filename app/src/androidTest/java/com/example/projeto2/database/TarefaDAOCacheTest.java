@@ -0,0 +1,137 @@
+package com.example.projeto2.database;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Cache write-through: leituras repetidas sem escrita vêm da memória, escritas
+ * mantêm o cache coerente com o banco, e o tamanho respeita o limite e onTrimMemory.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaDAOCacheTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_cache.db";
+    private static final String TAG = "TarefaDAOCacheTest";
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+    private CacheTarefas cache;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+        cache = dao.getCache();
+
+        List<Tarefa> tarefas = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tarefas.add(new Tarefa(0, "Tarefa " + i, "desc " + i, "01/01/2025", 1 + i % 3, i % 5 == 0));
+        }
+        dao.inserirLote(tarefas);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void leituraRepetidaVemDoCache() {
+        ConsultaTarefas consulta = new ConsultaTarefas(false, ConsultaTarefas.ORDEM_TITULO, 0);
+
+        long falhas = cache.getFalhas();
+        List<Tarefa> primeira = dao.listar(consulta);
+        assertEquals(falhas + 1, cache.getFalhas());
+
+        long acertos = cache.getAcertos();
+        List<Tarefa> segunda = dao.listar(consulta);
+        assertEquals(acertos + 1, cache.getAcertos());
+        assertEquals(ids(primeira), ids(segunda));
+
+        Log.i(TAG, cache.toString());
+    }
+
+    @Test
+    public void escritasMantemCacheCoerente() {
+        ConsultaTarefas consulta = new ConsultaTarefas(true, ConsultaTarefas.ORDEM_ID, 0);
+        int pendentes = dao.listarResumo(consulta).size();
+        assertEquals(pendentes, dao.contar(consulta)[0]);
+
+        // Alterar o objeto recebido não altera o cache
+        Tarefa primeira = dao.listarResumo(consulta).get(0);
+        primeira.setConcluido(true);
+        assertFalse(dao.listarResumo(consulta).get(0).isConcluido());
+
+        // Gravar de verdade invalida as consultas
+        dao.atualizarStatus(primeira.getId(), true);
+        assertEquals(pendentes - 1, dao.listarResumo(consulta).size());
+        assertEquals(pendentes - 1, dao.contar(consulta)[0]);
+        assertTrue(dao.buscarPorId(primeira.getId()).isConcluido());
+
+        Tarefa completa = dao.buscarPorId(primeira.getId());
+        completa.setTitulo("Editada");
+        dao.atualizar(completa);
+        assertEquals("Editada", dao.buscarPorId(completa.getId()).getTitulo());
+
+        dao.deletar(completa.getId());
+        assertNull(dao.buscarPorId(completa.getId()));
+
+        long id = dao.inserir(new Tarefa(0, "Nova", "d", "02/02/2025", 2, false));
+        assertEquals("Nova", dao.buscarPorId((int) id).getTitulo());
+        assertEquals(pendentes, dao.contar(consulta)[0]);
+    }
+
+    @Test
+    public void limiteLruEOnTrimMemory() {
+        CacheTarefas pequeno = new CacheTarefas(3, 10);
+        int versao = pequeno.getVersao();
+        for (int id = 1; id <= 5; id++) {
+            pequeno.guardarTarefa(versao, new Tarefa(id, "T" + id, "", "", 1, false));
+        }
+        assertNull(pequeno.obterTarefa(1)); // mais antigas despejadas
+        assertNull(pequeno.obterTarefa(2));
+        assertNotNull(pequeno.obterTarefa(5));
+        assertEquals(3, pequeno.getTamanho()[0]);
+
+        pequeno.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+        assertEquals(1, pequeno.getTamanho()[0]); // metade do limite
+
+        pequeno.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+        assertEquals(0, pequeno.getTamanho()[0]);
+    }
+
+    @Test
+    public void leituraAntesDeEscritaNaoGuardaResultadoVelho() {
+        int versao = cache.getVersao();
+        List<Object> chave = CacheTarefas.chave("teste");
+        dao.atualizarStatus(1, true); // escrita entre a leitura e o guardar
+        cache.guardarLista(versao, chave, new ArrayList<>());
+        assertNull(cache.obterLista(chave));
+    }
+
+    private static List<Integer> ids(List<Tarefa> tarefas) {
+        List<Integer> ids = new ArrayList<>(tarefas.size());
+        for (Tarefa t : tarefas) ids.add(t.getId());
+        return ids;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.ContadoresTarefas;
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Os contadores mantidos por triggers devem bater com um COUNT(*) real
+ * depois de qualquer sequência de inserções, alterações e exclusões.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaDAOContadoresTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_contadores.db";
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void contadoresAcompanhamOperacoes() {
+        Random r = new Random(42);
+        List<Tarefa> tarefas = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            tarefas.add(new Tarefa(0, "T" + i, "", "01/01/2025", 1 + r.nextInt(3), r.nextBoolean()));
+        }
+        long[] ids = dao.inserirLote(tarefas);
+        verificar();
+
+        for (int i = 0; i < 200; i++) {
+            int id = (int) ids[r.nextInt(ids.length)];
+            if (r.nextBoolean()) {
+                dao.atualizarStatus(id, r.nextBoolean());
+            } else {
+                Tarefa t = dao.buscarPorId(id);
+                if (t == null) continue;
+                t.setPrioridade(1 + r.nextInt(3));
+                dao.atualizar(t);
+            }
+        }
+        verificar();
+
+        for (int i = 0; i < 50; i++) dao.deletar((int) ids[r.nextInt(ids.length)]);
+        dao.excluirConcluidas();
+        verificar();
+    }
+
+    private void verificar() {
+        ContadoresTarefas c = dao.lerContadores();
+        assertEquals(contar("1 = 1"), c.getTotal());
+        assertEquals(contar("concluido = 1"), c.getConcluidas());
+        assertEquals(contar("concluido = 0"), c.getPendentes());
+        for (int p = 1; p <= 3; p++) {
+            assertEquals(contar("prioridade = " + p), c.getTotalPrioridade(p));
+        }
+
+        for (boolean ocultar : new boolean[]{false, true}) {
+            for (int minima : new int[]{0, 2, 3}) {
+                ConsultaTarefas consulta = new ConsultaTarefas(ocultar, 0, minima);
+                assertEquals(consulta.toString(), dao.listarResumo(consulta).size(), dao.contar(consulta)[0]);
+            }
+        }
+    }
+
+    private int contar(String where) {
+        try (Cursor c = helper.getReadableDatabase()
+                .rawQuery("SELECT COUNT(*) FROM tarefas WHERE " + where, null)) {
+            c.moveToFirst();
+            return c.getInt(0);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.ContadoresTarefas;
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * "Excluir concluídas" em blocos com lixeira: contadores e busca textual devem
+ * ignorar as excluídas, e desfazer deve devolver tudo com os mesmos ids.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaDAOLixeiraTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_lixeira.db";
+    private static final int CONCLUIDAS = TarefaDAO.BLOCO_EXCLUSAO * 2 + 37; // mais de um bloco
+    private static final int PENDENTES = 300;
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+
+        // Concluídas e pendentes intercaladas (blocos por id pulam as pendentes)
+        List<Tarefa> tarefas = new ArrayList<>();
+        int pendentes = 0;
+        for (int i = 0; i < CONCLUIDAS; i++) {
+            tarefas.add(new Tarefa(0, "feita " + i, "", "01/01/2025", 2, true));
+            if (i % 4 == 0 && pendentes < PENDENTES) {
+                tarefas.add(new Tarefa(0, "aberta " + pendentes++, "", "01/01/2025", 2, false));
+            }
+        }
+        while (pendentes < PENDENTES) {
+            tarefas.add(new Tarefa(0, "aberta " + pendentes++, "", "01/01/2025", 2, false));
+        }
+        dao.inserirLote(tarefas);
+        assertEquals(CONCLUIDAS, dao.lerContadores().getConcluidas());
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void blocosRespeitamLimite() {
+        long excluidaEm = System.currentTimeMillis();
+        assertEquals(TarefaDAO.BLOCO_EXCLUSAO, dao.moverConcluidasParaLixeira(excluidaEm, TarefaDAO.BLOCO_EXCLUSAO));
+        assertEquals(TarefaDAO.BLOCO_EXCLUSAO, dao.moverConcluidasParaLixeira(excluidaEm, TarefaDAO.BLOCO_EXCLUSAO));
+        assertEquals(37, dao.moverConcluidasParaLixeira(excluidaEm, TarefaDAO.BLOCO_EXCLUSAO));
+        assertEquals(0, dao.moverConcluidasParaLixeira(excluidaEm, TarefaDAO.BLOCO_EXCLUSAO));
+        assertEquals(CONCLUIDAS, contarLixeira());
+    }
+
+    @Test
+    public void excluirERestaurar() {
+        ArrayList<Tarefa> antes = dao.listarResumo(new ConsultaTarefas(false, 0, 0));
+
+        long excluidaEm = System.currentTimeMillis();
+        int excluidas = 0;
+        int movidas;
+        while ((movidas = dao.moverConcluidasParaLixeira(excluidaEm, TarefaDAO.BLOCO_EXCLUSAO)) > 0) {
+            excluidas += movidas;
+        }
+        assertEquals(CONCLUIDAS, excluidas);
+
+        ContadoresTarefas c = dao.lerContadores();
+        assertEquals(PENDENTES, c.getTotal());
+        assertEquals(0, c.getConcluidas());
+        assertTrue(dao.buscar("feita", null).isEmpty()); // fora do FTS
+        assertEquals(PENDENTES, dao.listarResumo(new ConsultaTarefas(false, 0, 0)).size());
+
+        assertEquals(CONCLUIDAS, dao.restaurarLixeira(excluidaEm));
+        assertEquals(0, contarLixeira());
+
+        c = dao.lerContadores();
+        assertEquals(CONCLUIDAS + PENDENTES, c.getTotal());
+        assertEquals(CONCLUIDAS, c.getConcluidas());
+        assertFalse(dao.buscar("feita", null).isEmpty());
+
+        ArrayList<Tarefa> depois = dao.listarResumo(new ConsultaTarefas(false, 0, 0));
+        assertEquals(antes.size(), depois.size());
+        for (int i = 0; i < antes.size(); i++) {
+            assertEquals(antes.get(i).getId(), depois.get(i).getId());
+            assertEquals(antes.get(i).getTitulo(), depois.get(i).getTitulo());
+        }
+    }
+
+    @Test
+    public void esvaziarApagaSoAteOInstante() {
+        dao.moverConcluidasParaLixeira(1000, 10);
+        dao.moverConcluidasParaLixeira(2000, 10);
+
+        assertEquals(10, dao.esvaziarLixeira(1000));
+        assertEquals(10, contarLixeira());
+        assertEquals(10, dao.restaurarLixeira(2000));
+        assertEquals(CONCLUIDAS - 10, dao.lerContadores().getConcluidas());
+    }
+
+    private long contarLixeira() {
+        return DatabaseUtils.queryNumEntries(helper.getReadableDatabase(), "tarefas_lixeira");
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Operações em lote: ids gerados, rollback em falha e vazão comparada ao laço de inserir().
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaDAOLoteTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_lote.db";
+    private static final int QUANTIDADE = 10_000;
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void inserirAtualizarDeletarLote() {
+        long[] ids = dao.inserirLote(gerarTarefas(3));
+        assertEquals(3, ids.length);
+        assertTrue(ids[0] < ids[1] && ids[1] < ids[2]);
+
+        List<Tarefa> alteradas = gerarTarefas(3);
+        for (int i = 0; i < 3; i++) {
+            alteradas.get(i).setId((int) ids[i]);
+            alteradas.get(i).setConcluido(true);
+        }
+        assertEquals(3, dao.atualizarLote(alteradas));
+        assertEquals(3, contar("concluido = 1"));
+
+        assertEquals(2, dao.deletarLote(new int[]{(int) ids[0], (int) ids[2]}));
+        assertEquals(1, contar("1 = 1"));
+    }
+
+    @Test
+    public void falhaNoMeioDesfazLoteInteiro() {
+        List<Tarefa> tarefas = gerarTarefas(5);
+        tarefas.get(3).setTitulo(null); // viola titulo NOT NULL
+
+        try {
+            dao.inserirLote(tarefas);
+            fail("esperava exceção");
+        } catch (RuntimeException esperada) {
+            // ok
+        }
+        assertEquals(0, contar("1 = 1"));
+    }
+
+    @Test
+    public void loteEhMaisRapidoQueLaco() {
+        List<Tarefa> tarefas = gerarTarefas(QUANTIDADE);
+
+        long inicio = System.nanoTime();
+        for (Tarefa t : tarefas) dao.inserir(t);
+        long laco = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        long[] ids = dao.inserirLote(tarefas);
+        long lote = System.nanoTime() - inicio;
+
+        Log.i("TarefaDAOLoteTest", String.format("%d inserções: laço=%d ms, lote=%d ms",
+                QUANTIDADE, laco / 1_000_000, lote / 1_000_000));
+
+        assertEquals(QUANTIDADE, ids.length);
+        assertEquals(QUANTIDADE * 2, contar("1 = 1"));
+        assertTrue("lote deveria ser mais rápido", lote < laco);
+    }
+
+    private List<Tarefa> gerarTarefas(int n) {
+        List<Tarefa> lista = new ArrayList<>(n);
+        char[] texto = new char[64];
+        Arrays.fill(texto, 'x');
+        for (int i = 0; i < n; i++) {
+            lista.add(new Tarefa(0, "Tarefa " + i, new String(texto), "15/06/2025", 1 + i % 3, false));
+        }
+        return lista;
+    }
+
+    private int contar(String where) {
+        try (Cursor c = helper.getReadableDatabase()
+                .rawQuery("SELECT COUNT(*) FROM tarefas WHERE " + where, null)) {
+            c.moveToFirst();
+            return c.getInt(0);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.os.Looper;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Consultas observadas: resultado inicial, reexecução só após escritas,
+ * agrupamento de rajadas, entrega fora da thread principal e cancelamento.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaDAOObservacaoTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_observacao.db";
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void rajadaDeEscritasGeraPoucasEntregas() throws Exception {
+        LinkedBlockingQueue<Integer> totais = new LinkedBlockingQueue<>();
+        LinkedBlockingQueue<Boolean> naPrincipal = new LinkedBlockingQueue<>();
+
+        ConsultaObservada<Integer> observada = dao.observar(d -> d.lerContadores().getTotal(), total -> {
+            naPrincipal.add(Looper.myLooper() == Looper.getMainLooper());
+            totais.add(total);
+        });
+
+        assertEquals(0, (int) totais.poll(5, TimeUnit.SECONDS)); // resultado inicial
+
+        // Sem escrita → nada novo
+        assertNull(totais.poll(ConsultaObservada.ESPERA_MS * 4, TimeUnit.MILLISECONDS));
+
+        final int escritas = 50;
+        for (int i = 0; i < escritas; i++) {
+            dao.inserir(new Tarefa(0, "T" + i, "", "01/01/2025", 1, false));
+        }
+
+        // Espera a última entrega refletir todas as escritas
+        int ultimo = -1;
+        int entregas = 0;
+        while (ultimo != escritas) {
+            Integer total = totais.poll(5, TimeUnit.SECONDS);
+            assertNotNull("observação não refletiu as escritas", total);
+            ultimo = total;
+            entregas++;
+        }
+        assertTrue("entregas demais: " + entregas, entregas < escritas);
+        for (Boolean principal : naPrincipal) assertFalse(principal);
+
+        // Depois de cancelar, escritas não geram entregas
+        observada.cancelar();
+        totais.clear();
+        dao.inserir(new Tarefa(0, "Depois", "", "01/01/2025", 1, false));
+        assertNull(totais.poll(ConsultaObservada.ESPERA_MS * 4, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void observarConsultaEntregaListaAtualizada() throws Exception {
+        LinkedBlockingQueue<Integer> tamanhos = new LinkedBlockingQueue<>();
+        ConsultaTarefas pendentes = new ConsultaTarefas(true, ConsultaTarefas.ORDEM_ID, 0);
+        ConsultaObservada<?> observada = dao.observar(pendentes, lista -> tamanhos.add(lista.size()));
+
+        assertEquals(0, (int) tamanhos.poll(5, TimeUnit.SECONDS));
+
+        long id = dao.inserir(new Tarefa(0, "A", "", "01/01/2025", 1, false));
+        assertEquals(1, (int) tamanhos.poll(5, TimeUnit.SECONDS));
+
+        dao.atualizarStatus((int) id, true);
+        assertEquals(0, (int) tamanhos.poll(5, TimeUnit.SECONDS));
+
+        observada.cancelar();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Paginação por chave: percorrer todas as páginas deve dar exatamente a mesma
+ * sequência que listar() em todas as combinações de filtro/ordenação
+ * (inclusive com muitos empates de título, data e prioridade).
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaDAOPaginacaoTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_paginacao.db";
+    private static final int PAGINA = 7;
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+
+        List<Tarefa> tarefas = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String titulo = (i % 2 == 0 ? "tarefa " : "Tarefa ") + (i % 17); // empates e maiúsculas
+            String data = i % 50 == 0 ? "" : String.format("%02d/%02d/2025", 1 + i % 5, 1 + i % 3);
+            tarefas.add(new Tarefa(0, titulo, "", data, 1 + i % 3, i % 4 == 0));
+        }
+        dao.inserirLote(tarefas);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void paginasEmSequenciaIgualamListar() {
+        for (int ordenacao = 0; ordenacao <= 3; ordenacao++) {
+            for (boolean ocultar : new boolean[]{false, true}) {
+                for (int prioridade : new int[]{0, 2, 3}) {
+                    ConsultaTarefas consulta = new ConsultaTarefas(ocultar, ordenacao, prioridade);
+
+                    List<Integer> esperado = ids(dao.listar(consulta));
+                    List<Integer> paginado = new ArrayList<>();
+                    Tarefa ultima = null;
+                    List<Tarefa> pagina;
+                    do {
+                        pagina = dao.listarPagina(consulta, ultima, PAGINA);
+                        paginado.addAll(ids(pagina));
+                        if (!pagina.isEmpty()) ultima = pagina.get(pagina.size() - 1);
+                    } while (pagina.size() == PAGINA);
+
+                    assertEquals(consulta.toString(), esperado, paginado);
+                    assertEquals(esperado.size(), dao.contar(consulta)[0]);
+                }
+            }
+        }
+    }
+
+    private static List<Integer> ids(List<Tarefa> tarefas) {
+        List<Integer> ids = new ArrayList<>(tarefas.size());
+        for (Tarefa t : tarefas) ids.add(t.getId());
+        return ids;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.AbstractWindowedCursor;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Projeção resumo x completa em tarefas com descrições grandes:
+ * quantas vezes o CursorWindow precisa ser reabastecido e quanto heap a lista ocupa.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaDAOResumoTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_resumo.db";
+    private static final String TAG = "TarefaDAOResumoTest";
+    private static final int QUANTIDADE = 500;
+    private static final int TAMANHO_DESCRICAO = 16 * 1024;
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+
+        char[] texto = new char[TAMANHO_DESCRICAO];
+        Arrays.fill(texto, 'd');
+        String descricao = new String(texto);
+
+        List<Tarefa> tarefas = new ArrayList<>();
+        for (int i = 0; i < QUANTIDADE; i++) {
+            tarefas.add(new Tarefa(0, "Tarefa " + i, descricao, "10/10/2025", 1 + i % 3, false));
+        }
+        dao.inserirLote(tarefas);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void resumoUsaMenosJanelasEMenosMemoria() {
+        ConsultaTarefas consulta = new ConsultaTarefas(false, ConsultaTarefas.ORDEM_ID, 0);
+
+        int janelasCompleta = contarJanelas(TarefaDAO.planoListagem(consulta));
+        int janelasResumo = contarJanelas(TarefaDAO.planoResumo(consulta));
+
+        long heapCompleta = heapRetido(() -> dao.listar(consulta));
+        long heapResumo = heapRetido(() -> dao.listarResumo(consulta));
+
+        Log.i(TAG, String.format("janelas: completa=%d resumo=%d | heap: completa=%d KB resumo=%d KB",
+                janelasCompleta, janelasResumo, heapCompleta / 1024, heapResumo / 1024));
+
+        assertEquals(1, janelasResumo);           // cabe numa única janela
+        assertTrue(janelasCompleta > janelasResumo);
+        assertTrue(heapResumo < heapCompleta);
+    }
+
+    @Test
+    public void buscarPorIdTrazDescricao() {
+        Tarefa resumo = dao.listarResumo(new ConsultaTarefas(false, 0, 0)).get(0);
+        assertNull(resumo.getDescricao());
+
+        Tarefa completa = dao.buscarPorId(resumo.getId());
+        assertEquals(TAMANHO_DESCRICAO, completa.getDescricao().length());
+    }
+
+    // Quantas janelas distintas o cursor precisou preencher para ler todas as linhas
+    private int contarJanelas(PlanoConsulta plano) {
+        int janelas = 0;
+        int inicioAnterior = -1;
+        try (Cursor c = helper.getReadableDatabase().rawQuery(plano.getSql(), plano.getArgumentos())) {
+            AbstractWindowedCursor cursor = (AbstractWindowedCursor) c;
+            while (cursor.moveToNext()) {
+                int inicio = cursor.getWindow().getStartPosition();
+                if (inicio != inicioAnterior) {
+                    janelas++;
+                    inicioAnterior = inicio;
+                }
+            }
+        }
+        return janelas;
+    }
+
+    private interface Carga {
+        List<Tarefa> carregar();
+    }
+
+    // Heap ocupado pela lista enquanto ela está viva (aproximado, após GC)
+    private static long heapRetido(Carga carga) {
+        Runtime rt = Runtime.getRuntime();
+        rt.gc();
+        long antes = rt.totalMemory() - rt.freeMemory();
+        List<Tarefa> lista = carga.carregar();
+        rt.gc();
+        long depois = rt.totalMemory() - rt.freeMemory();
+        assertEquals(QUANTIDADE, lista.size()); // mantém a lista viva até aqui
+        return depois - antes;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * TarefasEmMemoria tem que devolver exatamente o que o SQLite devolve: mesmas
+ * tarefas e mesma ordem em todas as 24 combinações de listar(), inclusive a
+ * ordem do COLLATE NOCASE com títulos que só diferem em maiúsculas, acentos,
+ * outros alfabetos e caracteres fora do BMP.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefasEmMemoriaTest {
+
+    private static final String BANCO_TESTE = "tarefa_teste_memoria.db";
+    private static final int TAREFAS = 3000;
+    private static final int[] PRIORIDADES_MINIMAS = {0, 2, 3};
+
+    // Casos difíceis para NOCASE: só A–Z são dobradas; o resto é ordem de byte UTF-8
+    private static final String[] TITULOS = {
+            "abc", "ABC", "Abd", "abc ", "ab", "", "_x", "[x", "`x", "Zeta", "zeta",
+            "Ágata", "agata", "ágata", "Éclair", "eclair", "ß", "SS", "ss", "Ωmega", "ωmega",
+            "\uFF21lfa", "alfa", "😀 feliz", "\uE000 privado", "\uFFFD", "123", "Tarefa 10", "Tarefa 9"
+    };
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+
+        Random r = new Random(25);
+        List<Tarefa> tarefas = new ArrayList<>();
+        for (int i = 0; i < TAREFAS; i++) {
+            String titulo = TITULOS[r.nextInt(TITULOS.length)];
+            if (r.nextBoolean()) titulo += TITULOS[r.nextInt(TITULOS.length)];
+            String data = r.nextInt(5) == 0 ? "" // sem data
+                    : String.format("%02d/%02d/%d", 1 + r.nextInt(28), 1 + r.nextInt(12), 2024 + r.nextInt(2));
+            tarefas.add(new Tarefa(0, titulo, null, data, r.nextInt(4), r.nextBoolean()));
+        }
+        dao.inserirLote(tarefas);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void mesmaOrdemQueOSqlEmTodasAsCombinacoes() {
+        TarefasEmMemoria memoria = TarefasEmMemoria.carregar(dao);
+        assertEquals(TAREFAS, memoria.getTamanho());
+        assertMesmaOrdemQueOSql(memoria);
+    }
+
+    @Test
+    public void atualizarReleSoAsAlteradas() {
+        TarefasEmMemoria memoria = TarefasEmMemoria.carregar(dao);
+        assertSame(memoria, TarefasEmMemoria.atualizar(dao, memoria)); // nada mudou
+
+        Tarefa nova = new Tarefa(0, "ágata", null, "15/06/2025", 2, false);
+        int idNovo = (int) dao.inserir(nova);
+        dao.atualizarStatus(idNovo - 1, true);
+        dao.deletar(idNovo - 2);
+        Tarefa editada = dao.buscarPorId(idNovo - 3);
+        editada.setTitulo("Zeta");
+        editada.setData("");
+        dao.atualizarAlteracoes(editada);
+        dao.moverConcluidasParaLixeira(System.currentTimeMillis(), 40);
+
+        int[] alteradas = dao.alteradasDesde(memoria.getVersao());
+        assertNotNull(alteradas);
+        assertTrue(alteradas.length <= 4 + 40);
+
+        TarefasEmMemoria atualizada = TarefasEmMemoria.atualizar(dao, memoria);
+        assertEquals(dao.lerContadores().getTotal(), atualizada.getTamanho());
+        assertMesmaOrdemQueOSql(atualizada);
+    }
+
+    @Test
+    public void ordemDeDataUsaAColunaGravada() {
+        // data_epoch é a coluna indexada usada pelo SQL; a memória não recalcula a partir do texto
+        helper.getWritableDatabase().execSQL("UPDATE tarefas SET data_epoch = -id WHERE id % 7 = 0");
+        assertMesmaOrdemQueOSql(TarefasEmMemoria.carregar(dao));
+    }
+
+    @Test
+    public void compararNocaseIgualAoSqlite() {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        String sql = "SELECT CASE WHEN ?1 = ?2 COLLATE NOCASE THEN 0 "
+                + "WHEN ?1 < ?2 COLLATE NOCASE THEN -1 ELSE 1 END";
+
+        for (String a : TITULOS) {
+            for (String b : TITULOS) {
+                long sqlite = DatabaseUtils.longForQuery(db, sql, new String[]{a, b});
+                assertEquals("\"" + a + "\" x \"" + b + "\"",
+                        sqlite, Integer.signum(TarefasEmMemoria.compararNocase(a, b)));
+            }
+        }
+    }
+
+    @Test
+    public void statusMarcadoNaTelaValeParaOFiltroSemAlterarATarefa() {
+        TarefasEmMemoria memoria = TarefasEmMemoria.carregar(dao);
+        ConsultaTarefas pendentes = new ConsultaTarefas(true, ConsultaTarefas.ORDEM_TITULO, 0);
+        Tarefa primeira = memoria.listar(pendentes).get(0);
+
+        TarefasEmMemoria marcada = memoria.comStatus(primeira.getId(), true); // como a tela faz ao marcar
+
+        assertFalse(ids(marcada.listar(pendentes)).contains(primeira.getId()));
+        assertTrue(ids(marcada.listar(new ConsultaTarefas(false, ConsultaTarefas.ORDEM_TITULO, 0)))
+                .contains(primeira.getId()));
+        assertEquals(memoria.contar(pendentes) - 1, marcada.contar(pendentes));
+
+        // A instância anterior e a Tarefa dela não mudam
+        assertFalse(primeira.isConcluido());
+        assertSame(primeira, memoria.listar(pendentes).get(0));
+        assertSame(marcada, marcada.comStatus(primeira.getId(), true));
+        assertSame(memoria, memoria.comStatus(-1, true));
+    }
+
+    private void assertMesmaOrdemQueOSql(TarefasEmMemoria memoria) {
+        for (int ordenacao = 0; ordenacao <= 3; ordenacao++) {
+            for (boolean ocultar : new boolean[]{false, true}) {
+                for (int prioridade : PRIORIDADES_MINIMAS) {
+                    ConsultaTarefas consulta = new ConsultaTarefas(ocultar, ordenacao, prioridade);
+                    List<Integer> esperado = ids(dao.listarResumo(consulta));
+                    assertEquals(consulta.toString(), esperado, ids(memoria.listar(consulta)));
+                    assertEquals(consulta.toString(), esperado.size(), memoria.contar(consulta));
+                }
+            }
+        }
+    }
+
+    private static List<Integer> ids(List<Tarefa> tarefas) {
+        List<Integer> ids = new ArrayList<>(tarefas.size());
+        for (Tarefa t : tarefas) ids.add(t.getId());
+        return ids;
+    }
+}
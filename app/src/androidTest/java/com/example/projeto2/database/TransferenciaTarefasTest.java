@@ -0,0 +1,289 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Exportação/importação JSON e CSV: ida e volta sem perda, registros inválidos
+ * ignorados, arquivo quebrado rejeitado, retomada depois de uma falha e 1 milhão de tarefas com memória (heap Java) limitada.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TransferenciaTarefasTest {
+
+    private static final String TAG = "TransferenciaTarefas";
+    private static final String BANCO_TESTE = "tarefa_teste_transferencia.db";
+    private static final int MILHAO = 1_000_000;
+    private static final long HEAP_MAXIMO = 16L * 1024 * 1024; // crescimento retido aceitável
+
+    private Context context;
+    private DBHelper helper;
+    private TarefaDAO dao;
+    private TransferenciaTarefas transferencia;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(BANCO_TESTE);
+        helper = new DBHelper(context, BANCO_TESTE);
+        dao = new TarefaDAO(context, helper);
+        transferencia = new TransferenciaTarefas(dao);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(BANCO_TESTE);
+    }
+
+    @Test
+    public void idaEVoltaJson() throws IOException {
+        idaEVolta(TransferenciaTarefas.FORMATO_JSON);
+    }
+
+    @Test
+    public void idaEVoltaCsv() throws IOException {
+        idaEVolta(TransferenciaTarefas.FORMATO_CSV);
+    }
+
+    private void idaEVolta(int formato) throws IOException {
+        List<Tarefa> originais = new ArrayList<>();
+        originais.add(new Tarefa(0, "Simples", "sem nada especial", "01/02/2025", 1, false));
+        originais.add(new Tarefa(0, "Vírgula, \"aspas\"", "linha 1\nlinha 2\r\nfim", "31/12/2025", 3, true));
+        originais.add(new Tarefa(0, "Sem descrição", null, null, 2, false));
+        dao.inserirLote(originais);
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        assertEquals(3, transferencia.exportar(saida, formato, null));
+
+        dao.deletarLote(new int[]{1, 2, 3});
+        TransferenciaTarefas.Importacao importacao =
+                transferencia.importar(new ByteArrayInputStream(saida.toByteArray()), formato, 0);
+        assertEquals(3, importacao.importarTudo(null));
+        assertTrue(importacao.isTerminada());
+
+        ArrayList<Tarefa> lidas = dao.listar(new ConsultaTarefas(false, ConsultaTarefas.ORDEM_ID, 0));
+        assertEquals(3, lidas.size());
+        for (int i = 0; i < 3; i++) {
+            Tarefa o = originais.get(i);
+            Tarefa l = lidas.get(i);
+            assertEquals(o.getTitulo(), l.getTitulo());
+            assertEquals(o.getData(), l.getData());
+            assertEquals(o.getPrioridade(), l.getPrioridade());
+            assertEquals(o.isConcluido(), l.isConcluido());
+            if (o.getDescricao() != null) assertEquals(o.getDescricao(), l.getDescricao());
+        }
+    }
+
+    @Test
+    public void retomaDepoisDeFalha() throws IOException {
+        int validas = TransferenciaTarefas.LOTE_IMPORTACAO * 5;
+        StringBuilder csv = new StringBuilder("titulo,prioridade\n");
+        csv.append("Quebrada,abc\n"); // prioridade inválida: ignorada, conta no ponto de retomada
+        for (int i = 0; i < validas; i++) csv.append("T").append(i).append(",2\n");
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Leitura falha perto do fim (cartão removido, rede caiu...)
+        TransferenciaTarefas.Importacao importacao = transferencia.importar(
+                new FalhaNoByte(bytes, bytes.length - 1), TransferenciaTarefas.FORMATO_CSV, 0);
+        try {
+            importacao.importarTudo(null);
+            fail("falha de leitura deveria interromper a importação");
+        } catch (IOException esperado) {
+            assertFalse(esperado instanceof TransferenciaTarefas.ArquivoInvalidoException);
+        }
+        // Só os lotes completos ficaram no banco
+        int retomarEm = importacao.getProcessados();
+        assertTrue(retomarEm >= TransferenciaTarefas.LOTE_IMPORTACAO);
+        assertEquals(0, retomarEm % TransferenciaTarefas.LOTE_IMPORTACAO);
+        assertEquals(1, importacao.getIgnoradas());
+        assertEquals(retomarEm - 1, importacao.getImportadas());
+        assertEquals(retomarEm - 1, dao.lerContadores().getTotal());
+
+        // Retoma sem duplicar o que já entrou (o registro ignorado também é pulado)
+        TransferenciaTarefas.Importacao retomada = transferencia.importar(
+                new ByteArrayInputStream(bytes), TransferenciaTarefas.FORMATO_CSV, retomarEm);
+        assertEquals(validas - (retomarEm - 1), retomada.importarTudo(null));
+        assertEquals(0, retomada.getIgnoradas());
+        assertEquals(validas, dao.lerContadores().getTotal());
+    }
+
+    @Test
+    public void registrosInvalidosSaoIgnorados() throws IOException {
+        String json = "\uFEFF\n  {\"tarefas\": ["
+                + "{\"titulo\": \"A\", \"prioridade\": 2},"
+                + "{\"descricao\": \"sem título\"},"
+                + "{\"titulo\": \"B\", \"prioridade\": \"abc\"},"
+                + "{\"titulo\": \"C\", \"concluido\": {\"x\": [1, 2]}},"
+                + "42,"
+                + "{\"titulo\": \"D\", \"concluido\": true}"
+                + "]}";
+        TransferenciaTarefas.Importacao importacao = transferencia.importar(new ByteArrayInputStream(
+                json.getBytes(StandardCharsets.UTF_8)), TransferenciaTarefas.FORMATO_DETECTAR, 0);
+
+        assertEquals(2, importacao.importarTudo(null));
+        assertEquals(4, importacao.getIgnoradas());
+        assertEquals(6, importacao.getProcessados());
+        assertEquals("registro 2: sem título", importacao.getPrimeiroIgnorado());
+
+        List<Tarefa> gravadas = dao.listar(new ConsultaTarefas(false, ConsultaTarefas.ORDEM_TITULO, 0));
+        assertEquals(2, gravadas.size());
+        assertEquals("A", gravadas.get(0).getTitulo());
+        assertTrue(gravadas.get(1).isConcluido());
+
+        // Sem { nem [ no início: CSV (o tipo MIME não é usado)
+        String csv = "titulo,prioridade\nE,1\n,2\nF,x\n";
+        importacao = transferencia.importar(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                TransferenciaTarefas.FORMATO_DETECTAR, 0);
+        assertEquals(1, importacao.importarTudo(null));
+        assertEquals(2, importacao.getIgnoradas());
+    }
+
+    @Test
+    public void arquivoQuebradoNaoERetomavel() {
+        String[] quebrados = {
+                "titulo,descricao\nA,\"sem fechar\nB,x\n",         // aspas não fechadas
+                "descricao,prioridade\nA,1\n",                       // sem a coluna titulo
+                "{\"tarefas\": [{\"titulo\": \"A\"}, {\"titu",         // JSON truncado
+                "{\"tarefas\": [{\"titulo\": \"A\"} {\"titulo\": \"B\"}]}", // falta a vírgula
+                "{\"outras\": []}"                                   // sem o array tarefas
+        };
+        for (String conteudo : quebrados) {
+            TransferenciaTarefas.Importacao importacao = transferencia.importar(new ByteArrayInputStream(
+                    conteudo.getBytes(StandardCharsets.UTF_8)), TransferenciaTarefas.FORMATO_DETECTAR, 0);
+            try {
+                importacao.importarTudo(null);
+                fail("deveria rejeitar: " + conteudo);
+            } catch (TransferenciaTarefas.ArquivoInvalidoException esperado) {
+                assertEquals(0, importacao.getProcessados());
+            } catch (IOException e) {
+                throw new AssertionError(conteudo, e);
+            }
+        }
+        assertEquals(0, dao.lerContadores().getTotal());
+    }
+
+    @Test
+    public void milhaoDeTarefasComHeapLimitado() throws IOException {
+        long base = heapUsado();
+        long[] pico = {0};
+        TransferenciaTarefas.OnProgressoListener medir = (feitas, total) -> {
+            if (feitas % 100_000 == 0) pico[0] = Math.max(pico[0], heapUsado() - base);
+        };
+
+        long inicio = System.nanoTime();
+        int importadas = transferencia.importar(new CsvGerado(MILHAO), TransferenciaTarefas.FORMATO_CSV, 0)
+                .importarTudo(medir);
+        long msImportar = (System.nanoTime() - inicio) / 1_000_000;
+        assertEquals(MILHAO, importadas);
+        assertEquals(MILHAO, dao.lerContadores().getTotal());
+
+        ContadorBytes saida = new ContadorBytes();
+        inicio = System.nanoTime();
+        assertEquals(MILHAO, transferencia.exportar(saida, TransferenciaTarefas.FORMATO_JSON, medir));
+        long msExportar = (System.nanoTime() - inicio) / 1_000_000;
+
+        Log.i(TAG, "1M: importar=" + msImportar + "ms exportar=" + msExportar + "ms ("
+                + saida.bytes / 1024 + " KB) pico de heap retido=" + pico[0] / 1024 + " KB");
+        assertTrue("heap retido cresceu " + pico[0] + " bytes", pico[0] < HEAP_MAXIMO);
+    }
+
+    // Heap Java ainda em uso depois de uma coleta (o que foi retido, não o lixo)
+    private static long heapUsado() {
+        Runtime r = Runtime.getRuntime();
+        r.gc();
+        r.runFinalization();
+        r.gc();
+        return r.totalMemory() - r.freeMemory();
+    }
+
+    // CSV gerado sob demanda (o arquivo de 1M linhas nunca existe inteiro)
+    private static final class CsvGerado extends InputStream {
+        private final int linhas;
+        private int proxima = -1; // -1 = cabeçalho
+        private byte[] atual = new byte[0];
+        private int pos;
+
+        CsvGerado(int linhas) {
+            this.linhas = linhas;
+        }
+
+        @Override
+        public int read() {
+            if (pos == atual.length) {
+                if (proxima >= linhas) return -1;
+                String linha = proxima < 0
+                        ? "id,titulo,descricao,data,prioridade,concluido\n"
+                        : proxima + ",Tarefa " + proxima + ",\"descrição, número " + proxima + "\","
+                        + String.format("%02d/%02d/2025", 1 + proxima % 28, 1 + proxima % 12) + ","
+                        + (1 + proxima % 3) + "," + (proxima % 2) + "\n";
+                atual = linha.getBytes(StandardCharsets.UTF_8);
+                pos = 0;
+                proxima++;
+            }
+            return atual[pos++] & 0xFF;
+        }
+    }
+
+    // Entrega "bytes" até a posição "limite" e então falha como um erro de I/O
+    private static final class FalhaNoByte extends InputStream {
+        private final byte[] bytes;
+        private final int limite;
+        private int pos;
+
+        FalhaNoByte(byte[] bytes, int limite) {
+            this.bytes = bytes;
+            this.limite = limite;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (pos >= limite) throw new IOException("leitura interrompida");
+            return bytes[pos++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] destino, int inicio, int tamanho) throws IOException {
+            if (tamanho == 0) return 0;
+            if (pos >= limite) throw new IOException("leitura interrompida");
+            int n = Math.min(tamanho, limite - pos);
+            System.arraycopy(bytes, pos, destino, inicio, n);
+            pos += n;
+            return n;
+        }
+    }
+
+    private static final class ContadorBytes extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
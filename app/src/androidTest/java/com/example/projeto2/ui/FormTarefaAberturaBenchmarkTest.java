@@ -0,0 +1,143 @@
+package com.example.projeto2.ui;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Parcel;
+import android.os.SystemClock;
+import android.util.Log;
+import android.widget.EditText;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.projeto2.R;
+import com.example.projeto2.database.TarefaDAO;
+import com.example.projeto2.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Abertura do formulário de edição com descrições grandes: o Intent leva só o id
+ * e a tarefa vem do DAO (banco na primeira vez, cache depois). Compara também o
+ * tamanho/tempo de marshalling do id com o da tarefa inteira em Parcel.
+ * Usa o banco do app (o formulário abre pelo DBHelper.getInstance); a tarefa
+ * de teste é apagada no fim.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FormTarefaAberturaBenchmarkTest {
+
+    private static final String TAG = "FormTarefaBenchmark";
+    private static final int DESCRICAO_GRANDE = 512 * 1024; // caracteres
+    private static final int REPETICOES = 5;
+    private static final long ESPERA_MAXIMA_MS = 10_000;
+
+    private Context context;
+    private TarefaDAO dao;
+    private Tarefa tarefa;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dao = new TarefaDAO(context);
+
+        StringBuilder sb = new StringBuilder(DESCRICAO_GRANDE);
+        while (sb.length() < DESCRICAO_GRANDE) sb.append("descrição longa da tarefa ");
+        sb.setLength(DESCRICAO_GRANDE);
+        tarefa = new Tarefa(0, "Abertura do formulário", sb.toString(), "10/10/2025", 2, false);
+        tarefa.setId((int) dao.inserir(tarefa));
+    }
+
+    @After
+    public void tearDown() {
+        dao.deletar(tarefa.getId());
+    }
+
+    @Test
+    public void parcelIdaEVolta() {
+        tarefa.setPrioridade(3); // alteração pendente vai junto
+
+        Parcel parcel = Parcel.obtain();
+        try {
+            tarefa.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            Tarefa lida = Tarefa.CREATOR.createFromParcel(parcel);
+
+            assertEquals(tarefa.getId(), lida.getId());
+            assertEquals(tarefa.getTitulo(), lida.getTitulo());
+            assertEquals(tarefa.getDescricao(), lida.getDescricao());
+            assertEquals(tarefa.getData(), lida.getData());
+            assertEquals(3, lida.getPrioridade());
+            assertEquals(tarefa.isConcluido(), lida.isConcluido());
+            assertEquals(Tarefa.CAMPO_PRIORIDADE, lida.getCamposAlterados());
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    @Test
+    public void marshallingIdContraTarefa() {
+        long bytesId = 0, bytesTarefa = 0, melhorId = Long.MAX_VALUE, melhorTarefa = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICOES; i++) {
+            Intent porId = new Intent(context, FormTarefaActivity.class)
+                    .putExtra(FormTarefaActivity.EXTRA_ID_TAREFA, tarefa.getId());
+            long inicio = SystemClock.elapsedRealtimeNanos();
+            bytesId = tamanhoEmParcel(porId);
+            melhorId = Math.min(melhorId, SystemClock.elapsedRealtimeNanos() - inicio);
+
+            Intent porObjeto = new Intent(context, FormTarefaActivity.class).putExtra("tarefa", tarefa);
+            inicio = SystemClock.elapsedRealtimeNanos();
+            bytesTarefa = tamanhoEmParcel(porObjeto);
+            melhorTarefa = Math.min(melhorTarefa, SystemClock.elapsedRealtimeNanos() - inicio);
+        }
+
+        Log.i(TAG, "Intent com id: " + bytesId + " bytes, " + melhorId / 1000 + "µs; com a tarefa: "
+                + bytesTarefa / 1024 + " KB, " + melhorTarefa / 1000 + "µs");
+        assertTrue(bytesId < 1024);
+        assertTrue(bytesTarefa > DESCRICAO_GRANDE); // sozinha já encostaria no limite do Binder
+    }
+
+    @Test
+    public void aberturaDoFormulario() {
+        dao.getCache().limpar();
+        long primeira = abrirEEsperarDescricao(); // banco
+        long melhor = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICOES; i++) {
+            melhor = Math.min(melhor, abrirEEsperarDescricao()); // cache
+        }
+        Log.i(TAG, "abrir formulário (" + DESCRICAO_GRANDE / 1024 + "K caracteres): primeira="
+                + primeira + "ms, depois=" + melhor + "ms");
+    }
+
+    // Tempo (ms) do launch até a descrição aparecer preenchida no formulário
+    private long abrirEEsperarDescricao() {
+        Intent intent = new Intent(context, FormTarefaActivity.class)
+                .putExtra(FormTarefaActivity.EXTRA_ID_TAREFA, tarefa.getId());
+        long inicio = SystemClock.elapsedRealtime();
+        try (ActivityScenario<FormTarefaActivity> cenario = ActivityScenario.launch(intent)) {
+            boolean[] preenchida = {false};
+            while (!preenchida[0]) {
+                assertTrue("formulário não carregou a tarefa",
+                        SystemClock.elapsedRealtime() - inicio < ESPERA_MAXIMA_MS);
+                cenario.onActivity(a -> preenchida[0] =
+                        ((EditText) a.findViewById(R.id.edtDescricao)).length() == DESCRICAO_GRANDE);
+            }
+            return SystemClock.elapsedRealtime() - inicio;
+        }
+    }
+
+    private static int tamanhoEmParcel(Intent intent) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            intent.writeToParcel(parcel, 0);
+            return parcel.dataSize();
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
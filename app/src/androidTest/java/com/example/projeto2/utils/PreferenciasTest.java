@@ -0,0 +1,106 @@
+package com.example.projeto2.utils;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Snapshot das configurações: uma versão por gravação em lote, nenhuma se nada
+ * mudou, ouvintes avisados na thread principal e valores persistidos no arquivo.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PreferenciasTest {
+
+    private Preferencias prefs;
+    private Preferencias.Snapshot original;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        prefs = new Preferencias(context);
+        original = prefs.getSnapshot();
+    }
+
+    @After
+    public void tearDown() {
+        prefs.editar()
+                .setOcultarConcluidas(original.getOcultarConcluidas())
+                .setOrdenacao(original.getOrdenacao())
+                .setPrioridadeMinima(original.getPrioridadeMinima())
+                .aplicar();
+    }
+
+    @Test
+    public void loteGeraUmaVersao() {
+        Preferencias.Snapshot antes = prefs.getSnapshot();
+        int versaoAntes = antes.getVersao();
+        boolean ocultarAntes = antes.getOcultarConcluidas();
+        int ordenacaoAntes = antes.getOrdenacao();
+        int prioridadeAntes = antes.getPrioridadeMinima();
+
+        Preferencias.Snapshot depois = prefs.editar()
+                .setOcultarConcluidas(!antes.getOcultarConcluidas())
+                .setOrdenacao((antes.getOrdenacao() + 1) % 4)
+                .setPrioridadeMinima(antes.getPrioridadeMinima() == 3 ? 0 : 3)
+                .aplicar();
+
+        assertEquals(antes.getVersao() + 1, depois.getVersao());
+        assertSame(depois, prefs.getSnapshot());
+        assertEquals(!antes.getOcultarConcluidas(), depois.getOcultarConcluidas());
+
+        // snapshot antigo não muda (quem ainda o segura vê os valores de antes)
+        assertEquals(versaoAntes, antes.getVersao());
+        assertEquals(ocultarAntes, antes.getOcultarConcluidas());
+        assertEquals(ordenacaoAntes, antes.getOrdenacao());
+        assertEquals(prioridadeAntes, antes.getPrioridadeMinima());
+        assertNotEquals(depois.getOrdenacao(), antes.getOrdenacao());
+
+        // mesmos valores: nada gravado, mesma versão
+        assertSame(depois, prefs.editar().setOrdenacao(depois.getOrdenacao()).aplicar());
+    }
+
+    @Test
+    public void valoresPersistemNoArquivo() {
+        int ordenacao = (original.getOrdenacao() + 2) % 4;
+        prefs.editar().setOrdenacao(ordenacao).aplicar();
+
+        int versao = prefs.getSnapshot().getVersao();
+        Preferencias.descartarCache(); // próxima leitura vem do SharedPreferences
+        Preferencias.Snapshot relido = prefs.getSnapshot();
+        assertEquals(ordenacao, relido.getOrdenacao());
+        assertTrue(relido.getVersao() > versao); // versões nunca se repetem
+    }
+
+    @Test
+    public void ouvinteRecebeNaThreadPrincipal() {
+        List<Integer> versoes = new ArrayList<>();
+        boolean[] naPrincipal = {true};
+        Preferencias.OnAlteracaoListener ouvinte = s -> {
+            naPrincipal[0] &= android.os.Looper.myLooper() == android.os.Looper.getMainLooper();
+            versoes.add(s.getVersao());
+        };
+
+        Preferencias.observar(ouvinte);
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        assertEquals(1, versoes.size()); // o snapshot atual, logo ao observar
+
+        Preferencias.Snapshot novo = prefs.editar().setOcultarConcluidas(!original.getOcultarConcluidas()).aplicar();
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        Preferencias.pararDeObservar(ouvinte);
+
+        assertEquals(2, versoes.size());
+        assertEquals(novo.getVersao(), (int) versoes.get(1));
+        assertTrue(naPrincipal[0]);
+    }
+}
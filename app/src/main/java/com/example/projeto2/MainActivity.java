@@ -2,39 +2,71 @@ package com.example.projeto2;
 
 // Importações de componentes do Android e bibliotecas auxiliares
 import android.app.AlertDialog;               // Para criar caixas de diálogo
+import android.content.BroadcastReceiver;     // Aviso de troca de fuso/relógio do aparelho
+import android.content.Context;               // Parâmetro do BroadcastReceiver
 import android.content.Intent;                // Para navegar entre Activities
+import android.content.IntentFilter;          // Ações de sistema recebidas
+import android.net.Uri;                       // Arquivo escolhido para exportar/importar
 import android.os.Bundle;                     // Para ciclo de vida da Activity
 import android.view.Menu;                     // Para menu da toolbar
 import android.view.MenuItem;                 // Para itens do menu
-import android.widget.ListView;               // Lista de itens
 import android.widget.Toast;                  // Mensagem rápida na tela
 import android.widget.TextView;               // Para mostrar texto
 
 import androidx.activity.EdgeToEdge;          // Ajuste de layout para "edge to edge"
+import androidx.activity.result.ActivityResultLauncher; // Seletor de arquivos do sistema
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity; // Activity compatível com AppCompat
+import androidx.appcompat.widget.SearchView;     // Campo de busca na toolbar
+import androidx.core.content.ContextCompat;   // registerReceiver com flag de exportação
 import androidx.core.graphics.Insets;         // Para ajustar margens do sistema
 import androidx.core.view.ViewCompat;         // Utilitário para views
 import androidx.core.view.WindowInsetsCompat; // Para pegar barras de sistema (status/nav)
+import androidx.recyclerview.widget.RecyclerView; // Lista de itens (atualizada por diff)
 
 import com.example.projeto2.adapter.TarefaAdapter; // Adapter customizado da lista
-import com.example.projeto2.database.TarefaDAO;    // Classe de acesso ao banco de dados
+import com.example.projeto2.database.BuscaTarefas;     // Busca textual com debounce
+import com.example.projeto2.database.ConsultaTarefas;  // Filtros/ordenação da lista
+import com.example.projeto2.database.TarefaDAO;      // Consultas executadas pela fachada assíncrona
+import com.example.projeto2.database.TarefaDAOAsync; // Acesso ao banco fora da thread principal
+import com.example.projeto2.database.TarefasEmMemoria; // Tarefas + ordenações prontas (troca de consulta sem SQL)
+import com.example.projeto2.database.TransferenciaTarefas; // Exportar/importar JSON e CSV
+import com.example.projeto2.model.ContadoresTarefas; // Totais de tarefas (do banco)
 import com.example.projeto2.model.Tarefa;         // Modelo da tarefa
 import com.example.projeto2.ui.ConfiguracoesActivity; // Tela de configurações
 import com.example.projeto2.ui.FormTarefaActivity;   // Tela de cadastro/edição de tarefa
+import com.example.projeto2.utils.DataCodec;         // "Hoje" das linhas (vencida)
+import com.example.projeto2.utils.Preferencias;      // Configurações do usuário
 import com.google.android.material.appbar.MaterialToolbar; // Toolbar do Material Design
 import com.google.android.material.floatingactionbutton.FloatingActionButton; // Botão flutuante
+import com.google.android.material.snackbar.Snackbar; // Andamento da exclusão + desfazer
 
-import java.util.ArrayList; // Lista dinâmica para armazenar tarefas
+import java.io.File;                 // Arquivo do backup binário
+import java.io.FileNotFoundException; // Arquivo escolhido não pôde ser aberto
+import java.io.InputStream;          // Arquivo a importar
+import java.io.OutputStream;         // Arquivo exportado
+import java.util.ArrayList; // Lista de tarefas / resultado da busca
+import java.util.concurrent.Future; // Listagem em andamento (cancelável)
 
 // ================================
 // MainActivity — tela principal do app
 // ================================
 public class MainActivity extends AppCompatActivity {
 
+    // Arquivo do backup binário (ver SnapshotTarefas), na área privada do app
+    private static final String ARQUIVO_BACKUP = "tarefas.snapshot";
+
+    // Prazo para desfazer "excluir concluídas" (depois disso a lixeira é esvaziada)
+    private static final int PRAZO_DESFAZER_MS = 8000;
+
+    // Desfazer pendente, guardado em onSaveInstanceState (a rotação não perde o desfazer)
+    private static final String ESTADO_DESFAZER = "desfazerExclusao";
+    private static final String ESTADO_DESFAZER_ATE = "desfazerAte";
+
     // ================================
     // Componentes da interface
     // ================================
-    private ListView listViewTarefas;           // Lista que exibirá as tarefas
+    private RecyclerView recyclerTarefas;       // Lista que exibirá as tarefas
     private FloatingActionButton fabAdicionar;  // Botão flutuante para adicionar nova tarefa
     private FloatingActionButton btnExcluirConcluidas; // Botão flutuante para excluir todas tarefas concluídas
 
@@ -45,9 +77,43 @@ public class MainActivity extends AppCompatActivity {
     // ================================
     // Objetos auxiliares
     // ================================
-    private ArrayList<Tarefa> listaTarefas; // Lista de tarefas carregadas do banco
-    private TarefaAdapter adapter;           // Adapter para preencher o ListView
-    private TarefaDAO dao;                   // Acesso ao banco de dados
+    private ConsultaTarefas consulta;        // Filtros/ordenação atuais (das configurações)
+    private int versaoPreferencias = -1;     // Versão do último Preferencias.Snapshot aplicado
+    private final Preferencias.OnAlteracaoListener aoAlterarPreferencias = this::aplicarPreferencias;
+    private TarefasEmMemoria tarefasCarregadas; // Todas as tarefas (atualizadas a cada escrita no banco)
+    private ArrayList<Tarefa> listaAtual = new ArrayList<>(); // Lista da consulta atual
+    private Future<?> listagem;              // Passada de filtro em andamento (fora da thread principal)
+    private int geracaoLista;                // Listagens superadas por uma mais nova são descartadas
+    private TarefaAdapter adapter;           // Adapter do RecyclerView (um só, atualizado por diff)
+    private TarefaDAOAsync dao;              // Acesso ao banco (assíncrono, ligado ao ciclo de vida)
+
+    private BuscaTarefas busca;              // Busca textual (debounce + cancelamento)
+    private String textoBusca = "";          // Texto atual do campo de busca ("" = sem busca)
+    private boolean primeiraEntrega = true;  // 1º resultado da observação dos contadores
+    private long desfazerExclusao;           // excluidaEm que ainda pode ser desfeito (0 = nenhum)
+    private long desfazerAte;                // fim do prazo (0 = exclusão ainda em andamento)
+
+    // Fuso ou relógio do aparelho mudou: o "hoje" guardado no DataCodec deixa de valer
+    // e as linhas visíveis são revinculadas (vencida). A virada normal do dia não
+    // precisa de aviso: o DataCodec já recalcula o "hoje" quando o intervalo guardado acaba
+    private final BroadcastReceiver aoMudarFusoOuRelogio = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            DataCodec.invalidarHoje();
+            adapter.notifyItemRangeChanged(0, adapter.getItemCount());
+        }
+    };
+
+    // Seletores de arquivo (exportar JSON/CSV, importar)
+    private final ActivityResultLauncher<String> criarJson = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("application/json"),
+            uri -> exportar(uri, TransferenciaTarefas.FORMATO_JSON));
+    private final ActivityResultLauncher<String> criarCsv = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("text/csv"),
+            uri -> exportar(uri, TransferenciaTarefas.FORMATO_CSV));
+    private final ActivityResultLauncher<String[]> abrirArquivo = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(),
+            uri -> importar(uri, 0));
 
     // ================================
     // Ciclo de vida — onCreate
@@ -56,6 +122,9 @@ public class MainActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
+        // Lê as configurações em segundo plano enquanto o layout é montado
+        Preferencias.carregar(this);
+
         // Ajusta layout "edge-to-edge" (conteúdo aparece atrás das barras do sistema)
         EdgeToEdge.enable(this);
 
@@ -76,14 +145,18 @@ public class MainActivity extends AppCompatActivity {
         setSupportActionBar(toolbar);
 
         // ================================
-        // Inicializa DAO (acesso ao banco)
+        // Inicializa DAO (acesso ao banco) — cancela leituras pendentes em onDestroy
         // ================================
-        dao = new TarefaDAO(this);
+        dao = new TarefaDAOAsync(this, this);
+        // Qualquer operação do banco que falhar (excluir, desfazer, busca...) avisa o usuário
+        dao.setOnErroListener(erro ->
+                Toast.makeText(this, "Falha ao acessar o banco de dados", Toast.LENGTH_SHORT).show());
+        busca = new BuscaTarefas(dao, this::mostrarResultadoBusca);
 
         // ================================
         // Referências dos componentes do layout
         // ================================
-        listViewTarefas = findViewById(R.id.listViewTarefas);
+        recyclerTarefas = findViewById(R.id.recyclerTarefas);
         fabAdicionar = findViewById(R.id.fabAdicionar);
         btnExcluirConcluidas = findViewById(R.id.btnExcluirConcluidas);
 
@@ -91,6 +164,41 @@ public class MainActivity extends AppCompatActivity {
         txtConcluidas = findViewById(R.id.txtConcluidas);
         txtPendentes = findViewById(R.id.txtPendentes);
 
+        // ================================
+        // Adapter único: cada nova lista é aplicada por diff (mantém linhas e rolagem)
+        // ================================
+        adapter = new TarefaAdapter(this, dao);
+        adapter.setOnTarefaLongClickListener(this::mostrarOpcoesTarefa); // clique longo em uma tarefa
+        adapter.setOnStatusAlteradoListener(this::aoMarcarStatus);       // checkbox de concluída
+        recyclerTarefas.setAdapter(adapter);
+
+        IntentFilter fusoOuRelogio = new IntentFilter(Intent.ACTION_TIMEZONE_CHANGED);
+        fusoOuRelogio.addAction(Intent.ACTION_TIME_CHANGED);
+        ContextCompat.registerReceiver(this, aoMudarFusoOuRelogio, fusoOuRelogio, ContextCompat.RECEIVER_NOT_EXPORTED);
+
+        // ================================
+        // Observa o banco: a cada escrita (aqui ou em outra tela), contadores
+        // e busca são atualizados — sem recarregar "por garantia" no onResume
+        // ================================
+        dao.observar(TarefaDAO::lerContadores, this::aoAlterarDados);
+
+        // Todas as tarefas, com as ordenações montadas em segundo plano; a lista da
+        // tela sai delas em memória (trocar ordem/filtro nas configurações não consulta o banco).
+        // Depois da primeira carga, cada escrita relê só as tarefas que ela alterou
+        dao.observar(TarefasEmMemoria.acompanhar(), this::mostrarTarefas);
+
+        // Consulta definida quando as configurações chegarem, e de novo só se mudarem
+        Preferencias.observar(aoAlterarPreferencias);
+
+        if (savedInstanceState == null) {
+            // Exclusões cujo prazo para desfazer já passou (ex.: app fechado durante o prazo);
+            // as que ainda estão movendo blocos ficam para depois (ver esvaziarLixeira)
+            dao.esvaziarLixeira(System.currentTimeMillis() - PRAZO_DESFAZER_MS);
+        } else {
+            // Recriada (ex.: rotação): nada é apagado aqui; o desfazer volta para a tela
+            restaurarDesfazer(savedInstanceState);
+        }
+
         // ================================
         // Clique no botão + (adicionar tarefa)
         // ================================
@@ -135,9 +243,48 @@ public class MainActivity extends AppCompatActivity {
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.menu_main, menu); // inflar menu XML
+
+        // Campo de busca: cada tecla agenda uma busca (debounce em BuscaTarefas)
+        SearchView searchView = (SearchView) menu.findItem(R.id.menu_buscar).getActionView();
+        searchView.setQueryHint("Buscar tarefas");
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                onQueryTextChange(query);
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                alterarBusca(newText);
+                return true;
+            }
+        });
         return true;
     }
 
+    // ================================
+    // Busca: novo texto digitado
+    // ================================
+    private void alterarBusca(String texto) {
+        String anterior = textoBusca;
+        textoBusca = texto == null ? "" : texto.trim();
+
+        if (textoBusca.isEmpty()) {
+            busca.cancelar();                       // descarta busca pendente/em andamento
+            if (!anterior.isEmpty()) adapter.submeterLista(listaAtual); // volta para a lista normal
+        } else {
+            busca.pesquisar(textoBusca);
+        }
+    }
+
+    // ================================
+    // Busca: resultado pronto (thread principal)
+    // ================================
+    private void mostrarResultadoBusca(String texto, ArrayList<Tarefa> resultado) {
+        adapter.submeterLista(resultado);
+    }
+
     // ================================
     // Ação ao clicar em itens do menu
     // ================================
@@ -147,56 +294,145 @@ public class MainActivity extends AppCompatActivity {
             // Abre a Activity de configurações
             startActivity(new Intent(this, ConfiguracoesActivity.class));
             return true;
+        } else if (item.getItemId() == R.id.menu_exportar_json) {
+            criarJson.launch("tarefas.json");
+            return true;
+        } else if (item.getItemId() == R.id.menu_exportar_csv) {
+            criarCsv.launch("tarefas.csv");
+            return true;
+        } else if (item.getItemId() == R.id.menu_backup) {
+            criarBackup();
+            return true;
+        } else if (item.getItemId() == R.id.menu_restaurar) {
+            new AlertDialog.Builder(this)
+                    .setTitle("Restaurar backup")
+                    .setMessage("Todas as tarefas atuais serão substituídas pelas do último backup. Continuar?")
+                    .setPositiveButton("Restaurar", (dialog, which) -> restaurarBackup())
+                    .setNegativeButton("Cancelar", null)
+                    .show();
+            return true;
+        } else if (item.getItemId() == R.id.menu_importar) {
+            abrirArquivo.launch(new String[]{"application/json", "text/csv",
+                    "text/comma-separated-values", "text/plain"});
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
 
     // ================================
-    // onResume: atualizar lista quando Activity volta para foreground
+    // Configurações novas (thread principal): refaz a lista só se a consulta mudou
+    // ================================
+    private void aplicarPreferencias(Preferencias.Snapshot snapshot) {
+        if (snapshot.getVersao() == versaoPreferencias) return; // nada mudou
+        versaoPreferencias = snapshot.getVersao();
+
+        ConsultaTarefas atual = ConsultaTarefas.dasPreferencias(snapshot);
+        if (!atual.equals(consulta)) {
+            aplicarConsulta(atual);
+        }
+    }
+
+    // ================================
+    // onPause: grava já os status marcados na lista e espera a gravação
+    // (não espera a pausa nos toques; o processo pode ser encerrado depois daqui)
     // ================================
     @Override
-    protected void onResume() {
-        super.onResume();
-        carregarLista();
+    protected void onPause() {
+        dao.descarregarStatus();
+        super.onPause();
     }
 
     // ================================
-    // Carrega lista de tarefas do banco e atualiza ListView
+    // Dados alterados no banco (thread principal)
     // ================================
-    private void carregarLista() {
-        // Pega todas as tarefas do banco
-        listaTarefas = dao.listar();
+    private void aoAlterarDados(ContadoresTarefas contadores) {
+        mostrarContadores(contadores);
 
-        // Cria o adapter passando a lista de tarefas
-        adapter = new TarefaAdapter(this, listaTarefas);
+        // A primeira entrega só traz os contadores iniciais
+        if (primeiraEntrega) {
+            primeiraEntrega = false;
+            return;
+        }
 
-        // Listener para clique longo em uma tarefa
-        adapter.setOnTarefaLongClickListener(this::mostrarOpcoesTarefa);
+        // A lista normal chega pela própria observação (mostrarTarefas); a busca é refeita
+        if (!textoBusca.isEmpty()) busca.pesquisar(textoBusca);
+    }
 
-        // Listener para mudança de status (concluída/pendente)
-        adapter.setOnStatusChangeListener(this::atualizarContadores);
+    // ================================
+    // onDestroy: encerra a thread de busca
+    // ================================
+    @Override
+    protected void onDestroy() {
+        unregisterReceiver(aoMudarFusoOuRelogio);
+        Preferencias.pararDeObservar(aoAlterarPreferencias);
+        busca.encerrar();
+        super.onDestroy();
+    }
+
+    // ================================
+    // Nova consulta (configurações atuais): ordem e filtros aplicados em memória
+    // ================================
+    private void aplicarConsulta(ConsultaTarefas novaConsulta) {
+        consulta = novaConsulta;
 
-        // Associa o adapter ao ListView
-        listViewTarefas.setAdapter(adapter);
+        // Concluídas marcadas na tela somem na hora (antes mesmo da gravação)
+        adapter.aplicarFiltroOcultarConcluidas(consulta.isOcultarConcluidas());
 
-        // Atualiza os contadores de tarefas (total/concluídas/pendentes)
-        atualizarContadores();
+        // Troca de permutação + passada de filtro, sem ir ao banco
+        if (tarefasCarregadas != null) listar(tarefasCarregadas, consulta);
     }
 
     // ================================
-    // Atualiza contadores no topo da tela
+    // Status marcado na lista (thread principal): entra nas tarefas em memória
+    // como outra instância (comStatus), antes da gravação. Trocar ordem/filtro
+    // já leva o status em conta; a gravação depois chega por mostrarTarefas.
     // ================================
-    private void atualizarContadores() {
-        int total = listaTarefas != null ? listaTarefas.size() : 0;
-        int concluidas = 0;
+    private void aoMarcarStatus(int id, boolean concluido) {
+        if (tarefasCarregadas == null) return;
+        TarefasEmMemoria marcadas = tarefasCarregadas.comStatus(id, concluido);
+        if (marcadas == tarefasCarregadas) return; // já estava assim
+        tarefasCarregadas = marcadas;
+        if (consulta != null) listar(marcadas, consulta);
+    }
 
-        if (listaTarefas != null) {
-            for (Tarefa t : listaTarefas) {
-                if (t.isConcluido()) concluidas++; // conta tarefas concluídas
-            }
-        }
+    // ================================
+    // Tarefas atualizadas do banco (thread principal)
+    // ================================
+    private void mostrarTarefas(TarefasEmMemoria tarefas) {
+        if (tarefas == tarefasCarregadas) return; // nenhuma tarefa mudou
+        tarefasCarregadas = tarefas;
+        if (consulta != null) listar(tarefas, consulta); // sem consulta: espera as configurações
+    }
+
+    // ================================
+    // Passada de filtro O(n) numa thread de leitura; a thread principal só
+    // recebe a lista pronta. Só a listagem mais recente chega à tela.
+    // ================================
+    private void listar(TarefasEmMemoria tarefas, ConsultaTarefas consultaAtual) {
+        final int minhaGeracao = ++geracaoLista;
+        if (listagem != null) listagem.cancel(false); // ainda na fila: nem roda
+        listagem = dao.ler(d -> tarefas.listar(consultaAtual), lista -> {
+            if (minhaGeracao == geracaoLista) mostrarLista(lista);
+        });
+    }
+
+    // ================================
+    // Nova versão da lista (thread principal)
+    // ================================
+    private void mostrarLista(ArrayList<Tarefa> lista) {
+        listaAtual = lista;
+        if (textoBusca.isEmpty()) adapter.submeterLista(lista); // com busca ativa, a busca continua na tela
+    }
 
-        int pendentes = Math.max(0, total - concluidas); // calcula tarefas pendentes
+    // ================================
+    // Atualiza contadores no topo da tela
+    // ================================
+    private void mostrarContadores(ContadoresTarefas contadores) {
+        // Totais do banco inteiro (tabela de contadores mantida por triggers):
+        // leitura O(1), não depende do tamanho nem dos filtros da lista
+        int total = contadores.getTotal();
+        int concluidas = contadores.getConcluidas();
+        int pendentes = contadores.getPendentes();
 
         // CORREÇÃO: Define APENAS O NÚMERO nas TextViews
         txtTotal.setText(String.valueOf(total));
@@ -211,8 +447,8 @@ public class MainActivity extends AppCompatActivity {
         Intent intent = new Intent(this, FormTarefaActivity.class);
 
         if (tarefa != null) {
-            // Se for edição, passa a tarefa para o formulário
-            intent.putExtra("tarefa", tarefa);
+            // Se for edição, passa só o id: o formulário carrega a tarefa pelo DAO
+            intent.putExtra(FormTarefaActivity.EXTRA_ID_TAREFA, tarefa.getId());
         }
 
         startActivity(intent);
@@ -226,9 +462,9 @@ public class MainActivity extends AppCompatActivity {
                 .setTitle("Excluir tarefa")
                 .setMessage("Deseja realmente excluir esta tarefa?")
                 .setPositiveButton("Sim", (dialog, which) -> {
-                    dao.deletar(tarefa.getId()); // remove do banco
-                    carregarLista();             // atualiza lista
-                    Toast.makeText(this, "Tarefa excluída!", Toast.LENGTH_SHORT).show();
+                    // remove do banco (a lista se atualiza pela observação)
+                    dao.deletar(tarefa.getId(), excluidas ->
+                            Toast.makeText(this, "Tarefa excluída!", Toast.LENGTH_SHORT).show());
                 })
                 .setNegativeButton("Não", null) // cancelar
                 .show();
@@ -238,8 +474,183 @@ public class MainActivity extends AppCompatActivity {
     // 🔥 NOVO MÉTODO — Exclui todas as tarefas concluídas
     // ================================
     private void excluirTarefasConcluidas() {
-        dao.excluirConcluidas(); // chama método no DAO (remover todas concluídas)
-        carregarLista();          // atualiza a lista após exclusão
-        Toast.makeText(this, "Tarefas concluídas excluídas!", Toast.LENGTH_SHORT).show();
+        // Exclui em blocos em segundo plano; a lista se atualiza pela observação
+        Snackbar andamento = Snackbar.make(findViewById(R.id.main),
+                "Excluindo tarefas concluídas...", Snackbar.LENGTH_INDEFINITE);
+        andamento.show();
+
+        long[] exclusao = new long[1];
+        desfazerAte = 0;
+        exclusao[0] = desfazerExclusao = dao.excluirConcluidas(
+                (feitas, total) -> andamento.setText("Excluindo " + feitas + " de " + total + "..."),
+                excluidas -> {
+                    andamento.dismiss();
+                    oferecerDesfazer(exclusao[0], excluidas);
+                },
+                erro -> {
+                    andamento.dismiss();
+                    // Parou no meio: os blocos já excluídos estão na lixeira e podem voltar
+                    mostrarDesfazer(exclusao[0],
+                            "Falha ao excluir. As tarefas já excluídas estão na lixeira.", "Restaurar");
+                });
+    }
+
+    // ================================
+    // Desfazer a exclusão das concluídas (até PRAZO_DESFAZER_MS)
+    // ================================
+    private void oferecerDesfazer(long excluidaEm, int excluidas) {
+        if (excluidas == 0) {
+            desfazerExclusao = 0;
+            Toast.makeText(this, "Nenhuma tarefa concluída para excluir", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        mostrarDesfazer(excluidaEm, excluidas + " tarefas excluídas", "Desfazer");
+    }
+
+    // Mensagem com a ação de restaurar a lixeira da exclusão; sem a ação, apaga de vez no fim do prazo
+    private void mostrarDesfazer(long excluidaEm, String mensagem, String acao) {
+        mostrarDesfazer(excluidaEm, mensagem, acao, PRAZO_DESFAZER_MS);
+    }
+
+    private void mostrarDesfazer(long excluidaEm, String mensagem, String acao, int prazoMs) {
+        desfazerExclusao = excluidaEm;
+        desfazerAte = System.currentTimeMillis() + prazoMs;
+        Snackbar.make(findViewById(R.id.main), mensagem, prazoMs)
+                .setAction(acao, v -> dao.restaurarLixeira(excluidaEm, restauradas ->
+                        Toast.makeText(this, "Tarefas restauradas!", Toast.LENGTH_SHORT).show()))
+                .addCallback(new Snackbar.Callback() {
+                    @Override
+                    public void onDismissed(Snackbar snackbar, int evento) {
+                        // Tela destruída (rotação, saída): o prazo continua na próxima tela
+                        // (onSaveInstanceState) ou a lixeira é esvaziada no próximo onCreate
+                        if (isChangingConfigurations() || isDestroyed()) return;
+                        desfazerExclusao = 0;
+                        if (evento != DISMISS_EVENT_ACTION) {
+                            dao.esvaziarLixeira(excluidaEm); // sem desfazer: apaga de vez
+                        }
+                    }
+                })
+                .show();
+    }
+
+    // Tela recriada no meio do prazo: mostra de novo o desfazer, pelo tempo que falta
+    private void restaurarDesfazer(Bundle estado) {
+        long excluidaEm = estado.getLong(ESTADO_DESFAZER);
+        if (excluidaEm == 0) return;
+        long ate = estado.getLong(ESTADO_DESFAZER_ATE);
+        long restante = ate == 0 ? PRAZO_DESFAZER_MS : ate - System.currentTimeMillis();
+        if (restante <= 0) {
+            dao.esvaziarLixeira(excluidaEm);
+            return;
+        }
+        String mensagem = dao.isExcluindo(excluidaEm)
+                ? "Excluindo tarefas concluídas..." : "Tarefas concluídas excluídas";
+        mostrarDesfazer(excluidaEm, mensagem, "Desfazer", (int) Math.min(restante, PRAZO_DESFAZER_MS));
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle estado) {
+        super.onSaveInstanceState(estado);
+        estado.putLong(ESTADO_DESFAZER, desfazerExclusao);
+        estado.putLong(ESTADO_DESFAZER_ATE, desfazerAte);
+    }
+
+    // ================================
+    // Exportar todas as tarefas para o arquivo escolhido
+    // ================================
+    private void exportar(Uri uri, int formato) {
+        if (uri == null) return; // seletor cancelado
+        OutputStream saida;
+        try {
+            saida = getContentResolver().openOutputStream(uri, "wt");
+        } catch (FileNotFoundException e) {
+            saida = null;
+        }
+        if (saida == null) {
+            Toast.makeText(this, "Não foi possível criar o arquivo", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        Snackbar andamento = Snackbar.make(findViewById(R.id.main), "Exportando...", Snackbar.LENGTH_INDEFINITE);
+        andamento.show();
+        dao.exportar(saida, formato,
+                (feitas, total) -> andamento.setText("Exportando " + feitas + " de " + total + "..."),
+                resultado -> {
+                    andamento.dismiss();
+                    Toast.makeText(this, resultado.isSucesso()
+                            ? resultado.getQuantidade() + " tarefas exportadas"
+                            : "Falha ao exportar", Toast.LENGTH_SHORT).show();
+                });
+    }
+
+    // ================================
+    // Importar tarefas (pular > 0 retoma uma importação interrompida)
+    // ================================
+    private void importar(Uri uri, int pular) {
+        if (uri == null) return; // seletor cancelado
+        InputStream entrada;
+        try {
+            entrada = getContentResolver().openInputStream(uri);
+        } catch (FileNotFoundException e) {
+            entrada = null;
+        }
+        if (entrada == null) {
+            Toast.makeText(this, "Não foi possível abrir o arquivo", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        Snackbar andamento = Snackbar.make(findViewById(R.id.main), "Importando...", Snackbar.LENGTH_INDEFINITE);
+        andamento.show();
+        // Formato pelo conteúdo: o tipo MIME pode ser text/plain ou genérico
+        dao.importar(entrada, TransferenciaTarefas.FORMATO_DETECTAR, pular,
+                (feitas, total) -> andamento.setText("Importando... " + feitas + " tarefas"),
+                resultado -> {
+                    andamento.dismiss();
+                    // Registros inválidos não param a importação: só são contados
+                    String ignoradas = resultado.getIgnoradas() == 0 ? ""
+                            : " (" + resultado.getIgnoradas() + " registros inválidos ignorados; "
+                            + resultado.getPrimeiroIgnorado() + ")";
+                    if (resultado.isSucesso()) {
+                        Toast.makeText(this, resultado.getQuantidade() + " tarefas importadas" + ignoradas,
+                                Toast.LENGTH_LONG).show();
+                        return;
+                    }
+                    if (!resultado.isRetomavel()) {
+                        // Arquivo quebrado: tentar de novo pararia no mesmo ponto
+                        Snackbar.make(findViewById(R.id.main), "Arquivo inválido (" + resultado.getErro().getMessage()
+                                        + "). " + resultado.getQuantidade() + " tarefas importadas" + ignoradas,
+                                Snackbar.LENGTH_LONG).show();
+                        return;
+                    }
+                    // Os lotes já gravados ficam; "Continuar" retoma do ponto em que parou
+                    Snackbar.make(findViewById(R.id.main),
+                                    "Importação interrompida após " + resultado.getQuantidade() + " tarefas" + ignoradas,
+                                    Snackbar.LENGTH_INDEFINITE)
+                            .setAction("Continuar", v -> importar(uri, resultado.getRetomada()))
+                            .show();
+                });
+    }
+
+    // ================================
+    // Backup binário completo (gravar / restaurar)
+    // ================================
+    private void criarBackup() {
+        dao.gravarSnapshot(new File(getFilesDir(), ARQUIVO_BACKUP), resultado ->
+                Toast.makeText(this, resultado.isSucesso()
+                        ? "Backup criado: " + resultado.getQuantidade() + " tarefas"
+                        : "Falha ao criar backup", Toast.LENGTH_SHORT).show());
+    }
+
+    private void restaurarBackup() {
+        File arquivo = new File(getFilesDir(), ARQUIVO_BACKUP);
+        if (!arquivo.exists()) {
+            Toast.makeText(this, "Nenhum backup encontrado", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        // A lista e os contadores se atualizam pela observação
+        dao.restaurarSnapshot(arquivo, resultado ->
+                Toast.makeText(this, resultado.isSucesso()
+                        ? resultado.getQuantidade() + " tarefas restauradas"
+                        : "Backup inválido ou corrompido", Toast.LENGTH_SHORT).show());
     }
 }
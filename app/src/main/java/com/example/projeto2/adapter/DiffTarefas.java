@@ -0,0 +1,67 @@
+package com.example.projeto2.adapter;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.projeto2.model.Tarefa;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * ================================
+ * DiffTarefas
+ * ================================
+ *
+ * Compara duas versões da lista de tarefas para o RecyclerView:
+ *  - mesma tarefa = mesmo id;
+ *  - mesmo conteúdo = mesmos campos exibidos na linha (título, data, prioridade, concluída);
+ *  - se só a conclusão mudou, devolve PAYLOAD_STATUS (a linha só atualiza o checkbox/cores).
+ *
+ * Roda em segundo plano (ver TarefaAdapter.submeterLista).
+ */
+class DiffTarefas extends DiffUtil.Callback {
+
+    static final Object PAYLOAD_STATUS = new Object();
+
+    private final List<Tarefa> antiga;
+    private final List<Tarefa> nova;
+
+    DiffTarefas(List<Tarefa> antiga, List<Tarefa> nova) {
+        this.antiga = antiga;
+        this.nova = nova;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return antiga.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return nova.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int posAntiga, int posNova) {
+        return antiga.get(posAntiga).getId() == nova.get(posNova).getId();
+    }
+
+    @Override
+    public boolean areContentsTheSame(int posAntiga, int posNova) {
+        Tarefa a = antiga.get(posAntiga);
+        Tarefa n = nova.get(posNova);
+        return a.isConcluido() == n.isConcluido() && mesmoTexto(a, n);
+    }
+
+    @Override
+    public Object getChangePayload(int posAntiga, int posNova) {
+        // Só mudou a conclusão → rebind parcial
+        return mesmoTexto(antiga.get(posAntiga), nova.get(posNova)) ? PAYLOAD_STATUS : null;
+    }
+
+    private static boolean mesmoTexto(Tarefa a, Tarefa n) {
+        return a.getPrioridade() == n.getPrioridade()
+                && Objects.equals(a.getTitulo(), n.getTitulo())
+                && Objects.equals(a.getData(), n.getData());
+    }
+}
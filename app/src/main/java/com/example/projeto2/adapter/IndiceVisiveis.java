@@ -0,0 +1,136 @@
+package com.example.projeto2.adapter;
+
+import java.util.function.IntPredicate;
+
+/**
+ * ================================
+ * IndiceVisiveis
+ * ================================
+ *
+ * Quais posições da lista de tarefas estão visíveis (bitset) + índice de
+ * rank/select para converter posição exibida ↔ posição na lista:
+ *  - rank(i)   = quantas visíveis existem antes de i (posição exibida de i);
+ *  - select(k) = posição na lista da k-ésima visível.
+ *
+ * O índice é uma árvore de Fenwick com a contagem de visíveis de cada palavra
+ * de 64 bits, então ocultar/mostrar um item, rank e select custam O(log n).
+ * Memória fixa: n/64 longs + n/64 ints, quantos filtros estiverem ativos
+ * (o bit guarda o resultado de todos eles juntos).
+ *
+ * Não é thread-safe: o TarefaAdapter só altera na thread principal e monta
+ * índices novos em segundo plano antes de publicá-los.
+ */
+final class IndiceVisiveis {
+
+    private final int tamanho;   // itens da lista (visíveis ou não)
+    private final long[] bits;   // bit i = item i visível
+    private final int[] arvore;  // Fenwick (base 1) sobre bitCount de cada palavra
+    private int visiveis;
+
+    /**
+     * Índice de "tamanho" itens; visivel.test(i) diz se o item i aparece. O(n).
+     */
+    IndiceVisiveis(int tamanho, IntPredicate visivel) {
+        this.tamanho = tamanho;
+        bits = new long[(tamanho + 63) >>> 6];
+        arvore = new int[bits.length + 1];
+
+        for (int i = 0; i < tamanho; i++) {
+            if (visivel.test(i)) bits[i >>> 6] |= 1L << i;
+        }
+        // Montagem da Fenwick em O(n/64): cada nó repassa a soma para o pai
+        for (int w = 1; w <= bits.length; w++) {
+            arvore[w] += Long.bitCount(bits[w - 1]);
+            visiveis += Long.bitCount(bits[w - 1]);
+            int pai = w + (w & -w);
+            if (pai <= bits.length) arvore[pai] += arvore[w];
+        }
+    }
+
+    private IndiceVisiveis(IndiceVisiveis origem) {
+        tamanho = origem.tamanho;
+        bits = origem.bits.clone();
+        arvore = origem.arvore.clone();
+        visiveis = origem.visiveis;
+    }
+
+    /**
+     * Cópia independente (foto do que está exibido, para o diff em segundo plano)
+     */
+    IndiceVisiveis copiar() {
+        return new IndiceVisiveis(this);
+    }
+
+    /**
+     * Itens da lista (visíveis ou não)
+     */
+    int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Itens visíveis
+     */
+    int contar() {
+        return visiveis;
+    }
+
+    boolean isVisivel(int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Mostra/oculta o item i. O(log n).
+     *
+     * @return true se a visibilidade mudou
+     */
+    boolean definir(int i, boolean visivel) {
+        if (isVisivel(i) == visivel) return false;
+        bits[i >>> 6] ^= 1L << i;
+        int delta = visivel ? 1 : -1;
+        for (int w = (i >>> 6) + 1; w < arvore.length; w += w & -w) {
+            arvore[w] += delta;
+        }
+        visiveis += delta;
+        return true;
+    }
+
+    /**
+     * Quantos itens visíveis existem antes de i (= posição exibida de i, se visível). O(log n).
+     */
+    int rank(int i) {
+        int palavra = i >>> 6;
+        int total = 0;
+        for (int w = palavra; w > 0; w -= w & -w) {
+            total += arvore[w];
+        }
+        int resto = i & 63;
+        if (resto != 0) total += Long.bitCount(bits[palavra] & ((1L << resto) - 1));
+        return total;
+    }
+
+    /**
+     * Posição na lista do k-ésimo item visível (k a partir de 0). O(log n).
+     */
+    int select(int k) {
+        if (k < 0 || k >= visiveis) {
+            throw new IndexOutOfBoundsException("posição " + k + ", visíveis " + visiveis);
+        }
+        // Desce a Fenwick: maior prefixo de palavras com menos de k+1 visíveis
+        int palavra = 0;
+        int restante = k;
+        for (int passo = Integer.highestOneBit(bits.length); passo > 0; passo >>>= 1) {
+            int proximo = palavra + passo;
+            if (proximo <= bits.length && arvore[proximo] <= restante) {
+                palavra = proximo;
+                restante -= arvore[proximo];
+            }
+        }
+        // Dentro da palavra: descarta os "restante" bits visíveis mais baixos
+        long w = bits[palavra];
+        for (int j = 0; j < restante; j++) {
+            w &= w - 1;
+        }
+        return (palavra << 6) + Long.numberOfTrailingZeros(w);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.projeto2.adapter;
+
+import android.graphics.Color;
+
+import com.example.projeto2.model.Tarefa;
+import com.example.projeto2.utils.DataCodec;
+
+/**
+ * ================================
+ * LinhaTarefa
+ * ================================
+ *
+ * Estado pronto de uma linha da lista: cores já resolvidas, transparência,
+ * tarefa vencida, destaque da data. Montado uma vez por tarefa quando a lista
+ * chega (em segundo plano, ver TarefaAdapter.submeterLista), assim o bind só
+ * copia campos para as views.
+ *
+ * Imutável: marcar/desmarcar gera outra linha (comStatus). "Vencida" depende do
+ * dia em que a linha foi montada (getDia); o adapter remonta a linha se o dia virar.
+ */
+final class LinhaTarefa {
+
+    // Cores de prioridade
+    static final int COR_BAIXA = 0xFF4CAF50;
+    static final int COR_MEDIA = 0xFFFFC107;
+    static final int COR_ALTA = 0xFFE53935;
+
+    static final float ALFA_CONCLUIDA = 0.4f;
+
+    private final Tarefa tarefa;
+    private final String titulo;
+    private final String data;
+    private final int dia;              // DataCodec.hoje() usado para calcular "vencida"
+    private final boolean concluido;
+    private final int corTitulo;
+    private final int corData;
+    private final float alfa;           // título e data
+    private final boolean iconeAtrasada;
+    private final boolean dataDestaque; // data em negrito e sublinhada (vencida)
+
+    private LinhaTarefa(Tarefa tarefa, int dia, boolean concluido) {
+        this.tarefa = tarefa;
+        this.titulo = tarefa.getTitulo();
+        String formatada = DataCodec.formatar(tarefa.getDataEpoch());
+        this.data = formatada != null ? formatada : tarefa.getData(); // sem data: texto salvo
+        this.dia = dia;
+        this.concluido = concluido;
+
+        int epoch = tarefa.getDataEpoch();
+        boolean vencida = epoch != DataCodec.SEM_DATA && epoch < dia;
+        dataDestaque = vencida; // concluída continua com a data destacada
+
+        if (concluido) {
+            corTitulo = Color.GRAY;
+            corData = Color.GRAY;
+            alfa = ALFA_CONCLUIDA;
+            iconeAtrasada = false; // ícone some mesmo se vencida
+        } else {
+            switch (tarefa.getPrioridade()) {
+                case 1: // baixa
+                    corTitulo = corData = COR_BAIXA;
+                    break;
+                case 2: // média
+                    corTitulo = corData = COR_MEDIA;
+                    break;
+                case 3: // alta
+                    corTitulo = corData = COR_ALTA;
+                    break;
+                default: // padrão
+                    corTitulo = Color.BLACK;
+                    corData = Color.DKGRAY;
+                    break;
+            }
+            alfa = 1f;
+            iconeAtrasada = vencida;
+        }
+    }
+
+    /**
+     * Linha da tarefa no dia "hoje" (epoch day)
+     */
+    static LinhaTarefa de(Tarefa tarefa, int hoje) {
+        return new LinhaTarefa(tarefa, hoje, tarefa.isConcluido());
+    }
+
+    /**
+     * A mesma linha com outro status (marcar/desmarcar na lista)
+     */
+    LinhaTarefa comStatus(boolean concluido) {
+        return concluido == this.concluido ? this : new LinhaTarefa(tarefa, dia, concluido);
+    }
+
+    /**
+     * A mesma linha (inclusive o status marcado) recalculada para outro dia
+     */
+    LinhaTarefa noDia(int hoje) {
+        return hoje == dia ? this : new LinhaTarefa(tarefa, hoje, concluido);
+    }
+
+    // ================================
+    // Getters
+    // ================================
+
+    Tarefa getTarefa() {
+        return tarefa;
+    }
+
+    String getTitulo() {
+        return titulo;
+    }
+
+    String getData() {
+        return data;
+    }
+
+    int getDia() {
+        return dia;
+    }
+
+    boolean isConcluido() {
+        return concluido;
+    }
+
+    int getCorTitulo() {
+        return corTitulo;
+    }
+
+    int getCorData() {
+        return corData;
+    }
+
+    float getAlfa() {
+        return alfa;
+    }
+
+    boolean isIconeAtrasada() {
+        return iconeAtrasada;
+    }
+
+    boolean isDataDestaque() {
+        return dataDestaque;
+    }
+}
@@ -1,31 +1,38 @@
 package com.example.projeto2.adapter;
 
 import android.content.Context;
-import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ArrayAdapter;
 import android.widget.CheckBox;
 import android.widget.TextView;
 import android.graphics.Typeface;
 import android.widget.ImageView;
 
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
 import com.example.projeto2.R;
-import com.example.projeto2.database.TarefaDAO;
+import com.example.projeto2.database.TarefaDAOAsync;
 import com.example.projeto2.model.Tarefa;
-import com.example.projeto2.utils.Preferencias;
+import com.example.projeto2.utils.DataCodec;
 
-import java.util.List;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * ================================
  * TarefaAdapter
  * ================================
  *
- * Adapter customizado para ListView de tarefas.
+ * Adapter do RecyclerView de tarefas.
  * Responsável por exibir cada item com:
  *  - Título
  *  - Data
@@ -34,24 +41,58 @@ import java.util.Calendar;
  *  - Cores conforme prioridade
  *  - Ocultar tarefas concluídas
  *
+ * A lista nunca é trocada "de uma vez": submeterLista() compara a lista exibida
+ * com a nova em segundo plano (DiffUtil, ver DiffTarefas) e aplica só as inserções,
+ * remoções, movimentos e alterações necessárias — as linhas não afetadas e a
+ * posição da rolagem são mantidas. Marcar/desmarcar uma tarefa atualiza só a
+ * linha dela, só a parte de status (PAYLOAD_STATUS).
+ *
+ * Cores, transparência e "vencida" de cada linha são calculados junto com o diff,
+ * em segundo plano (LinhaTarefa); o bind só copia esses valores para as views.
+ *
+ * As Tarefas recebidas não são alteradas aqui (são as mesmas de TarefasEmMemoria,
+ * lidas em outras threads): marcar troca só a LinhaTarefa da posição e avisa o
+ * OnStatusAlteradoListener, que leva o status para a próxima lista enviada.
+ *
+ * Uma única lista (a recebida, sem cópia filtrada): o filtro é um bitset de
+ * visíveis com rank/select (IndiceVisiveis). Posição exibida → tarefa em O(log n),
+ * e ocultar a tarefa que acabou de ser concluída também é O(log n).
+ *
+ * Acesso ao banco só pelo TarefaDAOAsync (nada de SQLite na thread principal).
+ *
  * Contém listeners para:
  *  - Clique longo → opções Editar/Excluir
- *  - Alteração de status (concluído) → atualizar contadores
+ *  - Alteração de status (concluído) → enfileirada para gravação em lote e avisada
  */
-public class TarefaAdapter extends ArrayAdapter<Tarefa> {
+public class TarefaAdapter extends RecyclerView.Adapter<TarefaAdapter.ViewHolder> {
+
+    // Diffs de todas as listas rodam nesta thread (fora da thread principal)
+    private static final ExecutorService DIFF = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "tarefas-diff");
+        t.setDaemon(true);
+        return t;
+    });
 
     // ================================
     // Objetos auxiliares
     // ================================
-    private LayoutInflater inflater;    // Para inflar o layout dos itens
-    private TarefaDAO dao;              // Acesso ao banco para atualizar tarefas
-    private Preferencias prefs;         // Preferências do usuário (SharedPreferences)
+    private final LayoutInflater inflater;  // Para inflar o layout dos itens
+    private final TarefaDAOAsync dao;       // Acesso assíncrono ao banco para atualizar tarefas
+    private final Handler principal = new Handler(Looper.getMainLooper());
+
+    // LISTA RECEBIDA → última lista enviada por submeterLista (ainda no diff)
+    private List<Tarefa> listaRecebida = Collections.emptyList();
 
-    // LISTA ORIGINAL → todas as tarefas, sem filtro
-    private List<Tarefa> listaOriginal;
+    // LISTA → a que o RecyclerView mostra, inteira; VISIVEIS diz quais posições aparecem
+    private List<Tarefa> lista = Collections.emptyList();
+    private IndiceVisiveis visiveis = new IndiceVisiveis(0, i -> true);
 
-    // LISTA FILTRADA → tarefas exibidas (pode ocultar concluídas)
-    private List<Tarefa> listaFiltrada;
+    // LINHAS → estado pronto de cada posição de "lista" (mesmo tamanho/ordem)
+    private List<LinhaTarefa> linhas = Collections.emptyList();
+
+    private boolean ocultarConcluidas;
+    private int geracao;    // diffs superados por uma lista mais nova são descartados
+    private int alteracoes; // marcações feitas na lista exibida (invalidam um diff em andamento)
 
     // ================================
     // Listener para clique longo
@@ -67,242 +108,265 @@ public class TarefaAdapter extends ArrayAdapter<Tarefa> {
     }
 
     // ================================
-    // Listener para atualizar contador em tempo real
+    // Listener para status marcado na tela
     // ================================
-    public interface OnStatusChangeListener {
-        void onStatusChanged();
+    public interface OnStatusAlteradoListener {
+        void onStatusAlterado(int id, boolean concluido);
     }
 
-    private OnStatusChangeListener statusListener;
+    private OnStatusAlteradoListener statusListener;
 
-    public void setOnStatusChangeListener(OnStatusChangeListener listener) {
+    public void setOnStatusAlteradoListener(OnStatusAlteradoListener listener) {
         this.statusListener = listener;
     }
 
     // ================================
     // Construtor do Adapter
     // ================================
-    public TarefaAdapter(Context context, List<Tarefa> lista) {
-        super(context, 0, lista);
-
+    public TarefaAdapter(Context context, TarefaDAOAsync dao) {
         inflater = LayoutInflater.from(context); // inflador de layout
-        dao = new TarefaDAO(context);            // DAO para atualizar tarefas
-        prefs = new Preferencias(context);       // preferências
-
-        // Inicializa listas internas
-        listaOriginal = new ArrayList<>(lista);
-        listaFiltrada = new ArrayList<>(lista);
+        this.dao = dao;                          // DAO para atualizar tarefas
+        setHasStableIds(true);                   // id da tarefa identifica a linha
     }
 
     // ================================
-    // ViewHolder → cache de views para performance
+    // Troca de lista (diff em segundo plano)
     // ================================
-    private static class ViewHolder {
-        TextView txtTitulo;
-        TextView txtData;
-        CheckBox chkConcluida;
-        ImageView imgAtrasada;
 
+    /**
+     * Passa a exibir "lista". A diferença para a lista atual é calculada fora da
+     * thread principal e aplicada como eventos finos (inserir/remover/mover/alterar).
+     * Chamar na thread principal; a lista não deve ser alterada depois de enviada.
+     */
+    public void submeterLista(List<Tarefa> lista) {
+        listaRecebida = lista == null ? Collections.emptyList() : lista;
+        atualizarExibida();
     }
 
-    // ================================
-    // Adapter Overrides
-    // ================================
-    @Override
-    public int getCount() {
-        // Retorna tamanho da lista filtrada (itens exibidos)
-        return listaFiltrada.size();
+    private void atualizarExibida() {
+        final int minhaGeracao = ++geracao;
+        final int minhasAlteracoes = alteracoes;
+        final List<Tarefa> antiga = new ListaVisivel(lista, visiveis.copiar()); // foto do exibido
+        final List<Tarefa> fonte = listaRecebida;
+        final boolean ocultar = ocultarConcluidas;
+
+        DIFF.execute(() -> {
+            IndiceVisiveis novos = filtrar(fonte, ocultar);
+            List<LinhaTarefa> novasLinhas = montarLinhas(fonte);
+            DiffUtil.DiffResult diff = DiffUtil.calculateDiff(
+                    new DiffTarefas(antiga, new ListaVisivel(fonte, novos)));
+
+            principal.post(() -> {
+                if (minhaGeracao != geracao) return; // chegou uma lista mais nova
+                if (minhasAlteracoes != alteracoes) {
+                    // o usuário marcou algo durante o diff: a foto "antiga" não vale mais
+                    atualizarExibida();
+                    return;
+                }
+                lista = fonte;
+                visiveis = novos;
+                linhas = novasLinhas;
+                diff.dispatchUpdatesTo(this);
+            });
+        });
     }
 
-    @Override
-    public Tarefa getItem(int position) {
-        // Retorna tarefa da posição na lista filtrada
-        return listaFiltrada.get(position);
+    // Estado de exibição de cada tarefa (roda em segundo plano)
+    static List<LinhaTarefa> montarLinhas(List<Tarefa> tarefas) {
+        int hoje = DataCodec.hoje();
+        List<LinhaTarefa> resultado = new ArrayList<>(tarefas.size());
+        for (Tarefa t : tarefas) {
+            resultado.add(LinhaTarefa.de(t, hoje));
+        }
+        return resultado;
     }
 
-    @Override
-    public View getView(int position, View convertView, ViewGroup parent) {
-
-        ViewHolder holder;
-
-        if (convertView == null) {
-            // Inflar layout do item
-            convertView = inflater.inflate(R.layout.item_tarefa, parent, false);
+    // Visíveis de "fonte" com o filtro atual (roda em segundo plano)
+    private static IndiceVisiveis filtrar(List<Tarefa> fonte, boolean ocultar) {
+        return new IndiceVisiveis(fonte.size(), i -> !ocultar || !fonte.get(i).isConcluido());
+    }
 
-            // Inicializar ViewHolder
-            holder = new ViewHolder();
-            holder.txtTitulo = convertView.findViewById(R.id.txtTitulo);
-            holder.txtData = convertView.findViewById(R.id.txtData);
-            holder.chkConcluida = convertView.findViewById(R.id.chkConcluida);
-            holder.imgAtrasada = convertView.findViewById(R.id.imgAtrasada);
+    // Visão (sem cópia) só das posições visíveis de uma lista, para o DiffTarefas
+    private static final class ListaVisivel extends AbstractList<Tarefa> {
+        private final List<Tarefa> lista;
+        private final IndiceVisiveis visiveis;
 
-            convertView.setTag(holder);
-        } else {
-            // Recuperar holder existente
-            holder = (ViewHolder) convertView.getTag();
+        ListaVisivel(List<Tarefa> lista, IndiceVisiveis visiveis) {
+            this.lista = lista;
+            this.visiveis = visiveis;
         }
 
-        Tarefa tarefa = getItem(position);
-        if (tarefa == null) return convertView;
-
-        // ================================
-        // Preenche os dados básicos
-        // ================================
-        holder.txtTitulo.setText(tarefa.getTitulo());
-        holder.txtData.setText(tarefa.getData());
-
-        // Remove listener anterior para evitar bug ao reciclar view
-        holder.chkConcluida.setOnCheckedChangeListener(null);
-        holder.chkConcluida.setChecked(tarefa.isConcluido());
-
-        // ================================
-        // TAREFA NÃO CONCLUÍDA
-        // ================================
-        if (!tarefa.isConcluido()) {
-
-            aplicarCorPrioridade(holder, tarefa.getPrioridade()); // aplica cor conforme prioridade
-            holder.txtTitulo.setAlpha(1f);
-            holder.txtData.setAlpha(1f);
-
-            if (isVencida(tarefa.getData())) {
-                // Ícone visível se tarefa atrasada
-                holder.imgAtrasada.setVisibility(View.VISIBLE);
-                holder.imgAtrasada.setAlpha(1f);
-
-                // Data em negrito e sublinhada
-                holder.txtData.setTypeface(Typeface.DEFAULT_BOLD);
-                holder.txtData.getPaint().setUnderlineText(true);
+        @Override
+        public Tarefa get(int posicao) {
+            return lista.get(visiveis.select(posicao));
+        }
 
-            } else {
-                holder.imgAtrasada.setVisibility(View.GONE);
-                holder.txtData.setTypeface(Typeface.DEFAULT);
-                holder.txtData.getPaint().setUnderlineText(false);
-            }
+        @Override
+        public int size() {
+            return visiveis.contar();
         }
-        // ================================
-        // TAREFA CONCLUÍDA
-        // ================================
-        else {
-            holder.txtTitulo.setAlpha(0.4f);
-            holder.txtData.setAlpha(0.4f);
-            holder.txtTitulo.setTextColor(Color.GRAY);
-            holder.txtData.setTextColor(Color.GRAY);
-
-            // Ícone some mesmo se vencida
-            holder.imgAtrasada.setVisibility(View.GONE);
-
-            if (isVencida(tarefa.getData())) {
-                holder.txtData.setTypeface(Typeface.DEFAULT_BOLD);
-                holder.txtData.getPaint().setUnderlineText(true);
-            } else {
-                holder.txtData.setTypeface(Typeface.DEFAULT);
-                holder.txtData.getPaint().setUnderlineText(false);
-            }
+    }
+
+    // ================================
+    // ViewHolder → cache de views para performance
+    // ================================
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final TextView txtTitulo;
+        final TextView txtData;
+        final CheckBox chkConcluida;
+        final ImageView imgAtrasada;
+
+        ViewHolder(View itemView) {
+            super(itemView);
+            txtTitulo = itemView.findViewById(R.id.txtTitulo);
+            txtData = itemView.findViewById(R.id.txtData);
+            chkConcluida = itemView.findViewById(R.id.chkConcluida);
+            imgAtrasada = itemView.findViewById(R.id.imgAtrasada);
         }
+    }
 
-        // ================================
-        // CLICK NO CHECKBOX
-        // ================================
-        holder.chkConcluida.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            // Atualiza status da tarefa
-            tarefa.setConcluido(isChecked);
-            dao.atualizar(tarefa);
+    // ================================
+    // Adapter Overrides
+    // ================================
+    @Override
+    public int getItemCount() {
+        // Quantidade de tarefas visíveis
+        return visiveis.contar();
+    }
 
-            // Aplica filtro se a opção de ocultar concluídas estiver ativa
-            aplicarFiltroOcultarConcluidas(prefs.getOcultarConcluidas());
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
+    }
 
-            // Atualiza contadores
-            if (statusListener != null) {
-                statusListener.onStatusChanged();
-            }
-        });
+    /**
+     * Tarefa exibida na posição
+     */
+    public Tarefa getItem(int position) {
+        return lista.get(visiveis.select(position));
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        // Inflar layout do item
+        ViewHolder holder = new ViewHolder(inflater.inflate(R.layout.item_tarefa, parent, false));
 
         // Clique no item → alterna checkbox
-        convertView.setOnClickListener(v ->
+        holder.itemView.setOnClickListener(v ->
                 holder.chkConcluida.setChecked(!holder.chkConcluida.isChecked())
         );
 
-        // Clique longo → chama listener externo
-        convertView.setOnLongClickListener(v -> {
-            if (longClickListener != null) {
-                longClickListener.onTarefaLongClick(tarefa);
+        // Clique longo → chama listener externo (com a tarefa da posição ATUAL)
+        holder.itemView.setOnLongClickListener(v -> {
+            int pos = holder.getBindingAdapterPosition();
+            if (longClickListener != null && pos != RecyclerView.NO_POSITION) {
+                longClickListener.onTarefaLongClick(getItem(pos));
                 return true;
             }
             return false;
         });
+        return holder;
+    }
 
-        return convertView;
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        // Só mudou a conclusão → não reescreve título/data
+        if (!payloads.isEmpty() && apenasStatus(payloads)) {
+            vincularStatus(holder, linha(position));
+            return;
+        }
+        onBindViewHolder(holder, position);
     }
 
-    // ================================
-    // FILTRO DE TAREFAS CONCLUÍDAS
-    // ================================
-    public void aplicarFiltroOcultarConcluidas(boolean ocultar) {
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        LinhaTarefa linha = linha(position);
 
-        listaFiltrada.clear();
+        // ================================
+        // Preenche os dados básicos
+        // ================================
+        holder.txtTitulo.setText(linha.getTitulo());
+        holder.txtData.setText(linha.getData());
 
-        if (ocultar) {
-            for (Tarefa t : listaOriginal) {
-                if (!t.isConcluido()) {
-                    listaFiltrada.add(t);
-                }
-            }
-        } else {
-            listaFiltrada.addAll(listaOriginal);
-        }
+        vincularStatus(holder, linha);
+    }
 
-        notifyDataSetChanged(); // atualiza ListView
+    // Linha pronta da posição exibida; remontada só se o dia virou desde que foi calculada
+    private LinhaTarefa linha(int position) {
+        int indice = visiveis.select(position);
+        LinhaTarefa linha = linhas.get(indice);
+        int hoje = DataCodec.hoje();
+        if (linha.getDia() != hoje) {
+            linha = linha.noDia(hoje); // mantém o status marcado na tela
+            linhas.set(indice, linha);
+        }
+        return linha;
     }
 
-    // ================================
-    // APLICA COR CONFORME PRIORIDADE
-    // ================================
-    private void aplicarCorPrioridade(ViewHolder holder, int prioridade) {
-        switch (prioridade) {
-            case 1: // baixa
-                holder.txtTitulo.setTextColor(Color.parseColor("#4CAF50"));
-                holder.txtData.setTextColor(Color.parseColor("#4CAF50"));
-                break;
-            case 2: // média
-                holder.txtTitulo.setTextColor(Color.parseColor("#FFC107"));
-                holder.txtData.setTextColor(Color.parseColor("#FFC107"));
-                break;
-            case 3: // alta
-                holder.txtTitulo.setTextColor(Color.parseColor("#E53935"));
-                holder.txtData.setTextColor(Color.parseColor("#E53935"));
-                break;
-            default: // padrão
-                holder.txtTitulo.setTextColor(Color.BLACK);
-                holder.txtData.setTextColor(Color.DKGRAY);
-                break;
+    private static boolean apenasStatus(List<Object> payloads) {
+        for (Object p : payloads) {
+            if (p != DiffTarefas.PAYLOAD_STATUS) return false;
         }
+        return true;
     }
 
     // ================================
-    // VERIFICA SE A TAREFA ESTÁ VENCIDA
+    // Checkbox, cores e ícone (tudo que depende de concluído)
     // ================================
-    private boolean isVencida(String dataStr) {
-        if (dataStr == null || dataStr.length() != 10) return false;
-        if (dataStr.charAt(2) != '/' || dataStr.charAt(5) != '/') return false;
+    private void vincularStatus(ViewHolder holder, LinhaTarefa linha) {
+        // Remove listener anterior para evitar bug ao reciclar view
+        holder.chkConcluida.setOnCheckedChangeListener(null);
+        holder.chkConcluida.setChecked(linha.isConcluido());
 
-        try {
-            int dia = Integer.parseInt(dataStr.substring(0, 2));
-            int mes = Integer.parseInt(dataStr.substring(3, 5));
-            int ano = Integer.parseInt(dataStr.substring(6, 10));
+        // Valores já resolvidos em LinhaTarefa: aqui só copia
+        holder.txtTitulo.setTextColor(linha.getCorTitulo());
+        holder.txtData.setTextColor(linha.getCorData());
+        holder.txtTitulo.setAlpha(linha.getAlfa());
+        holder.txtData.setAlpha(linha.getAlfa());
+        holder.imgAtrasada.setVisibility(linha.isIconeAtrasada() ? View.VISIBLE : View.GONE);
 
-            // Data de hoje no formato AAAAMMDD
-            Calendar c = Calendar.getInstance();
-            int hoje = c.get(Calendar.YEAR) * 10000
-                    + (c.get(Calendar.MONTH) + 1) * 100
-                    + c.get(Calendar.DAY_OF_MONTH);
+        // Data em negrito e sublinhada se vencida
+        holder.txtData.setTypeface(linha.isDataDestaque() ? Typeface.DEFAULT_BOLD : Typeface.DEFAULT);
+        holder.txtData.getPaint().setUnderlineText(linha.isDataDestaque());
 
-            // Data da tarefa no mesmo formato
-            int tarefaData = ano * 10000 + mes * 100 + dia;
+        // ================================
+        // CLICK NO CHECKBOX
+        // ================================
+        holder.chkConcluida.setOnCheckedChangeListener((buttonView, isChecked) ->
+                alternarStatus(holder, isChecked));
+    }
 
-            return tarefaData < hoje; // true se vencida
+    private void alternarStatus(ViewHolder holder, boolean concluido) {
+        int pos = holder.getBindingAdapterPosition();
+        if (pos == RecyclerView.NO_POSITION) return;
 
-        } catch (Exception e) {
-            return false;
+        // Só a linha muda; a Tarefa (compartilhada) continua como veio
+        int indice = visiveis.select(pos);
+        Tarefa tarefa = lista.get(indice);
+        linhas.set(indice, linhas.get(indice).comStatus(concluido));
+        alteracoes++;
+
+        if (ocultarConcluidas && concluido) {
+            // Concluída some da lista se o filtro estiver ativo: só o bit dela, O(log n)
+            visiveis.definir(indice, false);
+            notifyItemRemoved(pos);
+        } else {
+            // Redesenha só esta linha (só o status)
+            notifyItemChanged(pos, DiffTarefas.PAYLOAD_STATUS);
         }
+
+        // Vai para a fila de status: toques seguidos viram um único commit em lote
+        dao.enfileirarStatus(tarefa.getId(), concluido);
+        if (statusListener != null) statusListener.onStatusAlterado(tarefa.getId(), concluido);
+    }
+
+    // ================================
+    // FILTRO DE TAREFAS CONCLUÍDAS
+    // ================================
+    public void aplicarFiltroOcultarConcluidas(boolean ocultar) {
+        if (ocultar == ocultarConcluidas) return;
+        ocultarConcluidas = ocultar;
+        atualizarExibida(); // diff, sem redesenhar a lista inteira
     }
 }
@@ -0,0 +1,99 @@
+package com.example.projeto2.database;
+
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.projeto2.model.Tarefa;
+
+import java.util.ArrayList;
+
+/**
+ * ================================
+ * BuscaTarefas
+ * ================================
+ *
+ * Executa a busca textual enquanto o usuário digita:
+ *  - debounce: só consulta depois de ESPERA_MS sem nova tecla;
+ *  - a consulta roda fora da thread principal (pool de leitura do TarefaDAOAsync);
+ *  - uma tecla nova cancela a consulta em andamento (CancellationSignal),
+ *    e resultados de consultas antigas nunca são entregues.
+ *
+ * O resultado é entregue na thread principal.
+ * Deve ser usada (pesquisar/cancelar/encerrar) a partir da thread principal.
+ */
+public class BuscaTarefas {
+
+    private static final long ESPERA_MS = 300; // pausa na digitação antes de consultar
+
+    // ================================
+    // Listener de resultado
+    // ================================
+    public interface OnResultadoListener {
+        void onResultado(String texto, ArrayList<Tarefa> resultado);
+    }
+
+    private final TarefaDAOAsync dao;
+    private final OnResultadoListener listener;
+    private final Handler principal = new Handler(Looper.getMainLooper());
+
+    private Runnable agendada;          // busca aguardando o fim do debounce
+    private CancellationSignal sinal;   // consulta em andamento
+    private int geracao;                // incrementa a cada nova busca/cancelamento
+
+    public BuscaTarefas(TarefaDAOAsync dao, OnResultadoListener listener) {
+        this.dao = dao;
+        this.listener = listener;
+    }
+
+    /**
+     * Agenda a busca de "texto", substituindo qualquer busca anterior
+     */
+    public void pesquisar(String texto) {
+        cancelar();
+
+        final int minhaGeracao = geracao;
+        agendada = () -> executar(texto, minhaGeracao);
+        principal.postDelayed(agendada, ESPERA_MS);
+    }
+
+    /**
+     * Descarta a busca agendada e aborta a que estiver rodando
+     */
+    public void cancelar() {
+        geracao++;
+        if (agendada != null) {
+            principal.removeCallbacks(agendada);
+            agendada = null;
+        }
+        if (sinal != null) {
+            sinal.cancel();
+            sinal = null;
+        }
+    }
+
+    /**
+     * Cancela tudo (chamar em onDestroy)
+     */
+    public void encerrar() {
+        cancelar();
+    }
+
+    // ================================
+    // Executa a consulta em segundo plano
+    // ================================
+    private void executar(String texto, int minhaGeracao) {
+        agendada = null;
+        final CancellationSignal sinalConsulta = new CancellationSignal();
+        sinal = sinalConsulta;
+
+        // Consulta cancelada (tecla mais nova) não entrega resultado
+        dao.buscar(texto, sinalConsulta, resultado -> {
+            // Entrega só se ainda é a busca mais recente
+            if (minhaGeracao == geracao && !sinalConsulta.isCanceled()) {
+                sinal = null;
+                listener.onResultado(texto, resultado);
+            }
+        });
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.projeto2.database;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+
+import com.example.projeto2.model.Tarefa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ================================
+ * CacheTarefas
+ * ================================
+ *
+ * Cache em memória na frente do banco, compartilhado por todas as instâncias
+ * de TarefaDAO ligadas ao mesmo DBHelper (ou seja, pelo processo inteiro).
+ *
+ * Guarda dois tipos de entrada, ambos com despejo LRU e tamanho limitado:
+ *  - tarefas completas por id (buscarPorId);
+ *  - resultados de consultas (listar, páginas, contagens), por chave da consulta.
+ *
+ * Escritas passam pelo cache (write-through): o DAO grava no banco e em seguida
+ * atualiza a tarefa por id e descarta os resultados de consultas, que podem ter
+ * mudado de ordem/filtro. Um contador de versão impede que uma leitura iniciada
+ * antes de uma escrita guarde um resultado já desatualizado.
+ *
+ * O cache guarda e devolve CÓPIAS: quem recebe uma tarefa pode alterá-la
+ * (ex.: checkbox da lista) sem corromper o que está em memória.
+ *
+ * Em onTrimMemory o cache encolhe ou é esvaziado, conforme a pressão de memória.
+ */
+public class CacheTarefas implements ComponentCallbacks2 {
+
+    static final int MAX_TAREFAS = 500;          // tarefas completas por id
+    static final int MAX_LINHAS_CONSULTAS = 5000; // soma das linhas de todas as consultas guardadas
+
+    private final LruCache<Integer, Tarefa> porId;
+    private final LruCache<List<Object>, Object> consultas;
+
+    private int versao;   // incrementa a cada escrita
+    private long acertos;
+    private long falhas;
+
+    CacheTarefas() {
+        this(MAX_TAREFAS, MAX_LINHAS_CONSULTAS);
+    }
+
+    CacheTarefas(int maxTarefas, int maxLinhasConsultas) {
+        porId = new LruCache<>(maxTarefas);
+        consultas = new LruCache<List<Object>, Object>(maxLinhasConsultas) {
+            @Override
+            protected int sizeOf(List<Object> chave, Object valor) {
+                // Listas pesam o número de linhas; contagens pesam 1
+                return valor instanceof List ? Math.max(1, ((List<?>) valor).size()) : 1;
+            }
+        };
+    }
+
+    /**
+     * Chave de uma consulta: tipo da leitura + tudo que muda o resultado
+     */
+    static List<Object> chave(Object... partes) {
+        return Arrays.asList(partes);
+    }
+
+    // ================================
+    // Leitura
+    // ================================
+
+    /**
+     * Versão atual; ler ANTES de consultar o banco e passar para guardar*()
+     */
+    public synchronized int getVersao() {
+        return versao;
+    }
+
+    /**
+     * @return cópia da tarefa completa, ou null se não estiver no cache
+     */
+    public synchronized Tarefa obterTarefa(int id) {
+        Tarefa t = porId.get(id);
+        contar(t != null);
+        return t == null ? null : copiar(t);
+    }
+
+    /**
+     * @return cópia do resultado da consulta, ou null se não estiver no cache
+     */
+    public synchronized ArrayList<Tarefa> obterLista(List<Object> chave) {
+        @SuppressWarnings("unchecked")
+        List<Tarefa> lista = (List<Tarefa>) consultas.get(chave);
+        contar(lista != null);
+        if (lista == null) return null;
+
+        ArrayList<Tarefa> copia = new ArrayList<>(lista.size());
+        for (Tarefa t : lista) copia.add(copiar(t));
+        return copia;
+    }
+
+    /**
+     * Valores que não são listas (contagens). int[] é devolvido como cópia.
+     */
+    public synchronized Object obterValor(List<Object> chave) {
+        Object valor = consultas.get(chave);
+        contar(valor != null);
+        return valor instanceof int[] ? ((int[]) valor).clone() : valor;
+    }
+
+    public synchronized void guardarTarefa(int versaoLida, Tarefa t) {
+        if (versaoLida != versao || t == null) return; // houve escrita durante a leitura
+        porId.put(t.getId(), copiar(t));
+    }
+
+    public synchronized void guardarLista(int versaoLida, List<Object> chave, List<Tarefa> lista) {
+        if (versaoLida != versao) return;
+        ArrayList<Tarefa> copia = new ArrayList<>(lista.size());
+        for (Tarefa t : lista) copia.add(copiar(t));
+        consultas.put(chave, copia);
+    }
+
+    public synchronized void guardarValor(int versaoLida, List<Object> chave, Object valor) {
+        if (versaoLida != versao) return;
+        consultas.put(chave, valor instanceof int[] ? ((int[]) valor).clone() : valor);
+    }
+
+    // ================================
+    // Escrita (write-through, chamado pelo DAO depois de gravar)
+    // ================================
+
+    /**
+     * Tarefa inserida ou regravada por completo
+     */
+    public synchronized void tarefaGravada(Tarefa t) {
+        invalidarConsultas();
+        porId.put(t.getId(), copiar(t));
+    }
+
+    /**
+     * Só a coluna concluido mudou
+     */
+    public synchronized void statusAlterado(int id, boolean concluido) {
+        invalidarConsultas();
+        Tarefa t = porId.get(id);
+        if (t != null) t.setConcluido(concluido);
+    }
+
+    /**
+     * Alguns campos mudaram e o objeto pode estar incompleto: relê do banco
+     */
+    public synchronized void tarefaAlterada(int id) {
+        invalidarConsultas();
+        porId.remove(id);
+    }
+
+    public synchronized void tarefaRemovida(int id) {
+        invalidarConsultas();
+        porId.remove(id);
+    }
+
+    /**
+     * Escritas em massa (lotes, excluir concluídas): descarta tudo
+     */
+    public synchronized void invalidarTudo() {
+        invalidarConsultas();
+        porId.evictAll();
+    }
+
+    private void invalidarConsultas() {
+        versao++;
+        consultas.evictAll();
+    }
+
+    // ================================
+    // Pressão de memória
+    // ================================
+    @Override
+    public void onTrimMemory(int nivel) {
+        if (nivel >= TRIM_MEMORY_BACKGROUND || nivel == TRIM_MEMORY_RUNNING_CRITICAL) {
+            limpar(); // app em segundo plano ou memória crítica: libera tudo
+        } else {
+            reduzirPelaMetade(); // interface oculta / memória ficando baixa
+        }
+    }
+
+    // Obsoleto: onTrimMemory já recebe o nível equivalente (TRIM_MEMORY_COMPLETE)
+    @Override
+    public void onLowMemory() {
+        // nada a fazer
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration novaConfiguracao) {
+        // sem efeito no cache
+    }
+
+    /**
+     * Esvazia o cache (não conta como escrita: a versão não muda)
+     */
+    public synchronized void limpar() {
+        porId.evictAll();
+        consultas.evictAll();
+    }
+
+    private synchronized void reduzirPelaMetade() {
+        porId.trimToSize(porId.maxSize() / 2);
+        consultas.trimToSize(consultas.maxSize() / 2);
+    }
+
+    // ================================
+    // Estatísticas
+    // ================================
+    public synchronized long getAcertos() {
+        return acertos;
+    }
+
+    public synchronized long getFalhas() {
+        return falhas;
+    }
+
+    /**
+     * Tamanho atual: {tarefas por id, linhas em consultas}
+     */
+    public synchronized int[] getTamanho() {
+        return new int[]{porId.size(), consultas.size()};
+    }
+
+    private void contar(boolean acerto) {
+        if (acerto) acertos++; else falhas++;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        long pedidos = acertos + falhas;
+        return String.format(Locale.ROOT,
+                "CacheTarefas{acertos=%d, falhas=%d, taxa=%.1f%%, tarefas=%d, linhasConsultas=%d}",
+                acertos, falhas, pedidos == 0 ? 0.0 : 100.0 * acertos / pedidos,
+                porId.size(), consultas.size());
+    }
+
+    // Cópia independente (o cache nunca entrega nem guarda a instância de quem chamou)
+    private static Tarefa copiar(Tarefa t) {
+        return new Tarefa(t.getId(), t.getTitulo(), t.getDescricao(), t.getData(),
+                t.getPrioridade(), t.isConcluido());
+    }
+}
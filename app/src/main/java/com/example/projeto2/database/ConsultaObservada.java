@@ -0,0 +1,89 @@
+package com.example.projeto2.database;
+
+import android.util.Log;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ================================
+ * ConsultaObservada
+ * ================================
+ *
+ * Consulta que se reexecuta sozinha quando as tabelas dela mudam.
+ *
+ *  - executa uma vez ao ser criada e de novo a cada alteração avisada pelo
+ *    RastreadorAlteracoes (nada de recarregar "por garantia");
+ *  - rajadas de escritas são agrupadas: enquanto uma reexecução está agendada,
+ *    novos avisos não agendam outra (espera ESPERA_MS antes de consultar);
+ *  - a consulta e a entrega do resultado acontecem numa thread de segundo plano
+ *    (quem precisar da thread principal deve repassar — ver TarefaDAOAsync.observar).
+ *
+ * Criada por TarefaDAO.observar; chamar cancelar() quando não for mais necessária.
+ */
+public class ConsultaObservada<T> implements RastreadorAlteracoes.Inscricao {
+
+    private static final String TAG = "ConsultaObservada";
+    static final long ESPERA_MS = 50; // janela para agrupar escritas seguidas
+
+    // Uma thread para todas as consultas observadas do processo
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "tarefas-observacao");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // ================================
+    // Listener de resultado (thread de segundo plano)
+    // ================================
+    public interface OnResultadoListener<T> {
+        void onResultado(T resultado);
+    }
+
+    private final TarefaDAO dao;
+    private final TarefaDAOAsync.Operacao<T> consulta;
+    private final OnResultadoListener<T> listener;
+    private final RastreadorAlteracoes.Inscricao inscricao;
+
+    private final AtomicBoolean agendada = new AtomicBoolean();
+    private volatile boolean cancelada;
+
+    ConsultaObservada(TarefaDAO dao, RastreadorAlteracoes rastreador, TarefaDAOAsync.Operacao<T> consulta,
+                      OnResultadoListener<T> listener, String... tabelas) {
+        this.dao = dao;
+        this.consulta = consulta;
+        this.listener = listener;
+        this.inscricao = rastreador.inscrever(this::agendar, tabelas);
+        EXECUTOR.execute(this::executar); // primeiro resultado, sem espera
+    }
+
+    /**
+     * Para de observar; nenhum resultado é entregue depois disso
+     */
+    @Override
+    public void cancelar() {
+        cancelada = true;
+        inscricao.cancelar();
+    }
+
+    // Chamado na thread que gravou: só agenda (agrupando avisos seguidos)
+    private void agendar() {
+        if (cancelada || !agendada.compareAndSet(false, true)) return;
+        EXECUTOR.schedule(this::executar, ESPERA_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void executar() {
+        // Liberado ANTES de consultar: escrita durante a consulta agenda outra rodada
+        agendada.set(false);
+        if (cancelada) return;
+
+        try {
+            T resultado = consulta.executar(dao);
+            if (!cancelada) listener.onResultado(resultado);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Falha ao reexecutar consulta observada", e);
+        }
+    }
+}
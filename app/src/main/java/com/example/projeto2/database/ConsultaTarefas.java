@@ -0,0 +1,87 @@
+package com.example.projeto2.database;
+
+import com.example.projeto2.utils.Preferencias;
+
+/**
+ * ================================
+ * ConsultaTarefas
+ * ================================
+ *
+ * Descreve QUAIS tarefas listar e em que ordem (filtros + ordenação).
+ * É imutável e implementa equals/hashCode, então pode ser usada como chave
+ * (ex.: para saber se a consulta mudou desde a última carga).
+ *
+ * Valores seguem os mesmos códigos de Preferencias:
+ *  - ordenacao: 0 = id, 1 = título, 2 = data, 3 = prioridade
+ *  - prioridadeMinima: 0 = todas, 2 = média e alta, 3 = só alta
+ */
+public final class ConsultaTarefas {
+
+    // ================================
+    // Ordenações suportadas
+    // ================================
+    public static final int ORDEM_ID = 0;
+    public static final int ORDEM_TITULO = 1;
+    public static final int ORDEM_DATA = 2;
+    public static final int ORDEM_PRIORIDADE = 3;
+
+    private final boolean ocultarConcluidas;
+    private final int ordenacao;
+    private final int prioridadeMinima;
+
+    public ConsultaTarefas(boolean ocultarConcluidas, int ordenacao, int prioridadeMinima) {
+        this.ocultarConcluidas = ocultarConcluidas;
+        // Valores fora do esperado caem no padrão, como em listar()
+        this.ordenacao = (ordenacao >= ORDEM_ID && ordenacao <= ORDEM_PRIORIDADE) ? ordenacao : ORDEM_ID;
+        this.prioridadeMinima = (prioridadeMinima == 2 || prioridadeMinima == 3) ? prioridadeMinima : 0;
+    }
+
+    /**
+     * Consulta correspondente às configurações atuais do usuário
+     */
+    public static ConsultaTarefas dasPreferencias(Preferencias prefs) {
+        return dasPreferencias(prefs.getSnapshot());
+    }
+
+    /**
+     * Consulta correspondente a um snapshot das configurações
+     */
+    public static ConsultaTarefas dasPreferencias(Preferencias.Snapshot snapshot) {
+        return new ConsultaTarefas(snapshot.getOcultarConcluidas(), snapshot.getOrdenacao(),
+                snapshot.getPrioridadeMinima());
+    }
+
+    public boolean isOcultarConcluidas() {
+        return ocultarConcluidas;
+    }
+
+    public int getOrdenacao() {
+        return ordenacao;
+    }
+
+    public int getPrioridadeMinima() {
+        return prioridadeMinima;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ConsultaTarefas)) return false;
+        ConsultaTarefas outra = (ConsultaTarefas) o;
+        return ocultarConcluidas == outra.ocultarConcluidas
+                && ordenacao == outra.ordenacao
+                && prioridadeMinima == outra.prioridadeMinima;
+    }
+
+    @Override
+    public int hashCode() {
+        return (ocultarConcluidas ? 1 : 0) * 31 * 31 + ordenacao * 31 + prioridadeMinima;
+    }
+
+    @Override
+    public String toString() {
+        return "ConsultaTarefas{ocultarConcluidas=" + ocultarConcluidas +
+                ", ordenacao=" + ordenacao +
+                ", prioridadeMinima=" + prioridadeMinima + '}';
+    }
+}
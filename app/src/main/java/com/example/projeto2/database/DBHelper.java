@@ -1,8 +1,13 @@
 package com.example.projeto2.database;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
+
+import com.example.projeto2.utils.DataCodec;
 
 /**
  * ================================
@@ -15,6 +20,18 @@ import android.database.sqlite.SQLiteOpenHelper;
  * Funções principais:
  *  - Criar o banco e suas tabelas
  *  - Gerenciar versões do banco (atualizações)
+ *
+ * Existe UMA única instância por processo (getInstance), dona da conexão com o banco.
+ * A conexão fica aberta durante toda a vida do processo (não é fechada a cada operação)
+ * e usa write-ahead logging (WAL), para que leituras rodem em paralelo com a escrita.
+ *
+ * Cada DBHelper tem seu CacheTarefas (memória na frente do banco), registrado para
+ * receber onTrimMemory enquanto o banco estiver aberto, e seu RastreadorAlteracoes
+ * (avisa as consultas observadas quando uma tabela muda), e sua FilaStatus
+ * (status marcados na lista, gravados em lote).
+ *
+ * A cada abertura aplica um perfil de configuração do SQLite (aplicarPerfil); o banco
+ * do app também recebe manutenção com o app ocioso (ManutencaoBanco).
  */
 public class DBHelper extends SQLiteOpenHelper {
 
@@ -22,16 +39,173 @@ public class DBHelper extends SQLiteOpenHelper {
     // Constantes do banco
     // ================================
     private static final String NOME_BANCO = "tarefa.db"; // nome do arquivo do BD
-    private static final int VERSAO = 1;                  // versão do BD (para upgrades)
+    private static final int VERSAO = 6;                  // versão do BD (para upgrades)
+
+    // Histórico de versões:
+    // 1 → tabela tarefas original
+    // 2 → coluna data_epoch (data como epoch day) + índice
+    // 3 → índices de ordenação usados por TarefaDAO.listar()
+    // 4 → busca textual (tabela FTS tarefas_fts + triggers de sincronização)
+    // 5 → tabela tarefas_contadores (totais mantidos por triggers)
+    // 6 → tabela tarefas_lixeira (exclusão em massa que pode ser desfeita)
+
+    // Quantas linhas são convertidas por vez ao preencher data_epoch na migração
+    private static final int LOTE_MIGRACAO = 500;
+
+    // ================================
+    // Instância única (compartilhada pelo processo)
+    // ================================
+    private static DBHelper instancia;
+
+    private final Context context;                         // para (des)registrar o cache
+    private final CacheTarefas cache = new CacheTarefas(); // cache das tarefas deste banco
+    private final RastreadorAlteracoes rastreador = new RastreadorAlteracoes(); // invalidação por tabela
+    private final FilaStatus filaStatus;                   // status ainda não gravados
+    private final ManutencaoBanco manutencao;              // ANALYZE/vacuum com o app ocioso
+
+    /**
+     * Retorna a instância única do DBHelper, criando-a na primeira chamada.
+     * Usa o contexto da Application para não prender nenhuma Activity na memória.
+     *
+     * @param context Qualquer contexto do app
+     */
+    public static synchronized DBHelper getInstance(Context context) {
+        if (instancia == null) {
+            instancia = new DBHelper(context.getApplicationContext(), NOME_BANCO);
+            instancia.manutencao.iniciar();
+        }
+        return instancia;
+    }
+
+    /**
+     * Fecha a conexão compartilhada e descarta a instância única.
+     * Só é necessário no encerramento (ou em testes) — a próxima chamada a
+     * getInstance() abre uma nova conexão.
+     */
+    public static synchronized void fecharInstancia() {
+        if (instancia != null) {
+            instancia.close();
+            instancia = null;
+        }
+    }
 
     /**
      * Construtor
-     * @param context Contexto da Activity ou Application
+     * Visível no pacote apenas para permitir bancos separados em testes;
+     * o app deve usar getInstance().
+     *
+     * @param context   Contexto da Application
+     * @param nomeBanco Nome do arquivo do BD
      */
-    public DBHelper(Context context) {
+    DBHelper(Context context, String nomeBanco) {
         // Chama o construtor da classe pai (SQLiteOpenHelper)
         // 3º parâmetro é cursor factory (null = padrão)
-        super(context, NOME_BANCO, null, VERSAO);
+        super(context, nomeBanco, null, VERSAO);
+
+        // WAL: leitores não bloqueiam o escritor (e vice-versa)
+        setWriteAheadLoggingEnabled(true);
+
+        // Cache encolhe quando o sistema pede memória
+        this.context = context;
+        context.registerComponentCallbacks(cache);
+
+        filaStatus = new FilaStatus(context, this);
+        manutencao = new ManutencaoBanco(context, this);
+    }
+
+    /**
+     * Cache em memória das tarefas deste banco (usado por TarefaDAO)
+     */
+    public CacheTarefas getCache() {
+        return cache;
+    }
+
+    /**
+     * Rastreador de alterações deste banco (usado por TarefaDAO e ConsultaObservada)
+     */
+    public RastreadorAlteracoes getRastreador() {
+        return rastreador;
+    }
+
+    /**
+     * Fila de status (marcar/desmarcar) com gravação adiada deste banco
+     */
+    public FilaStatus getFilaStatus() {
+        return filaStatus;
+    }
+
+    /**
+     * Manutenção em segundo plano deste banco
+     */
+    public ManutencaoBanco getManutencao() {
+        return manutencao;
+    }
+
+    @Override
+    public void close() {
+        // Nada marcado na lista fica sem gravar. Fora do lock: a gravação (na thread
+        // de escrita) usa getWritableDatabase(), que sincroniza neste objeto
+        filaStatus.descarregarEAguardar();
+        synchronized (this) {
+            manutencao.parar();
+            super.close();
+            cache.limpar();
+            context.unregisterComponentCallbacks(cache);
+        }
+    }
+
+    /**
+     * Chamado a cada abertura, antes de onCreate/onUpgrade
+     */
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        aplicarPerfil(db);
+    }
+
+    // ================================
+    // Perfil de configuração do SQLite
+    // ================================
+    // - auto_vacuum INCREMENTAL: só tem efeito em banco vazio (aqui, antes do onCreate);
+    //   bancos antigos são convertidos uma vez pela ManutencaoBanco, em segundo plano.
+    //   Com ele, páginas liberadas por exclusões podem voltar ao sistema aos poucos;
+    // - cache_size: até 8 MB de páginas em memória por conexão (o padrão é ~2 MB);
+    // - mmap_size: leituras direto do arquivo mapeado, sem copiar para o cache de páginas;
+    // - synchronous NORMAL: em WAL, o commit não faz fsync (só o checkpoint). Uma queda
+    //   de energia pode perder os últimos commits, mas nunca corrompe o banco.
+    // PRAGMAs valem só para a conexão em que são executados. As leituras em paralelo do
+    // WAL usam conexões secundárias que o Android abre sozinho; cache_size e mmap_size
+    // chegam a elas por execPerConnectionSQL (Android 11+). Antes disso não há como
+    // configurá-las: os valores ficam só na principal (escritas e leituras em transação).
+    // - cache de statements compilados (por conexão, chave = texto do SQL): o padrão do
+    //   Android guarda 25, menos que as variações de listar/listarResumo/listarPagina
+    //   (ver PlanoConsulta) somadas às demais consultas. Com 100 (o máximo) nenhuma
+    //   delas é expulsa e recompilada; vale para todas as conexões do pool.
+    static final int CACHE_KB = 8 * 1024;
+    static final long MMAP_BYTES = 32L * 1024 * 1024;
+    static final int TAMANHO_CACHE_SQL = SQLiteDatabase.MAX_SQL_CACHE_SIZE;
+
+    static void aplicarPerfil(SQLiteDatabase db) {
+        executarPragma(db, "PRAGMA auto_vacuum = INCREMENTAL"); // do arquivo: basta uma conexão
+        executarPragma(db, "PRAGMA synchronous = NORMAL");      // só a principal escreve
+        executarEmCadaConexao(db, "PRAGMA cache_size = -" + CACHE_KB);
+        executarEmCadaConexao(db, "PRAGMA mmap_size = " + MMAP_BYTES);
+        db.setMaxSqlCacheSize(TAMANHO_CACHE_SQL);
+    }
+
+    // Na principal e nas conexões de leitura (atuais e futuras), quando o Android permite
+    private static void executarEmCadaConexao(SQLiteDatabase db, String pragma) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            db.execPerConnectionSQL(pragma, null);
+        } else {
+            executarPragma(db, pragma);
+        }
+    }
+
+    // Alguns PRAGMAs devolvem uma linha (execSQL recusa) → executa como consulta
+    static void executarPragma(SQLiteDatabase db, String pragma) {
+        try (Cursor c = db.rawQuery(pragma, null)) {
+            c.getCount(); // percorre o resultado (executa o PRAGMA até o fim)
+        }
     }
 
     /**
@@ -48,17 +222,25 @@ public class DBHelper extends SQLiteOpenHelper {
         // data       → texto (dd/MM/yyyy)
         // prioridade → inteiro (1=Baixa, 2=Média, 3=Alta)
         // concluido  → inteiro (0 ou 1, padrão 0)
+        // data_epoch → inteiro (mesma data em dias desde 01/01/1970, usado para ordenar/filtrar)
         String sql = "CREATE TABLE tarefas (" +
                 "id INTEGER PRIMARY KEY AUTOINCREMENT," +
                 "titulo TEXT NOT NULL," +
                 "descricao TEXT," +
                 "data TEXT," +
                 "prioridade INTEGER," +
-                "concluido INTEGER DEFAULT 0" + // corrigido "INTERGE" → "INTEGER"
+                "concluido INTEGER DEFAULT 0," + // corrigido "INTERGE" → "INTEGER"
+                "data_epoch INTEGER NOT NULL DEFAULT " + DataCodec.SEM_DATA +
                 ");";
 
         // Executa o SQL no banco
         db.execSQL(sql);
+
+        criarIndiceData(db);
+        criarIndicesListagem(db);
+        criarBuscaTextual(db);
+        criarContadores(db);
+        criarLixeira(db);
     }
 
     /**
@@ -71,8 +253,182 @@ public class DBHelper extends SQLiteOpenHelper {
      */
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // Descarta a tabela antiga e recria (simples, mas destrutivo)
-        db.execSQL("DROP TABLE IF EXISTS tarefas");
-        onCreate(db);
+        // Cada passo leva o banco uma versão adiante, sem apagar dados
+        // (o Android já executa onUpgrade dentro de uma transação)
+        if (oldVersion < 2) {
+            migrarParaVersao2(db);
+        }
+        if (oldVersion < 3) {
+            criarIndicesListagem(db);
+        }
+        if (oldVersion < 4) {
+            criarBuscaTextual(db);
+        }
+        if (oldVersion < 5) {
+            criarContadores(db);
+        }
+        if (oldVersion < 6) {
+            criarLixeira(db);
+        }
+    }
+
+    // ================================
+    // Versão 2: coluna data_epoch
+    // ================================
+    private void migrarParaVersao2(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE tarefas ADD COLUMN data_epoch INTEGER NOT NULL DEFAULT " + DataCodec.SEM_DATA);
+
+        // Preenche data_epoch a partir do texto dd/MM/yyyy, em blocos de LOTE_MIGRACAO linhas
+        // (percorre por id, então nunca mantém a tabela inteira em memória)
+        try (SQLiteStatement stmt = db.compileStatement("UPDATE tarefas SET data_epoch = ? WHERE id = ?")) {
+            long ultimoId = 0;
+            int lidos;
+            do {
+                lidos = 0;
+                try (Cursor c = db.rawQuery(
+                        "SELECT id, data FROM tarefas WHERE id > ? ORDER BY id LIMIT " + LOTE_MIGRACAO,
+                        new String[]{String.valueOf(ultimoId)})) {
+
+                    while (c.moveToNext()) {
+                        ultimoId = c.getLong(0);
+                        stmt.bindLong(1, DataCodec.paraEpochDay(c.getString(1)));
+                        stmt.bindLong(2, ultimoId);
+                        stmt.executeUpdateDelete();
+                        lidos++;
+                    }
+                }
+            } while (lidos == LOTE_MIGRACAO);
+        }
+
+        // Índice criado depois do preenchimento (mais rápido que mantê-lo durante os UPDATEs)
+        criarIndiceData(db);
+    }
+
+    // Índice usado por "ordenar por data" e por filtros de período
+    private static void criarIndiceData(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_tarefas_data_epoch ON tarefas (data_epoch)");
+    }
+
+    // ================================
+    // Versão 3: índices de listagem
+    // ================================
+    // listar() combina 4 ordenações × (todas | só pendentes) × prioridade mínima (0, 2, 3).
+    // Cada índice abaixo já guarda as linhas na ordem "coluna, id" de uma ordenação,
+    // então o SQLite percorre o índice e não precisa ordenar (sem TEMP B-TREE):
+    //  - ordenação por id com todas as tarefas usa a própria tabela (rowid);
+    //  - índices parciais "WHERE concluido = 0" contêm só as pendentes, servindo
+    //    "ocultar concluídas" sem ler as concluídas;
+    //  - prioridade é DESC no índice para que o desempate por id continue crescente,
+    //    e o filtro "prioridade >= N" vira uma busca por faixa nesse mesmo índice.
+    // Nos demais casos o filtro de prioridade é aplicado durante a leitura em ordem.
+    private static void criarIndicesListagem(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_tarefas_titulo ON tarefas (titulo COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_tarefas_prioridade ON tarefas (prioridade DESC)");
+
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_pendentes_id ON tarefas (id) WHERE concluido = 0");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_pendentes_titulo ON tarefas (titulo COLLATE NOCASE) WHERE concluido = 0");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_pendentes_data_epoch ON tarefas (data_epoch) WHERE concluido = 0");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_pendentes_prioridade ON tarefas (prioridade DESC) WHERE concluido = 0");
+    }
+
+    // ================================
+    // Versão 4: busca textual (FTS4)
+    // ================================
+    // tarefas_fts indexa titulo e descricao sem duplicar o texto ("content=tarefas":
+    // o conteúdo continua só na tabela tarefas; docid = tarefas.id).
+    // Os triggers mantêm o índice em sincronia. Os de UPDATE só disparam quando
+    // titulo/descricao mudam — marcar uma tarefa como concluída não reindexa nada.
+    // unicode61 ignora acentos e maiúsculas ("configuracao" encontra "Configuração").
+    private static void criarBuscaTextual(SQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS tarefas_fts USING fts4(" +
+                "content=\"tarefas\", titulo, descricao, tokenize=unicode61)");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS tarefas_fts_antes_update BEFORE UPDATE OF titulo, descricao ON tarefas " +
+                "BEGIN DELETE FROM tarefas_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS tarefas_fts_antes_delete BEFORE DELETE ON tarefas " +
+                "BEGIN DELETE FROM tarefas_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS tarefas_fts_depois_update AFTER UPDATE OF titulo, descricao ON tarefas " +
+                "BEGIN INSERT INTO tarefas_fts (docid, titulo, descricao) VALUES (new.id, new.titulo, new.descricao); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS tarefas_fts_depois_insert AFTER INSERT ON tarefas " +
+                "BEGIN INSERT INTO tarefas_fts (docid, titulo, descricao) VALUES (new.id, new.titulo, new.descricao); END");
+
+        // Indexa as tarefas que já existiam (no upgrade)
+        db.execSQL("INSERT INTO tarefas_fts (tarefas_fts) VALUES ('rebuild')");
+    }
+
+    // ================================
+    // Versão 5: contadores mantidos por triggers
+    // ================================
+    // Uma linha por prioridade (0 = sem prioridade), com total e concluídas.
+    // Assim os contadores da tela (total/concluídas/pendentes) e a contagem de qualquer
+    // filtro de listar() são somas de no máximo 4 linhas, sem percorrer "tarefas".
+    // "x IS 1" vale 0 ou 1 (nunca NULL), então concluido NULL conta como pendente.
+    private static void criarContadores(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS tarefas_contadores (" +
+                "prioridade INTEGER PRIMARY KEY," +
+                "total INTEGER NOT NULL DEFAULT 0," +
+                "concluidas INTEGER NOT NULL DEFAULT 0" +
+                ")");
+
+        String somar = "INSERT OR IGNORE INTO tarefas_contadores (prioridade) VALUES (IFNULL(new.prioridade, 0)); " +
+                "UPDATE tarefas_contadores SET total = total + 1, concluidas = concluidas + (new.concluido IS 1) " +
+                "WHERE prioridade = IFNULL(new.prioridade, 0); ";
+        String subtrair = "UPDATE tarefas_contadores SET total = total - 1, concluidas = concluidas - (old.concluido IS 1) " +
+                "WHERE prioridade = IFNULL(old.prioridade, 0); ";
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS tarefas_contadores_insert AFTER INSERT ON tarefas " +
+                "BEGIN " + somar + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS tarefas_contadores_delete AFTER DELETE ON tarefas " +
+                "BEGIN " + subtrair + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS tarefas_contadores_update AFTER UPDATE OF concluido, prioridade ON tarefas " +
+                "BEGIN " + subtrair + somar + "END");
+
+        // Carga inicial a partir das tarefas existentes (no upgrade)
+        db.execSQL("DELETE FROM tarefas_contadores");
+        db.execSQL("INSERT INTO tarefas_contadores (prioridade, total, concluidas) " +
+                "SELECT IFNULL(prioridade, 0), COUNT(*), SUM(concluido IS 1) FROM tarefas GROUP BY IFNULL(prioridade, 0)");
+    }
+
+    // ================================
+    // Versão 6: lixeira
+    // ================================
+    // "Excluir concluídas" move as linhas para cá (em blocos) em vez de apagá-las:
+    // assim o DELETE em "tarefas" continua disparando os triggers de contadores e do
+    // FTS, e nenhuma consulta da lista precisa filtrar linhas excluídas.
+    // excluida_em (ms) identifica a exclusão: desfazer devolve as linhas dela para
+    // "tarefas" com o mesmo id; depois do prazo de desfazer elas são apagadas de vez.
+    private static void criarLixeira(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS tarefas_lixeira (" +
+                "id INTEGER PRIMARY KEY," +
+                "titulo TEXT NOT NULL," +
+                "descricao TEXT," +
+                "data TEXT," +
+                "prioridade INTEGER," +
+                "concluido INTEGER DEFAULT 0," +
+                "data_epoch INTEGER NOT NULL DEFAULT " + DataCodec.SEM_DATA + "," +
+                "excluida_em INTEGER NOT NULL" +
+                ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_lixeira_excluida_em ON tarefas_lixeira (excluida_em, id)");
+    }
+
+    // ================================
+    // Carga em massa (restauração de snapshot)
+    // ================================
+    // Sem os triggers, cada linha inserida não reindexa o FTS nem atualiza contadores;
+    // no fim, criarBuscaTextual/criarContadores recriam os triggers, reconstroem o
+    // índice FTS e recontam tudo de uma vez. Chamar as duas dentro da MESMA transação
+    // (DDL no SQLite é transacional: um rollback devolve os triggers).
+    static void suspenderTriggers(SQLiteDatabase db) {
+        for (String trigger : new String[]{
+                "tarefas_fts_antes_update", "tarefas_fts_antes_delete",
+                "tarefas_fts_depois_update", "tarefas_fts_depois_insert",
+                "tarefas_contadores_insert", "tarefas_contadores_delete", "tarefas_contadores_update"}) {
+            db.execSQL("DROP TRIGGER IF EXISTS " + trigger);
+        }
+    }
+
+    static void retomarTriggers(SQLiteDatabase db) {
+        criarBuscaTextual(db);
+        criarContadores(db);
     }
 }
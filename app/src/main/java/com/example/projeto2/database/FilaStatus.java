@@ -0,0 +1,205 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.projeto2.model.Tarefa;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ================================
+ * FilaStatus
+ * ================================
+ *
+ * Fila de gravação adiada (write-behind) para marcar/desmarcar tarefas.
+ *
+ * Marcar várias tarefas seguidas não gera um UPDATE + commit por toque:
+ *  - enfileirar() só guarda (id → concluída) em memória e volta na hora;
+ *    tocar de novo na mesma tarefa substitui o valor anterior (um UPDATE por id);
+ *  - a fila é gravada numa única transação depois de ESPERA_MS sem novos toques
+ *    (ou no máximo MAX_ESPERA_MS após o primeiro), em onPause (TarefaDAOAsync.descarregarStatus,
+ *    que espera a gravação), ao fechar o banco e antes de QUALQUER outra escrita do
+ *    TarefaDAO (assim a ordem das operações do usuário é mantida);
+ *  - a gravação sempre roda na thread de escrita do TarefaDAOAsync (descarregarNaEscrita),
+ *    como as demais escritas: o agendador só marca a hora;
+ *  - enquanto não grava, as leituras do TarefaDAO já devolvem o valor da fila (aplicar).
+ *
+ * Se a gravação falhar, os valores voltam para a fila (um toque aceito nunca é perdido;
+ * um toque mais novo do mesmo id prevalece) e uma nova tentativa é agendada. A exceção
+ * sobe para quem pediu a gravação: a escrita do TarefaDAO que descarrega a fila antes
+ * de rodar também falha, então nenhuma escrita posterior passa à frente dos toques.
+ * Cada DBHelper tem a sua fila.
+ */
+public class FilaStatus {
+
+    private static final String TAG = "FilaStatus";
+
+    static final long ESPERA_MS = 800;      // pausa nos toques antes de gravar
+    static final long MAX_ESPERA_MS = 3000; // toques contínuos: grava pelo menos a cada 3 s
+
+    // Thread que espera a pausa e manda gravar (uma para o processo)
+    private static final ScheduledExecutorService AGENDADOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "tarefas-fila-status");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Context context;
+    private final DBHelper dbHelper;
+    private TarefaDAO dao; // criado no primeiro uso (o DBHelper ainda está sendo construído)
+
+    // Guardados por "this" (operações curtas, chamadas da thread principal)
+    private LinkedHashMap<Integer, Boolean> pendentes = new LinkedHashMap<>();
+    private Map<Integer, Boolean> emGravacao = new LinkedHashMap<>();
+    private ScheduledFuture<?> agendada;
+    private long primeiroPendente; // uptime do 1º toque ainda não gravado
+
+    // Ordena gravações da fila com as demais escritas (pode ser mantido durante I/O)
+    private final Object lockEscrita = new Object();
+
+    FilaStatus(Context context, DBHelper dbHelper) {
+        this.context = context;
+        this.dbHelper = dbHelper;
+    }
+
+    // ================================
+    // Enfileirar (thread principal)
+    // ================================
+
+    /**
+     * Registra o novo status da tarefa; retorna sem tocar no banco
+     */
+    public void enfileirar(int id, boolean concluido) {
+        synchronized (this) {
+            long agora = System.nanoTime();
+            if (pendentes.isEmpty()) primeiroPendente = agora;
+            pendentes.remove(id);      // reinsere no fim (ordem do último toque)
+            pendentes.put(id, concluido);
+
+            // Debounce com teto: reagenda a cada toque, sem passar de MAX_ESPERA_MS
+            long decorrido = TimeUnit.NANOSECONDS.toMillis(agora - primeiroPendente);
+            long espera = Math.max(0, Math.min(ESPERA_MS, MAX_ESPERA_MS - decorrido));
+            if (agendada != null) agendada.cancel(false);
+            agendada = AGENDADOR.schedule(this::enviarParaEscrita, espera, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Quantidade de tarefas com status ainda não gravado
+     */
+    public synchronized int getPendentes() {
+        return pendentes.size() + emGravacao.size();
+    }
+
+    // ================================
+    // Leituras: sobrepõe o que ainda não foi gravado
+    // ================================
+    void aplicar(List<Tarefa> tarefas) {
+        synchronized (this) {
+            if (pendentes.isEmpty() && emGravacao.isEmpty()) return;
+            for (Tarefa t : tarefas) aplicar(t);
+        }
+    }
+
+    synchronized void aplicar(Tarefa t) {
+        if (t == null) return;
+        Boolean valor = pendentes.get(t.getId());
+        if (valor == null) valor = emGravacao.get(t.getId());
+        if (valor != null) t.setConcluido(valor);
+    }
+
+    // ================================
+    // Gravação
+    // ================================
+
+    /**
+     * Grava a fila agora, na thread de escrita (depois das escritas já enviadas)
+     *
+     * @return fim da gravação, para quem precisa esperar (ex.: onPause)
+     */
+    public Future<?> descarregarNaEscrita() {
+        synchronized (this) {
+            if (agendada != null) agendada.cancel(false);
+            agendada = null;
+        }
+        return TarefaDAOAsync.ESCRITA.submit(this::descarregar);
+    }
+
+    /**
+     * Grava a fila na thread de escrita e espera terminar (ex.: ao fechar o banco).
+     * Não chamar na própria thread de escrita nem segurando o lock do DBHelper.
+     */
+    void descarregarEAguardar() {
+        try {
+            descarregarNaEscrita().get();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Falha ao gravar status", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Hora de gravar (thread do agendador): a gravação em si vai para a thread de escrita
+    private void enviarParaEscrita() {
+        TarefaDAOAsync.ESCRITA.execute(() -> {
+            try {
+                descarregar();
+            } catch (RuntimeException e) {
+                // já devolvido à fila e reagendado; não derruba a thread de escrita
+            }
+        });
+    }
+
+    /**
+     * Grava a fila na thread atual, numa única transação. No app roda só na thread de
+     * escrita (descarregarNaEscrita, ou dentro das escritas do TarefaDAO); testes chamam direto.
+     *
+     * @throws RuntimeException a gravação falhou (os valores voltaram para a fila)
+     */
+    void descarregar() {
+        synchronized (lockEscrita) {
+            Map<Integer, Boolean> lote;
+            synchronized (this) {
+                if (pendentes.isEmpty()) return;
+                lote = pendentes;
+                emGravacao = lote;            // leituras continuam vendo estes valores
+                pendentes = new LinkedHashMap<>();
+                agendada = null;
+            }
+
+            try {
+                getDao().gravarStatus(lote);
+            } catch (RuntimeException e) {
+                // Devolve à fila (sem sobrescrever toques mais novos) e tenta de novo depois
+                synchronized (this) {
+                    LinkedHashMap<Integer, Boolean> juntos = new LinkedHashMap<>(lote);
+                    juntos.putAll(pendentes);
+                    pendentes = juntos;
+                    primeiroPendente = System.nanoTime();
+                    if (agendada != null) agendada.cancel(false); // um só timer de nova tentativa
+                    agendada = AGENDADOR.schedule(this::enviarParaEscrita, MAX_ESPERA_MS, TimeUnit.MILLISECONDS);
+                }
+                Log.e(TAG, "Falha ao gravar status; mantidos na fila", e);
+                throw e;
+            } finally {
+                synchronized (this) {
+                    emGravacao = new LinkedHashMap<>();
+                }
+            }
+        }
+    }
+
+    private synchronized TarefaDAO getDao() {
+        if (dao == null) dao = new TarefaDAO(context, dbHelper);
+        return dao;
+    }
+}
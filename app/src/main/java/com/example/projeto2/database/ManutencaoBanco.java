@@ -0,0 +1,205 @@
+package com.example.projeto2.database;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.res.Configuration;
+import android.database.DatabaseUtils;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ================================
+ * ManutencaoBanco
+ * ================================
+ *
+ * Manutenção do banco feita só quando ninguém está esperando por ele:
+ *  - app ocioso: OCIOSO_MS sem nenhuma escrita nas tarefas;
+ *  - app em segundo plano: onTrimMemory(TRIM_MEMORY_UI_HIDDEN).
+ *
+ * Cada passada:
+ *  - estatísticas do planejador: ANALYZE (limitado por analysis_limit) se nunca foi
+ *    feito ou a cada INTERVALO_ANALISE_MS; nas demais, "PRAGMA optimize" (barato);
+ *  - páginas livres (deixadas por exclusões): "PRAGMA incremental_vacuum" em passos de
+ *    PAGINAS_POR_PASSO, cada passo uma transação curta — nunca um VACUUM completo.
+ *    Bancos criados antes do auto_vacuum incremental (ver DBHelper.aplicarPerfil) são
+ *    convertidos UMA vez, com o app em segundo plano (exige um VACUUM).
+ *
+ * Roda numa thread própria; só o banco do app (DBHelper.getInstance) chama iniciar().
+ */
+public class ManutencaoBanco implements ComponentCallbacks2 {
+
+    private static final String TAG = "ManutencaoBanco";
+
+    static final long OCIOSO_MS = 30_000;                       // pausa nas escritas antes da manutenção
+    static final long INTERVALO_ANALISE_MS = TimeUnit.DAYS.toMillis(1);
+    static final int PAGINAS_POR_PASSO = 128;                   // páginas liberadas por transação
+    static final int MIN_PAGINAS_LIVRES = 64;                   // abaixo disso não vale a pena
+    private static final int LIMITE_ANALISE = 1000;             // linhas amostradas por índice
+
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private static final String PREFS = "manutencao_banco";
+    private static final String CHAVE_ULTIMA_ANALISE = "ultima_analise";
+
+    // Thread da manutenção (uma para o processo)
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "tarefas-manutencao");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private final Context context;
+    private final DBHelper dbHelper;
+
+    // Guardados por "this" (nunca mantido durante I/O: close() do DBHelper chama parar())
+    private RastreadorAlteracoes.Inscricao inscricao;
+    private ScheduledFuture<?> agendada;
+
+    // Uma passada por vez (ocioso e segundo plano podem coincidir)
+    private final Object lockPassada = new Object();
+
+    ManutencaoBanco(Context context, DBHelper dbHelper) {
+        this.context = context;
+        this.dbHelper = dbHelper;
+    }
+
+    // ================================
+    // Agendamento
+    // ================================
+
+    /**
+     * Passa a rodar quando o app ficar ocioso ou for para segundo plano
+     */
+    synchronized void iniciar() {
+        if (inscricao != null) return;
+        inscricao = dbHelper.getRastreador().inscrever(this::reagendar, RastreadorAlteracoes.TABELA_TAREFAS);
+        context.registerComponentCallbacks(this);
+        reagendar();
+    }
+
+    synchronized void parar() {
+        if (inscricao == null) return;
+        inscricao.cancelar();
+        inscricao = null;
+        context.unregisterComponentCallbacks(this);
+        if (agendada != null) agendada.cancel(false);
+        agendada = null;
+    }
+
+    // Cada escrita adia a manutenção: ela só roda depois de OCIOSO_MS sem escritas
+    private synchronized void reagendar() {
+        if (inscricao == null) return;
+        if (agendada != null) agendada.cancel(false);
+        agendada = EXECUTOR.schedule(() -> executar(false), OCIOSO_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level == TRIM_MEMORY_UI_HIDDEN) {
+            EXECUTOR.execute(() -> executar(true));
+        }
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        // nada a fazer
+    }
+
+    // Obsoleto: só onTrimMemory é usado (a interface ainda exige o método)
+    @Override
+    public void onLowMemory() {
+        // nada a fazer
+    }
+
+    // ================================
+    // Passada de manutenção
+    // ================================
+
+    /**
+     * Executa uma passada na thread atual (ver cabeçalho).
+     *
+     * @param segundoPlano app não está visível: permite a conversão única para auto_vacuum incremental
+     * @return páginas devolvidas ao sistema de arquivos
+     */
+    long executar(boolean segundoPlano) {
+        synchronized (lockPassada) {
+            return passada(segundoPlano);
+        }
+    }
+
+    private long passada(boolean segundoPlano) {
+        long inicio = SystemClock.elapsedRealtime();
+        try {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+            if (segundoPlano && pragmaLong(db, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+                converterParaIncremental(db);
+            }
+            atualizarEstatisticas(db);
+            long liberadas = liberarPaginas(db);
+
+            Log.d(TAG, "manutenção em " + (SystemClock.elapsedRealtime() - inicio)
+                    + " ms, páginas liberadas: " + liberadas);
+            return liberadas;
+        } catch (SQLException | IllegalStateException e) {
+            // banco ocupado ou fechado: tenta de novo na próxima oportunidade
+            Log.w(TAG, "Manutenção adiada", e);
+            return 0;
+        }
+    }
+
+    // Estatísticas para o planejador de consultas (escolha de índices)
+    private void atualizarEstatisticas(SQLiteDatabase db) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        long agora = System.currentTimeMillis();
+        boolean semEstatisticas = DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM sqlite_master WHERE name = 'sqlite_stat1'", null) == 0;
+
+        if (semEstatisticas || agora - prefs.getLong(CHAVE_ULTIMA_ANALISE, 0) > INTERVALO_ANALISE_MS) {
+            DBHelper.executarPragma(db, "PRAGMA analysis_limit = " + LIMITE_ANALISE); // ignorado em SQLite antigo
+            db.execSQL("ANALYZE");
+            prefs.edit().putLong(CHAVE_ULTIMA_ANALISE, agora).apply();
+        } else {
+            DBHelper.executarPragma(db, "PRAGMA optimize"); // só reanalisa o que mudou bastante
+        }
+    }
+
+    // incremental_vacuum em passos curtos: o lock de escrita é liberado entre eles
+    private long liberarPaginas(SQLiteDatabase db) {
+        if (pragmaLong(db, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) return 0;
+
+        long inicial = pragmaLong(db, "PRAGMA freelist_count");
+        if (inicial < MIN_PAGINAS_LIVRES) return 0;
+
+        long livres = inicial;
+        while (livres > 0) {
+            DBHelper.executarPragma(db, "PRAGMA incremental_vacuum(" + PAGINAS_POR_PASSO + ")");
+            long restantes = pragmaLong(db, "PRAGMA freelist_count");
+            if (restantes >= livres) break; // nada mudou (não insiste)
+            livres = restantes;
+        }
+        return inicial - livres;
+    }
+
+    // Única vez em que a tabela inteira é reescrita (só em segundo plano)
+    private void converterParaIncremental(SQLiteDatabase db) {
+        Log.i(TAG, "Convertendo banco para auto_vacuum incremental");
+        DBHelper.executarPragma(db, "PRAGMA auto_vacuum = INCREMENTAL");
+        db.execSQL("VACUUM");
+    }
+
+    private static long pragmaLong(SQLiteDatabase db, String pragma) {
+        return DatabaseUtils.longForQuery(db, pragma, null);
+    }
+}
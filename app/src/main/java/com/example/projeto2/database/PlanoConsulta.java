@@ -0,0 +1,166 @@
+package com.example.projeto2.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ================================
+ * PlanoConsulta
+ * ================================
+ *
+ * SELECT de listar()/listarResumo()/listarPagina() para uma ConsultaTarefas,
+ * montado uma única vez por combinação (projeção + filtros + ordenação + paginação)
+ * e guardado para sempre: as combinações são finitas (algumas dezenas).
+ *
+ * Os valores dos filtros NÃO entram no texto: viram parâmetros "?" (getArgumentos).
+ * Assim o texto de cada combinação é sempre o mesmo e o SQLite reaproveita o
+ * statement já compilado no cache de cada conexão (ver DBHelper.TAMANHO_CACHE_SQL),
+ * em vez de compilar o SELECT de novo a cada chamada.
+ *
+ * Exceção: "concluido = 0" continua literal, pois precisa ser igual à cláusula
+ * WHERE dos índices parciais (com "?" o SQLite não sabe que pode usá-los).
+ *
+ * Filtro novo em ConsultaTarefas: acrescentar em anexarFiltros() a condição com
+ * "?" e o valor em argumentos (ou literal, se um índice parcial depender dele).
+ */
+final class PlanoConsulta {
+
+    // Paginação do plano
+    static final int SEM_LIMITE = 0;      // listar(), listarResumo()
+    static final int PRIMEIRA_PAGINA = 1; // LIMIT ?
+    static final int PROXIMA_PAGINA = 2;  // condição "depois da chave" + LIMIT ?
+
+    private static final ConcurrentHashMap<List<Object>, PlanoConsulta> PLANOS = new ConcurrentHashMap<>();
+
+    private final String sql;
+    private final String[] argumentos; // valores dos "?" dos filtros, na ordem do texto
+
+    private PlanoConsulta(String sql, List<String> argumentos) {
+        this.sql = sql;
+        this.argumentos = argumentos.toArray(new String[0]);
+    }
+
+    /**
+     * Plano da consulta na projeção "colunas".
+     *
+     * @param pagina SEM_LIMITE, PRIMEIRA_PAGINA ou PROXIMA_PAGINA (os valores da
+     *               chave e do limite são passados em getArgumentos(extras))
+     */
+    static PlanoConsulta de(String colunas, ConsultaTarefas consulta, int pagina) {
+        List<Object> chave = CacheTarefas.chave(colunas, consulta, pagina);
+        PlanoConsulta plano = PLANOS.get(chave);
+        if (plano == null) {
+            plano = montar(colunas, consulta, pagina);
+            PlanoConsulta existente = PLANOS.putIfAbsent(chave, plano);
+            if (existente != null) plano = existente;
+        }
+        return plano;
+    }
+
+    // Quantas combinações já foram montadas (testes)
+    static int contarPlanos() {
+        return PLANOS.size();
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * Valores para os "?" do plano: os dos filtros seguidos de "extras"
+     * (chave da paginação e limite). null se não houver nenhum.
+     */
+    String[] getArgumentos(String... extras) {
+        if (extras.length == 0) return argumentos.length == 0 ? null : argumentos.clone();
+
+        String[] todos = new String[argumentos.length + extras.length];
+        System.arraycopy(argumentos, 0, todos, 0, argumentos.length);
+        System.arraycopy(extras, 0, todos, argumentos.length, extras.length);
+        return todos;
+    }
+
+    // ================================
+    // Montagem do SELECT (uma vez por combinação)
+    // ================================
+    /**
+     * Cada uma das combinações possíveis tem um índice em DBHelper que entrega as
+     * linhas já na ordem pedida (sem "USE TEMP B-TREE"). Por isso:
+     *  - o filtro de concluídas é escrito literalmente "concluido = 0", igual à
+     *    cláusula WHERE dos índices parciais;
+     *  - toda ordenação termina em "id ASC", que é a ordem do rowid dentro de cada índice
+     *    (e deixa a ordem determinística quando há empate).
+     */
+    private static PlanoConsulta montar(String colunas, ConsultaTarefas consulta, int pagina) {
+        StringBuilder sql = new StringBuilder();
+        List<String> argumentos = new ArrayList<>();
+        sql.append("SELECT ").append(colunas).append(" FROM tarefas ");
+
+        anexarFiltros(sql, argumentos, consulta, pagina == PROXIMA_PAGINA);
+
+        // Ordenação
+        switch (consulta.getOrdenacao()) {
+            case ConsultaTarefas.ORDEM_TITULO:
+                sql.append("ORDER BY titulo COLLATE NOCASE ASC, id ASC"); // ordem alfabética
+                break;
+            case ConsultaTarefas.ORDEM_DATA:
+                // data_epoch é inteiro e indexado → ordem vem direto do índice
+                sql.append("ORDER BY data_epoch ASC, id ASC");
+                break;
+            case ConsultaTarefas.ORDEM_PRIORIDADE:
+                sql.append("ORDER BY prioridade DESC, id ASC"); // prioridade alta primeiro
+                break;
+            case ConsultaTarefas.ORDEM_ID:
+            default:
+                sql.append("ORDER BY id ASC"); // ordem de inserção
+                break;
+        }
+
+        // Tamanho da página também é parâmetro (um texto só para qualquer limite)
+        if (pagina != SEM_LIMITE) sql.append(" LIMIT ?");
+        return new PlanoConsulta(sql.toString(), argumentos);
+    }
+
+    // Cláusula WHERE: filtros da consulta e, opcionalmente, a condição de paginação
+    private static void anexarFiltros(StringBuilder sql, List<String> argumentos,
+                                      ConsultaTarefas consulta, boolean comChave) {
+        boolean whereAdicionado = false; // flag para controlar cláusula WHERE
+
+        // Filtro: ocultar concluídas (literal, ver montar())
+        if (consulta.isOcultarConcluidas()) {
+            sql.append("WHERE concluido = 0 ");
+            whereAdicionado = true;
+        }
+
+        // Filtro: prioridade mínima
+        if (consulta.getPrioridadeMinima() > 0) {
+            sql.append(whereAdicionado ? "AND " : "WHERE ");
+            sql.append("prioridade >= ? ");
+            argumentos.add(String.valueOf(consulta.getPrioridadeMinima()));
+            whereAdicionado = true;
+        }
+
+        if (!comChave) return;
+
+        // Paginação: linhas depois da chave (coluna da ordenação, id).
+        // Escrito como "col >= ? AND (col > ? OR id > ?)" para que o ">=" vire
+        // uma busca por faixa no índice da ordenação (o OR só filtra o empate).
+        sql.append(whereAdicionado ? "AND " : "WHERE ");
+        switch (consulta.getOrdenacao()) {
+            case ConsultaTarefas.ORDEM_TITULO:
+                sql.append("titulo COLLATE NOCASE >= ? AND (titulo COLLATE NOCASE > ? OR id > ?) ");
+                break;
+            case ConsultaTarefas.ORDEM_DATA:
+                sql.append("data_epoch >= ? AND (data_epoch > ? OR id > ?) ");
+                break;
+            case ConsultaTarefas.ORDEM_PRIORIDADE:
+                // ordem decrescente → "depois" significa prioridade menor
+                sql.append("prioridade <= ? AND (prioridade < ? OR id > ?) ");
+                break;
+            case ConsultaTarefas.ORDEM_ID:
+            default:
+                sql.append("id > ? ");
+                break;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.projeto2.database;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ================================
+ * RastreadorAlteracoes
+ * ================================
+ *
+ * Registro de invalidação por tabela: quem grava avisa qual tabela mudou
+ * (notificar), e quem depende dela é chamado (inscrever).
+ *
+ * Os avisos são chamados na thread de quem gravou, logo após o commit, e devem
+ * ser rápidos (só agendar trabalho — ver ConsultaObservada). Cada DBHelper tem
+ * o seu rastreador, compartilhado por todos os DAOs daquele banco.
+ *
+ * Além da versão, cada tabela guarda um diário curto dos ids alterados
+ * (notificar com ids, alteradosDesde): quem já tem os dados de uma versão
+ * pode reler só as linhas que mudaram desde então, em vez da tabela inteira.
+ */
+public class RastreadorAlteracoes {
+
+    /** Tabela principal (as tabelas FTS e de contadores mudam junto, por triggers) */
+    public static final String TABELA_TAREFAS = "tarefas";
+
+    // ================================
+    // Inscrição (cancelável)
+    // ================================
+    public interface Inscricao {
+        void cancelar();
+    }
+
+    private final Map<String, Set<Runnable>> porTabela = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> versoes = new ConcurrentHashMap<>();
+    private final Map<String, Diario> diarios = new ConcurrentHashMap<>();
+
+    // Ids guardados por tabela: acima disso, reler a tabela inteira sai mais barato
+    static final int MAX_IDS_DIARIO = 2000;
+
+    /**
+     * Chama "aoAlterar" sempre que qualquer uma das tabelas for alterada
+     */
+    public Inscricao inscrever(Runnable aoAlterar, String... tabelas) {
+        for (String tabela : tabelas) {
+            porTabela.computeIfAbsent(tabela, t -> new CopyOnWriteArraySet<>()).add(aoAlterar);
+        }
+        return () -> {
+            for (String tabela : tabelas) {
+                Set<Runnable> inscritos = porTabela.get(tabela);
+                if (inscritos != null) inscritos.remove(aoAlterar);
+            }
+        };
+    }
+
+    /**
+     * Avisa que a tabela foi alterada (chamar depois do commit), sem dizer quais linhas
+     */
+    public void notificar(String tabela) {
+        notificar(tabela, null);
+    }
+
+    /**
+     * Avisa que as linhas "ids" da tabela foram alteradas, inseridas ou removidas
+     * (chamar depois do commit). ids null = alteração sem ids conhecidos.
+     */
+    public void notificar(String tabela, int[] ids) {
+        AtomicLong versao = versoes.computeIfAbsent(tabela, t -> new AtomicLong());
+        Diario diario = diarios.computeIfAbsent(tabela, t -> new Diario());
+        synchronized (diario) { // versão e diário mudam juntos (ver alteradosDesde)
+            diario.registrar(versao.incrementAndGet(), ids);
+        }
+
+        Set<Runnable> inscritos = porTabela.get(tabela);
+        if (inscritos == null) return;
+        for (Runnable aoAlterar : inscritos) aoAlterar.run();
+    }
+
+    /**
+     * Ids alterados na tabela depois da versão informada (ordenados, sem repetição).
+     *
+     * @return null se não der para saber (alteração sem ids, ou o diário já
+     *         descartou o período): quem chamou deve reler a tabela inteira
+     */
+    public int[] alteradosDesde(String tabela, long versao) {
+        Diario diario = diarios.get(tabela);
+        if (diario == null) return versao == getVersao(tabela) ? new int[0] : null;
+        synchronized (diario) {
+            return diario.desde(versao);
+        }
+    }
+
+    /**
+     * Quantas vezes a tabela foi alterada desde a abertura do banco
+     */
+    public long getVersao(String tabela) {
+        AtomicLong versao = versoes.get(tabela);
+        return versao == null ? 0 : versao.get();
+    }
+
+    // ================================
+    // Diário de ids (guardado pelo próprio objeto)
+    // ================================
+    private static final class Entrada {
+        final long versao;
+        final int[] ids;
+
+        Entrada(long versao, int[] ids) {
+            this.versao = versao;
+            this.ids = ids;
+        }
+    }
+
+    private static final class Diario {
+        private final ArrayDeque<Entrada> entradas = new ArrayDeque<>();
+        private long piso;  // versões anteriores a esta não podem ser respondidas
+        private int total;  // ids guardados
+
+        void registrar(long versao, int[] ids) {
+            if (ids == null || ids.length > MAX_IDS_DIARIO) {
+                entradas.clear();
+                total = 0;
+                piso = versao;
+                return;
+            }
+            entradas.addLast(new Entrada(versao, ids));
+            total += ids.length;
+            while (total > MAX_IDS_DIARIO) {
+                Entrada descartada = entradas.removeFirst();
+                total -= descartada.ids.length;
+                piso = descartada.versao;
+            }
+        }
+
+        int[] desde(long versao) {
+            if (versao < piso) return null;
+            int[] todos = new int[total];
+            int n = 0;
+            for (Entrada e : entradas) {
+                if (e.versao <= versao) continue;
+                System.arraycopy(e.ids, 0, todos, n, e.ids.length);
+                n += e.ids.length;
+            }
+            Arrays.sort(todos, 0, n);
+            int unicos = 0;
+            for (int i = 0; i < n; i++) {
+                if (unicos == 0 || todos[i] != todos[unicos - 1]) todos[unicos++] = todos[i];
+            }
+            return Arrays.copyOf(todos, unicos);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.projeto2.database;
+
+import com.example.projeto2.model.Tarefa;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * ================================
+ * SnapshotTarefas
+ * ================================
+ *
+ * Backup completo da tabela tarefas num arquivo binário compacto, para restaurar
+ * muito mais rápido que inserir tarefa por tarefa.
+ *
+ * Formato (versão 1, big-endian):
+ *   cabeçalho: "TRFS" (4 bytes), versão (int)
+ *   registros: id (int), titulo (texto), descricao (texto), data (texto),
+ *              prioridade (int), concluido (byte)
+ *   rodapé:    marcador FIM (int), quantidade de registros (int),
+ *              entradas da tabela de textos (int), CRC32 de tudo o que vem antes (long)
+ *
+ * Texto = int de controle, seguido dos bytes quando o texto é novo:
+ *   -1 = null;  -2 = texto novo (int tamanho + UTF-8), entra na tabela de textos;
+ *   -3 = texto avulso (int tamanho + UTF-8), não entra na tabela;  k >= 0 = entrada k da tabela.
+ * A tabela é montada na própria leitura (primeira ocorrência define a entrada), então
+ * gravar e ler são sequenciais. Títulos e datas repetidos viram um int; descrições são
+ * sempre avulsas. A tabela tem no máximo MAX_TABELA entradas.
+ *
+ * gravar: escrita sequencial bufferizada (CRC calculado durante a escrita).
+ * restaurar: o arquivo é mapeado em memória (mmap); o CRC é conferido ANTES de tocar no
+ * banco e os registros vão do buffer mapeado direto para TarefaDAO.substituirTodas.
+ * Arquivo corrompido/truncado → SnapshotInvalidoException, banco intacto.
+ */
+public class SnapshotTarefas {
+
+    private static final int MAGICO = 0x54524653; // "TRFS"
+    private static final int VERSAO = 1;
+    private static final int FIM = 0x46494D21;    // "FIM!"
+
+    private static final int TEXTO_NULO = -1;
+    private static final int TEXTO_NOVO = -2;
+    private static final int TEXTO_AVULSO = -3;
+
+    static final int MAX_TABELA = 1 << 16;
+    private static final int TAMANHO_CABECALHO = 8;
+    private static final int TAMANHO_RODAPE = 20;
+
+    /**
+     * Arquivo que não é um snapshot válido (checksum, versão ou estrutura)
+     */
+    public static class SnapshotInvalidoException extends IOException {
+        public SnapshotInvalidoException(String mensagem) {
+            super(mensagem);
+        }
+    }
+
+    private final TarefaDAO dao;
+
+    public SnapshotTarefas(TarefaDAO dao) {
+        this.dao = dao;
+    }
+
+    // ================================
+    // GRAVAR
+    // ================================
+
+    /**
+     * Grava todas as tarefas em "arquivo" (sobrescreve). Grava num temporário e
+     * renomeia no fim: um backup anterior nunca fica pela metade.
+     *
+     * @return quantidade de tarefas gravadas
+     */
+    public int gravar(File arquivo) throws IOException {
+        File temporario = new File(arquivo.getPath() + ".tmp");
+        CRC32 crc = new CRC32();
+        Map<String, Integer> tabela = new HashMap<>();
+        int quantidade;
+
+        try (FileOutputStream arquivoSaida = new FileOutputStream(temporario)) {
+            DataOutputStream saida = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(arquivoSaida, 64 * 1024), crc));
+            saida.writeInt(MAGICO);
+            saida.writeInt(VERSAO);
+
+            // Um retrato só do banco (ver lerEmTransacao), sem travar as escritas
+            quantidade = dao.lerEmTransacao(() -> dao.percorrer(t -> {
+                saida.writeInt(t.getId());
+                escreverTexto(saida, t.getTitulo(), tabela);
+                escreverTexto(saida, t.getDescricao(), null);
+                escreverTexto(saida, t.getData(), tabela);
+                saida.writeInt(t.getPrioridade());
+                saida.writeByte(t.isConcluido() ? 1 : 0);
+            }));
+
+            saida.writeInt(FIM);
+            saida.writeInt(quantidade);
+            saida.writeInt(tabela.size());
+            saida.flush();
+            // o CRC cobre tudo até aqui; ele mesmo fica fora da conta
+            new DataOutputStream(arquivoSaida).writeLong(crc.getValue());
+            arquivoSaida.getFD().sync();
+        }
+
+        if (!temporario.renameTo(arquivo)) {
+            temporario.delete();
+            throw new IOException("não foi possível gravar " + arquivo);
+        }
+        return quantidade;
+    }
+
+    private static void escreverTexto(DataOutputStream saida, String texto,
+                                      Map<String, Integer> tabela) throws IOException {
+        if (texto == null) {
+            saida.writeInt(TEXTO_NULO);
+            return;
+        }
+        if (tabela != null) {
+            Integer indice = tabela.get(texto);
+            if (indice != null) {
+                saida.writeInt(indice);
+                return;
+            }
+        }
+        boolean novo = tabela != null && tabela.size() < MAX_TABELA;
+        if (novo) tabela.put(texto, tabela.size());
+
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        saida.writeInt(novo ? TEXTO_NOVO : TEXTO_AVULSO);
+        saida.writeInt(bytes.length);
+        saida.write(bytes);
+    }
+
+    // ================================
+    // RESTAURAR
+    // ================================
+
+    /**
+     * Substitui todas as tarefas pelas do snapshot (uma transação: tudo ou nada).
+     *
+     * @return quantidade de tarefas restauradas
+     * @throws SnapshotInvalidoException arquivo corrompido (o banco não é alterado)
+     */
+    public int restaurar(File arquivo) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo, "r");
+             FileChannel canal = raf.getChannel()) {
+
+            long tamanho = canal.size();
+            if (tamanho < TAMANHO_CABECALHO + TAMANHO_RODAPE || tamanho > Integer.MAX_VALUE) {
+                throw new SnapshotInvalidoException("tamanho inválido: " + tamanho);
+            }
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+
+            int fimDados = (int) tamanho - 8;
+            if (crc(buffer, fimDados) != buffer.getLong(fimDados)) {
+                throw new SnapshotInvalidoException("checksum não confere");
+            }
+            if (buffer.getInt(0) != MAGICO) throw new SnapshotInvalidoException("não é um snapshot");
+            if (buffer.getInt(4) != VERSAO) {
+                throw new SnapshotInvalidoException("versão não suportada: " + buffer.getInt(4));
+            }
+            int inicioRodape = (int) tamanho - TAMANHO_RODAPE;
+            if (buffer.getInt(inicioRodape) != FIM) throw new SnapshotInvalidoException("rodapé ausente");
+            int esperados = buffer.getInt(inicioRodape + 4);
+
+            buffer.position(TAMANHO_CABECALHO);
+            buffer.limit(inicioRodape);
+            // Qualquer erro de leitura acontece dentro da transação → rollback
+            try {
+                return dao.substituirTodas(new LeitorRegistros(buffer, esperados));
+            } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new SnapshotInvalidoException("registro inválido: " + e);
+            }
+        }
+    }
+
+    // CRC32 dos primeiros "fim" bytes (em blocos: CRC32.update(ByteBuffer) exige API 26)
+    private static long crc(MappedByteBuffer buffer, int fim) {
+        CRC32 crc = new CRC32();
+        byte[] bloco = new byte[64 * 1024];
+        buffer.position(0);
+        int restante = fim;
+        while (restante > 0) {
+            int n = Math.min(bloco.length, restante);
+            buffer.get(bloco, 0, n);
+            crc.update(bloco, 0, n);
+            restante -= n;
+        }
+        return crc.getValue();
+    }
+
+    // Decodifica os registros direto do buffer mapeado (um objeto Tarefa reaproveitado)
+    private static final class LeitorRegistros implements TarefaDAO.FonteTarefas {
+        private final MappedByteBuffer buffer;
+        private final int esperados;
+        private final List<String> tabela = new ArrayList<>();
+        private byte[] bytes = new byte[256];
+        private int lidos;
+
+        LeitorRegistros(MappedByteBuffer buffer, int esperados) {
+            this.buffer = buffer;
+            this.esperados = esperados;
+        }
+
+        @Override
+        public boolean proxima(Tarefa destino) throws SnapshotInvalidoException {
+            if (!buffer.hasRemaining()) {
+                if (lidos != esperados) {
+                    throw new SnapshotInvalidoException("esperados " + esperados + " registros, lidos " + lidos);
+                }
+                return false;
+            }
+            lidos++;
+            destino.setId(buffer.getInt());
+            destino.setTitulo(lerTexto());
+            destino.setDescricao(lerTexto());
+            destino.setData(lerTexto());
+            destino.setPrioridade(buffer.getInt());
+            destino.setConcluido(buffer.get() == 1);
+            return true;
+        }
+
+        private String lerTexto() throws SnapshotInvalidoException {
+            int controle = buffer.getInt();
+            if (controle == TEXTO_NULO) return null;
+            if (controle >= 0) {
+                if (controle >= tabela.size()) throw new SnapshotInvalidoException("texto " + controle + " inexistente");
+                return tabela.get(controle); // repetido: nenhuma alocação
+            }
+            if (controle != TEXTO_NOVO && controle != TEXTO_AVULSO) {
+                throw new SnapshotInvalidoException("controle de texto inválido: " + controle);
+            }
+
+            int tamanho = buffer.getInt();
+            if (tamanho < 0 || tamanho > buffer.remaining()) {
+                throw new SnapshotInvalidoException("tamanho de texto inválido: " + tamanho);
+            }
+            if (bytes.length < tamanho) bytes = new byte[Math.max(tamanho, bytes.length * 2)];
+            buffer.get(bytes, 0, tamanho);
+            String texto = new String(bytes, 0, tamanho, StandardCharsets.UTF_8);
+            if (controle == TEXTO_NOVO) tabela.add(texto);
+            return texto;
+        }
+    }
+}
@@ -2,13 +2,27 @@ package com.example.projeto2.database;
 
 import android.content.ContentValues;
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
+import android.os.CancellationSignal;
+import android.os.Looper;
 
+import com.example.projeto2.model.ContadoresTarefas;
 import com.example.projeto2.model.Tarefa;
+import com.example.projeto2.utils.DataCodec;
 import com.example.projeto2.utils.Preferencias;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * ================================
@@ -22,26 +36,106 @@ import java.util.ArrayList;
  * - Deletar tarefa por ID
  * - Deletar todas tarefas concluídas
  * - Listar tarefas, aplicando filtros de preferências
+ * - Inserir/atualizar/deletar em lote (uma única transação)
+ * - Buscar tarefas por texto (título e descrição)
+ *
+ * Todas as instâncias compartilham o mesmo DBHelper (DBHelper.getInstance), portanto
+ * a mesma conexão. Por isso nenhum método fecha o banco ao terminar.
+ *
+ * Todos os métodos fazem I/O de disco e NÃO devem rodar na thread principal:
+ * a interface usa TarefaDAOAsync. Em builds de depuração, chamar o DAO na
+ * thread principal lança IllegalStateException (ver verificarThread).
+ *
+ * Leituras são servidas pelo CacheTarefas do DBHelper quando possível, e toda
+ * escrita atualiza/invalida o cache logo após gravar (write-through).
+ *
+ * Toda escrita também avisa o RastreadorAlteracoes: consultas criadas com
+ * observar() recebem um resultado novo só quando a tabela tarefas muda.
+ *
+ * Marcar/desmarcar pela lista passa pela FilaStatus (gravação adiada e agrupada).
+ * As leituras de tarefas já refletem a fila; as contagens, só depois da gravação.
+ * Toda escrita grava a fila antes, para manter a ordem das operações.
  */
 public class TarefaDAO {
 
-    private final DBHelper dbHelper; // Classe auxiliar que cria/abre o banco de dados
-    private final Context context;   // Contexto da Activity que utiliza o DAO
+    // Colunas de uma tarefa completa
+    private static final String COLUNAS_COMPLETAS = "id, titulo, descricao, data, prioridade, concluido";
+
+    // Projeção "resumo" para telas de lista: sem a descrição, que pode ter KB de texto
+    // e não aparece na linha da lista (item_tarefa)
+    private static final String COLUNAS_RESUMO = "id, titulo, data, prioridade, concluido";
+
+    // Máximo de resultados retornados por buscar()
+    private static final int LIMITE_BUSCA = 200;
+
+    // Quando true, qualquer método chamado na thread principal lança exceção
+    private static volatile boolean exigirSegundoPlano;
+
+    private final DBHelper dbHelper; // Dono da conexão compartilhada com o banco
+    private final CacheTarefas cache; // Cache do mesmo banco (compartilhado com os outros DAOs)
+    private final RastreadorAlteracoes rastreador; // Avisa consultas observadas sobre escritas
+    private final FilaStatus fila;    // Status marcados na lista e ainda não gravados
+    private final Preferencias preferencias; // Configurações do usuário (snapshot em memória)
 
     /**
      * Construtor
      * @param context Contexto da Activity
      */
     public TarefaDAO(Context context){
-        this.context = context;
-        this.dbHelper = new DBHelper(context); // inicializa o DBHelper
+        this(context, DBHelper.getInstance(context)); // conexão compartilhada do processo
+
+        // Build de depuração: acusa qualquer acesso ao banco na thread principal
+        if ((context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            exigirSegundoPlano = true;
+        }
+    }
+
+    /**
+     * Construtor com DBHelper explícito (usado em testes com banco separado)
+     */
+    TarefaDAO(Context context, DBHelper dbHelper){
+        this.preferencias = new Preferencias(context);
+        this.dbHelper = dbHelper;
+        this.cache = dbHelper.getCache();
+        this.rastreador = dbHelper.getRastreador();
+        this.fila = dbHelper.getFilaStatus();
+    }
+
+    /**
+     * Cache em memória usado por este DAO (para estatísticas de acerto/falha)
+     */
+    public CacheTarefas getCache(){
+        return cache;
+    }
+
+    /**
+     * Fila de status com gravação adiada (compartilhada com os outros DAOs do banco)
+     */
+    public FilaStatus getFilaStatus(){
+        return fila;
+    }
+
+    /**
+     * Liga/desliga a verificação de thread (ligada automaticamente em builds de depuração)
+     */
+    public static void setExigirSegundoPlano(boolean exigir){
+        exigirSegundoPlano = exigir;
+    }
+
+    // Lança exceção se a verificação estiver ligada e estivermos na thread principal
+    private static void verificarThread(){
+        if (exigirSegundoPlano && Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException("TarefaDAO chamado na thread principal — use TarefaDAOAsync");
+        }
     }
 
     // ================================
     // INSERIR - criar nova tarefa
     // ================================
     public long inserir(Tarefa t){
-        SQLiteDatabase db = dbHelper.getWritableDatabase(); // abre o banco para escrita
+        verificarThread();
+        fila.descarregar(); // status pendentes primeiro (ordem das operações)
+        SQLiteDatabase db = dbHelper.getWritableDatabase(); // conexão compartilhada (já aberta após o 1º uso)
         ContentValues valores = new ContentValues();        // objeto para armazenar pares chave-valor
 
         // Preenche valores com os atributos da tarefa
@@ -50,11 +144,16 @@ public class TarefaDAO {
         valores.put("data", t.getData());
         valores.put("prioridade", t.getPrioridade());
         valores.put("concluido", t.isConcluido() ? 1 : 0); // SQLite não tem boolean, usa 0 ou 1
+        valores.put("data_epoch", t.getDataEpoch()); // data ordenável (mantida em sincronia)
 
         // Insere os valores na tabela "tarefas"
         long idGerado = db.insert("tarefas", null, valores);
 
-        db.close(); // fecha o banco
+        if (idGerado != -1) {
+            cache.tarefaGravada(new Tarefa((int) idGerado, t.getTitulo(), t.getDescricao(),
+                    t.getData(), t.getPrioridade(), t.isConcluido()));
+            tarefasAlteradas(new int[]{(int) idGerado});
+        }
         return idGerado; // retorna o ID gerado pelo banco
     }
 
@@ -62,6 +161,8 @@ public class TarefaDAO {
     // ATUALIZAR - atualizar tarefa existente
     // ================================
     public int atualizar(Tarefa t){
+        verificarThread();
+        fila.descarregar(); // status pendentes primeiro (ordem das operações)
         SQLiteDatabase db = dbHelper.getWritableDatabase();
         ContentValues valores = new ContentValues();
 
@@ -70,6 +171,7 @@ public class TarefaDAO {
         valores.put("data", t.getData());
         valores.put("prioridade", t.getPrioridade());
         valores.put("concluido", t.isConcluido() ? 1 : 0);
+        valores.put("data_epoch", t.getDataEpoch());
 
         // Atualiza a tarefa com base no ID
         int linhasAfetadas = db.update(
@@ -79,14 +181,81 @@ public class TarefaDAO {
                 new String[]{String.valueOf(t.getId())} // parâmetro para o WHERE
         );
 
-        db.close();
+        if (linhasAfetadas > 0) {
+            cache.tarefaGravada(t);
+            tarefasAlteradas(new int[]{t.getId()});
+        }
         return linhasAfetadas; // retorna o número de linhas alteradas
     }
 
+    // ================================
+    // ATUALIZAR ALTERAÇÕES - grava só as colunas alteradas
+    // ================================
+    /**
+     * Como atualizar(), mas o UPDATE leva só os campos marcados pelos setters
+     * (Tarefa.getCamposAlterados). Sem alterações não toca no banco e retorna 0.
+     * Em uma tarefa lida do banco, trocar só o status não regrava título/descrição
+     * (nem dispara o trigger do FTS, que observa titulo e descricao).
+     */
+    public int atualizarAlteracoes(Tarefa t){
+        verificarThread();
+        int campos = t.getCamposAlterados();
+        if (campos == 0) return 0; // nada mudou: nenhuma escrita
+
+        fila.descarregar(); // status pendentes primeiro (ordem das operações)
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        ContentValues valores = new ContentValues();
+
+        if ((campos & Tarefa.CAMPO_TITULO) != 0) valores.put("titulo", t.getTitulo());
+        if ((campos & Tarefa.CAMPO_DESCRICAO) != 0) valores.put("descricao", t.getDescricao());
+        if ((campos & Tarefa.CAMPO_DATA) != 0) {
+            valores.put("data", t.getData());
+            valores.put("data_epoch", t.getDataEpoch());
+        }
+        if ((campos & Tarefa.CAMPO_PRIORIDADE) != 0) valores.put("prioridade", t.getPrioridade());
+        if ((campos & Tarefa.CAMPO_CONCLUIDO) != 0) valores.put("concluido", t.isConcluido() ? 1 : 0);
+
+        int linhasAfetadas = db.update("tarefas", valores, "id = ?",
+                new String[]{String.valueOf(t.getId())});
+
+        if (linhasAfetadas > 0) {
+            t.limparAlteracoes();
+            // A tarefa pode ser parcial (ex.: resumo sem descrição): descarta a cópia do cache
+            cache.tarefaAlterada(t.getId());
+            tarefasAlteradas(new int[]{t.getId()});
+        }
+        return linhasAfetadas;
+    }
+
+    // ================================
+    // ATUALIZAR STATUS - marcar/desmarcar como concluída
+    // ================================
+    /**
+     * Altera só a coluna concluido. Usado pela lista, cujas tarefas vêm na
+     * projeção resumo (sem descrição) e não podem ser regravadas por atualizar().
+     */
+    public int atualizarStatus(int id, boolean concluido){
+        verificarThread();
+        fila.descarregar(); // status pendentes primeiro (ordem das operações)
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        ContentValues valores = new ContentValues();
+        valores.put("concluido", concluido ? 1 : 0);
+
+        int linhasAfetadas = db.update("tarefas", valores, "id = ?", new String[]{String.valueOf(id)});
+
+        if (linhasAfetadas > 0) {
+            cache.statusAlterado(id, concluido);
+            tarefasAlteradas(new int[]{id});
+        }
+        return linhasAfetadas;
+    }
+
     // ================================
     // DELETAR - remover tarefa por ID
     // ================================
     public int deletar(int id){
+        verificarThread();
+        fila.descarregar(); // status pendentes primeiro (ordem das operações)
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
         // Deleta a tarefa específica
@@ -96,93 +265,953 @@ public class TarefaDAO {
                 new String[]{String.valueOf(id)}
         );
 
-        db.close();
+        if (linhasAfetadas > 0) {
+            cache.tarefaRemovida(id);
+            tarefasAlteradas(new int[]{id});
+        }
         return linhasAfetadas; // retorna número de linhas deletadas
     }
 
     // ================================
-    // DELETAR - remover todas tarefas concluídas
+    // EXCLUIR CONCLUÍDAS - em blocos, com desfazer (lixeira)
     // ================================
+    /**
+     * Linhas por bloco: cada bloco é uma transação curta, então o lock de escrita
+     * é liberado entre um bloco e outro mesmo com dezenas de milhares de concluídas.
+     */
+    public static final int BLOCO_EXCLUSAO = 500;
+
+    /**
+     * Exclui todas as concluídas, bloco a bloco (ver moverConcluidasParaLixeira).
+     * As tarefas vão para a lixeira: restaurarLixeira devolve, esvaziarLixeira apaga de vez.
+     *
+     * @return quantidade de tarefas excluídas
+     */
     public int excluirConcluidas() {
+        long excluidaEm = System.currentTimeMillis();
+        int total = 0;
+        int movidas;
+        do {
+            movidas = moverConcluidasParaLixeira(excluidaEm, BLOCO_EXCLUSAO);
+            total += movidas;
+        } while (movidas == BLOCO_EXCLUSAO);
+        return total;
+    }
+
+    /**
+     * Move o próximo bloco de até "limite" concluídas para a lixeira, numa transação.
+     * Os blocos seguem a ordem do id; o ponto de parada é o maior id já movido com
+     * este excluidaEm, então basta chamar de novo até retornar menos que "limite".
+     *
+     * @param excluidaEm identifica a exclusão (o mesmo valor em todos os blocos)
+     * @return quantidade movida neste bloco (0 = não há mais)
+     */
+    public int moverConcluidasParaLixeira(long excluidaEm, int limite) {
+        verificarThread();
+        fila.descarregar(); // status pendentes primeiro (ordem das operações)
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        int movidas = 0;
+        int[] movidos = null;
+
+        db.beginTransaction();
+        try {
+            long desde = DatabaseUtils.longForQuery(db,
+                    "SELECT IFNULL(MAX(id), 0) FROM tarefas_lixeira WHERE excluida_em = ?",
+                    new String[]{String.valueOf(excluidaEm)});
+            long ate = DatabaseUtils.longForQuery(db,
+                    "SELECT IFNULL(MAX(id), 0) FROM (SELECT id FROM tarefas " +
+                            "WHERE concluido = 1 AND id > ? ORDER BY id LIMIT " + limite + ")",
+                    new String[]{String.valueOf(desde)});
+
+            if (ate > desde) {
+                // Ids do bloco (no máximo "limite"): a tela relê só estas linhas
+                movidos = lerIds(db, "SELECT id FROM tarefas WHERE concluido = 1 AND id > ? AND id <= ?",
+                        String.valueOf(desde), String.valueOf(ate));
+                db.execSQL("INSERT INTO tarefas_lixeira (" + COLUNAS_COMPLETAS + ", data_epoch, excluida_em) " +
+                                "SELECT " + COLUNAS_COMPLETAS + ", data_epoch, ? FROM tarefas " +
+                                "WHERE concluido = 1 AND id > ? AND id <= ?",
+                        new Object[]{excluidaEm, desde, ate});
+                // DELETE normal: triggers de contadores e do FTS continuam valendo
+                movidas = db.delete("tarefas", "concluido = 1 AND id > ? AND id <= ?",
+                        new String[]{String.valueOf(desde), String.valueOf(ate)});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        if (movidas > 0) {
+            cache.invalidarTudo();
+            tarefasAlteradas(movidos);
+        }
+        return movidas;
+    }
+
+    /**
+     * Desfaz uma exclusão: devolve as tarefas da lixeira com o mesmo id, em blocos.
+     *
+     * @param excluidaEm valor usado em moverConcluidasParaLixeira
+     * @return quantidade de tarefas restauradas
+     */
+    public int restaurarLixeira(long excluidaEm) {
+        verificarThread();
+        fila.descarregar(); // status pendentes primeiro (ordem das operações)
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        String lote = String.valueOf(excluidaEm);
+        int total = 0;
+        int restauradas;
+
+        do {
+            restauradas = 0;
+            int[] devolvidos = null;
+            db.beginTransaction();
+            try {
+                long ate = DatabaseUtils.longForQuery(db,
+                        "SELECT IFNULL(MAX(id), 0) FROM (SELECT id FROM tarefas_lixeira " +
+                                "WHERE excluida_em = ? ORDER BY id LIMIT " + BLOCO_EXCLUSAO + ")",
+                        new String[]{lote});
+
+                if (ate > 0) {
+                    devolvidos = lerIds(db, "SELECT id FROM tarefas_lixeira WHERE excluida_em = ? AND id <= ?",
+                            lote, String.valueOf(ate));
+                    // INSERT normal: triggers de contadores e do FTS reindexam a tarefa
+                    db.execSQL("INSERT INTO tarefas (" + COLUNAS_COMPLETAS + ", data_epoch) " +
+                                    "SELECT " + COLUNAS_COMPLETAS + ", data_epoch FROM tarefas_lixeira " +
+                                    "WHERE excluida_em = ? AND id <= ?",
+                            new Object[]{excluidaEm, ate});
+                    restauradas = db.delete("tarefas_lixeira", "excluida_em = ? AND id <= ?",
+                            new String[]{lote, String.valueOf(ate)});
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+
+            if (restauradas > 0) {
+                cache.invalidarTudo();
+                tarefasAlteradas(devolvidos);
+            }
+            total += restauradas;
+        } while (restauradas == BLOCO_EXCLUSAO);
+        return total;
+    }
+
+    /**
+     * Apaga de vez, em blocos, as tarefas excluídas até o instante informado
+     * (depois que o prazo para desfazer terminou). Não altera a tabela tarefas.
+     *
+     * @return quantidade de tarefas apagadas
+     */
+    public int esvaziarLixeira(long excluidasAte) {
+        verificarThread();
         SQLiteDatabase db = dbHelper.getWritableDatabase();
+        String[] args = {String.valueOf(excluidasAte)};
+        int total = 0;
+        int apagadas;
 
-        // Deleta todas as tarefas cujo campo concluido = 1
-        int linhasAfetadas = db.delete("tarefas", "concluido = ?", new String[]{"1"});
+        do {
+            apagadas = db.delete("tarefas_lixeira", "id IN (SELECT id FROM tarefas_lixeira " +
+                    "WHERE excluida_em <= ? LIMIT " + BLOCO_EXCLUSAO + ")", args);
+            total += apagadas;
+        } while (apagadas == BLOCO_EXCLUSAO);
+        return total;
+    }
 
-        db.close();
+    // ================================
+    // LOTE - inserir várias tarefas numa única transação
+    // ================================
+    /**
+     * Insere todas as tarefas usando um único SQLiteStatement compilado e uma
+     * única transação (um só commit/fsync para o lote inteiro).
+     * Se qualquer linha falhar, nada é gravado e a exceção é propagada.
+     *
+     * @return IDs gerados, na mesma ordem da lista
+     */
+    public long[] inserirLote(List<Tarefa> tarefas){
+        verificarThread();
+        fila.descarregar(); // status pendentes primeiro (ordem das operações)
+        long[] ids = new long[tarefas.size()];
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        db.beginTransaction();
+        try (SQLiteStatement stmt = db.compileStatement(
+                "INSERT INTO tarefas (titulo, descricao, data, prioridade, concluido, data_epoch) VALUES (?, ?, ?, ?, ?, ?)")) {
+
+            for (int i = 0; i < ids.length; i++) {
+                Tarefa t = tarefas.get(i);
+                stmt.clearBindings();
+                vincularCampos(stmt, t);
+
+                ids[i] = stmt.executeInsert();
+                if (ids[i] == -1) {
+                    throw new SQLException("Falha ao inserir tarefa na posição " + i);
+                }
+            }
+
+            db.setTransactionSuccessful(); // só confirma se todas deram certo
+        } finally {
+            db.endTransaction(); // sem setTransactionSuccessful → rollback
+        }
+        cache.invalidarTudo();
+        tarefasAlteradas(paraInt(ids));
+        return ids;
+    }
+
+    // ================================
+    // LOTE - atualizar várias tarefas numa única transação
+    // ================================
+    /**
+     * Atualiza todas as tarefas (por ID) numa única transação.
+     * Em caso de erro, nenhuma alteração é mantida.
+     *
+     * @return total de linhas alteradas
+     */
+    public int atualizarLote(List<Tarefa> tarefas){
+        verificarThread();
+        fila.descarregar(); // status pendentes primeiro (ordem das operações)
+        int linhasAfetadas = 0;
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        db.beginTransaction();
+        try (SQLiteStatement stmt = db.compileStatement(
+                "UPDATE tarefas SET titulo = ?, descricao = ?, data = ?, prioridade = ?, concluido = ?, data_epoch = ? WHERE id = ?")) {
+
+            for (Tarefa t : tarefas) {
+                stmt.clearBindings();
+                vincularCampos(stmt, t);
+                stmt.bindLong(7, t.getId());
+
+                linhasAfetadas += stmt.executeUpdateDelete();
+            }
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        if (linhasAfetadas > 0) {
+            int[] ids = new int[tarefas.size()];
+            for (int i = 0; i < ids.length; i++) ids[i] = tarefas.get(i).getId();
+            cache.invalidarTudo();
+            tarefasAlteradas(ids);
+        }
         return linhasAfetadas;
     }
 
+    // ================================
+    // LOTE - deletar várias tarefas por ID numa única transação
+    // ================================
+    /**
+     * Remove todas as tarefas cujos IDs foram informados, numa única transação.
+     *
+     * @return total de linhas deletadas
+     */
+    public int deletarLote(int[] ids){
+        verificarThread();
+        fila.descarregar(); // status pendentes primeiro (ordem das operações)
+        int linhasAfetadas = 0;
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        db.beginTransaction();
+        try (SQLiteStatement stmt = db.compileStatement("DELETE FROM tarefas WHERE id = ?")) {
+
+            for (int id : ids) {
+                stmt.bindLong(1, id);
+                linhasAfetadas += stmt.executeUpdateDelete();
+            }
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        if (linhasAfetadas > 0) {
+            cache.invalidarTudo();
+            tarefasAlteradas(ids.clone());
+        }
+        return linhasAfetadas;
+    }
+
+    // ================================
+    // Preenche os parâmetros 1..6 (titulo, descricao, data, prioridade, concluido, data_epoch)
+    // ================================
+    private static void vincularCampos(SQLiteStatement stmt, Tarefa t){
+        vincularTexto(stmt, 1, t.getTitulo());
+        vincularTexto(stmt, 2, t.getDescricao());
+        vincularTexto(stmt, 3, t.getData());
+        stmt.bindLong(4, t.getPrioridade());
+        stmt.bindLong(5, t.isConcluido() ? 1 : 0);
+        stmt.bindLong(6, t.getDataEpoch());
+    }
+
+    // bindString não aceita null → usa bindNull nesse caso
+    private static void vincularTexto(SQLiteStatement stmt, int indice, String valor){
+        if (valor == null) {
+            stmt.bindNull(indice);
+        } else {
+            stmt.bindString(indice, valor);
+        }
+    }
+
+    // ================================
+    // PERCORRER - todas as tarefas, sem lista em memória
+    // ================================
+    /** Recebe cada tarefa de percorrer(); o objeto é reaproveitado (copiar se for guardar) */
+    public interface VisitanteTarefas {
+        void visitar(Tarefa t) throws IOException;
+    }
+
+    // Linhas por consulta em percorrer()
+    static final int PAGINA_PERCORRER = 1000;
+
+    /**
+     * Visita todas as tarefas em ordem de id, em consultas de PAGINA_PERCORRER linhas
+     * ("id > último", sem OFFSET): a memória usada não depende do tamanho da tabela.
+     * Só até o maior id do início: tarefas inseridas durante a leitura ficam de fora
+     * (a volta sempre termina). Cada página é uma consulta: para um retrato único
+     * (backup, exportação), chamar dentro de lerEmTransacao(). Não passa pelo cache; como as outras leituras, vê os status ainda na FilaStatus
+     * (sem gravar a fila: gravar é só na thread de escrita).
+     *
+     * @return quantidade de tarefas visitadas
+     */
+    public int percorrer(VisitanteTarefas visitante) throws IOException {
+        verificarThread();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Tarefa t = new Tarefa();
+        String maiorId = String.valueOf(DatabaseUtils.longForQuery(db,
+                "SELECT IFNULL(MAX(id), 0) FROM tarefas", null));
+        long ultimoId = 0;
+        int total = 0;
+        int lidas;
+
+        do {
+            lidas = 0;
+            try (Cursor c = db.rawQuery("SELECT " + COLUNAS_COMPLETAS + " FROM tarefas " +
+                            "WHERE id > ? AND id <= ? ORDER BY id LIMIT " + PAGINA_PERCORRER,
+                    new String[]{String.valueOf(ultimoId), maiorId})) {
+
+                while (c.moveToNext()) {
+                    t.setId(c.getInt(0));
+                    t.setTitulo(c.getString(1));
+                    t.setDescricao(c.getString(2));
+                    t.setData(c.getString(3));
+                    t.setPrioridade(c.getInt(4));
+                    t.setConcluido(c.getInt(5) == 1);
+                    t.limparAlteracoes();
+
+                    visitante.visitar(comFila(t));
+                    ultimoId = t.getId();
+                    lidas++;
+                }
+            }
+            total += lidas;
+        } while (lidas == PAGINA_PERCORRER);
+        return total;
+    }
+
+    // ================================
+    // LEITURA EM TRANSAÇÃO - várias consultas, um só estado do banco
+    // ================================
+    /** Consultas feitas dentro de lerEmTransacao() */
+    public interface LeituraTarefas<T> {
+        T ler() throws IOException;
+    }
+
+    /**
+     * Roda "leitura" numa única transação só de leitura (API 35+): todas as consultas
+     * dela (ex.: as páginas de percorrer) veem o mesmo estado do banco, numa conexão
+     * de leitura; no WAL as escritas seguem normalmente.
+     *
+     * Antes da API 35 não há transação de leitura: qualquer BEGIN (inclusive por SQL)
+     * vira transação de escrita na conexão principal e travaria as escritas durante
+     * todo o backup. Ali a leitura roda sem transação; percorrer() para no maior id do
+     * início, então inserções no meio ficam de fora, mas uma tarefa alterada ou
+     * excluída durante a volta aparece como está quando a página dela é lida.
+     */
+    public <T> T lerEmTransacao(LeituraTarefas<T> leitura) throws IOException {
+        verificarThread();
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.VANILLA_ICE_CREAM) {
+            return leitura.ler();
+        }
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        db.beginTransactionReadOnly();
+        try {
+            T resultado = leitura.ler();
+            db.setTransactionSuccessful();
+            return resultado;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // ================================
+    // SUBSTITUIR TODAS - restauração em massa
+    // ================================
+    /** Preenche "destino" com a próxima tarefa; false no fim */
+    public interface FonteTarefas {
+        boolean proxima(Tarefa destino) throws IOException;
+    }
+
+    /**
+     * Troca TODAS as tarefas (e esvazia a lixeira) pelas da fonte, mantendo os ids,
+     * numa única transação: se a fonte falhar no meio, nada muda.
+     * Os triggers ficam suspensos durante a carga; índice FTS e contadores são
+     * reconstruídos uma vez no fim (ver DBHelper.suspenderTriggers).
+     *
+     * @return quantidade de tarefas inseridas
+     */
+    public int substituirTodas(FonteTarefas fonte) throws IOException {
+        verificarThread();
+        fila.descarregar(); // status pendentes primeiro (ordem das operações)
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        int inseridas = 0;
+
+        db.beginTransaction();
+        try (SQLiteStatement stmt = db.compileStatement(
+                "INSERT INTO tarefas (id, titulo, descricao, data, prioridade, concluido, data_epoch) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+
+            DBHelper.suspenderTriggers(db);
+            db.execSQL("DELETE FROM tarefas");         // sem triggers: limpa a tabela de uma vez
+            db.execSQL("DELETE FROM tarefas_lixeira"); // ids da lixeira não valem para o novo conteúdo
+
+            Tarefa t = new Tarefa();
+            while (fonte.proxima(t)) {
+                stmt.bindLong(1, t.getId());
+                vincularTexto(stmt, 2, t.getTitulo());
+                vincularTexto(stmt, 3, t.getDescricao());
+                vincularTexto(stmt, 4, t.getData());
+                stmt.bindLong(5, t.getPrioridade());
+                stmt.bindLong(6, t.isConcluido() ? 1 : 0);
+                stmt.bindLong(7, t.getDataEpoch());
+                stmt.executeInsert();
+                inseridas++;
+            }
+
+            DBHelper.retomarTriggers(db); // recria triggers + reconstrói FTS e contadores
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        cache.invalidarTudo();
+        tarefasAlteradas();
+        return inseridas;
+    }
+
+    // ================================
+    // STATUS EM LOTE - gravação da FilaStatus
+    // ================================
+    /**
+     * Grava vários status numa única transação (chamado pela FilaStatus,
+     * que já garante a ordem em relação às outras escritas).
+     */
+    void gravarStatus(Map<Integer, Boolean> status){
+        verificarThread();
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        db.beginTransaction();
+        try (SQLiteStatement stmt = db.compileStatement("UPDATE tarefas SET concluido = ? WHERE id = ?")) {
+            for (Map.Entry<Integer, Boolean> e : status.entrySet()) {
+                stmt.bindLong(1, e.getValue() ? 1 : 0);
+                stmt.bindLong(2, e.getKey());
+                stmt.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        int[] ids = new int[status.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Boolean> e : status.entrySet()) {
+            cache.statusAlterado(e.getKey(), e.getValue());
+            ids[i++] = e.getKey();
+        }
+        tarefasAlteradas(ids);
+    }
+
+    // Sobrepõe os status ainda na fila (o que o usuário já vê na tela)
+    private <L extends List<Tarefa>> L comFila(L lista){
+        fila.aplicar(lista);
+        return lista;
+    }
+
+    private Tarefa comFila(Tarefa t){
+        fila.aplicar(t);
+        return t;
+    }
+
+    // Avisa as consultas observadas (uma vez por operação, já após o commit)
+    private void tarefasAlteradas(){
+        rastreador.notificar(RastreadorAlteracoes.TABELA_TAREFAS); // sem ids: relê tudo
+    }
+
+    // Idem, dizendo quais tarefas mudaram (inseridas, alteradas ou removidas)
+    private void tarefasAlteradas(int[] ids){
+        rastreador.notificar(RastreadorAlteracoes.TABELA_TAREFAS, ids);
+    }
+
+    // Primeira coluna de cada linha da consulta
+    private static int[] lerIds(SQLiteDatabase db, String sql, String... args){
+        try (Cursor c = db.rawQuery(sql, args)) {
+            int[] ids = new int[c.getCount()];
+            for (int i = 0; c.moveToNext(); i++) ids[i] = c.getInt(0);
+            return ids;
+        }
+    }
+
+    private static int[] paraInt(long[] ids){
+        int[] convertidos = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) convertidos[i] = (int) ids[i];
+        return convertidos;
+    }
+
+    // ================================
+    // OBSERVAR - consultas que se atualizam sozinhas
+    // ================================
+    /**
+     * Executa a consulta agora e de novo sempre que uma escrita alterar a tabela tarefas
+     * (rajadas de escritas geram uma única reexecução). O resultado é entregue numa
+     * thread de segundo plano.
+     *
+     * @return a consulta observada; chamar cancelar() para parar
+     */
+    public <T> ConsultaObservada<T> observar(TarefaDAOAsync.Operacao<T> consulta,
+                                             ConsultaObservada.OnResultadoListener<T> listener){
+        return new ConsultaObservada<>(this, rastreador, consulta, listener, RastreadorAlteracoes.TABELA_TAREFAS);
+    }
+
+    /**
+     * Observa a lista (projeção resumo) de uma consulta
+     */
+    public ConsultaObservada<ArrayList<Tarefa>> observar(ConsultaTarefas consulta,
+                                                         ConsultaObservada.OnResultadoListener<ArrayList<Tarefa>> listener){
+        return observar(dao -> dao.listarResumo(consulta), listener);
+    }
+
+    // ================================
+    // ALTERAÇÕES POR ID - para quem guarda as tarefas em memória
+    // ================================
+    /**
+     * Versão atual da tabela tarefas. Guardar ANTES de ler: o que for gravado
+     * depois aparece em alteradasDesde(versão).
+     */
+    public long getVersaoTarefas(){
+        return rastreador.getVersao(RastreadorAlteracoes.TABELA_TAREFAS);
+    }
+
+    /**
+     * Ids das tarefas inseridas, alteradas ou removidas depois da versão
+     * (ordenados); null = não se sabe quais, reler todas.
+     */
+    public int[] alteradasDesde(long versao){
+        return rastreador.alteradosDesde(RastreadorAlteracoes.TABELA_TAREFAS, versao);
+    }
+
+    /** Recebe cada tarefa de lerResumo() (objeto novo) e o data_epoch gravado no banco */
+    public interface VisitanteResumo {
+        void visitar(Tarefa t, int dataEpoch);
+    }
+
+    // Ids por consulta em lerResumo (abaixo do limite de 999 parâmetros do SQLite)
+    static final int LOTE_IDS = 500;
+
+    /**
+     * Tarefas na projeção resumo mais a coluna data_epoch, sem passar pelo cache
+     * (quem chama guarda o resultado). ids null = todas; ids que não existem mais
+     * simplesmente não são visitados. Ordem não garantida.
+     */
+    public void lerResumo(int[] ids, VisitanteResumo visitante){
+        verificarThread();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        String sql = "SELECT " + COLUNAS_RESUMO + ", data_epoch FROM tarefas";
+
+        if (ids == null) {
+            lerResumo(db.rawQuery(sql, null), visitante);
+            return;
+        }
+        for (int inicio = 0; inicio < ids.length; inicio += LOTE_IDS) {
+            int fim = Math.min(inicio + LOTE_IDS, ids.length);
+            String[] args = new String[fim - inicio];
+            StringBuilder marcadores = new StringBuilder();
+            for (int i = inicio; i < fim; i++) {
+                args[i - inicio] = String.valueOf(ids[i]);
+                marcadores.append(i == inicio ? "?" : ", ?");
+            }
+            lerResumo(db.rawQuery(sql + " WHERE id IN (" + marcadores + ")", args), visitante);
+        }
+    }
+
+    private void lerResumo(Cursor cursor, VisitanteResumo visitante){
+        try {
+            while (cursor.moveToNext()) {
+                Tarefa t = new Tarefa();
+                t.setId(cursor.getInt(0));
+                t.setTitulo(cursor.getString(1));
+                t.setData(cursor.getString(2));
+                t.setPrioridade(cursor.getInt(3));
+                t.setConcluido(cursor.getInt(4) == 1);
+                t.limparAlteracoes();
+                visitante.visitar(comFila(t), cursor.getInt(5));
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
     // ================================
     // LISTAR - obter todas tarefas, aplicando filtros
     // ================================
     public ArrayList<Tarefa> listar (){
+        verificarThread();
+        // Preferências do usuário (ocultar concluídas, ordenação, prioridade mínima), já em memória
+        return listar(ConsultaTarefas.dasPreferencias(preferencias.getSnapshot()));
+    }
+
+    // ================================
+    // LISTAR - obter todas tarefas de uma consulta específica
+    // ================================
+    public ArrayList<Tarefa> listar(ConsultaTarefas consulta){
+        verificarThread();
+        List<Object> chave = CacheTarefas.chave("listar", consulta);
+        int versao = cache.getVersao();
+        ArrayList<Tarefa> lista = cache.obterLista(chave);
+        if (lista != null) return comFila(lista); // nada mudou desde a última leitura
+
+        lista = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase(); // conexão compartilhada (WAL permite leitura paralela)
+
+        // Executa a query (texto fixo por combinação → statement já compilado é reaproveitado)
+        PlanoConsulta plano = planoListagem(consulta);
+        Cursor cursor = db.rawQuery(plano.getSql(), plano.getArgumentos());
+
+        // Percorre os resultados
+        lerTarefas(cursor, lista);
+
+        cursor.close();
+        cache.guardarLista(versao, chave, lista);
+        return comFila(lista); // retorna todas as tarefas filtradas
+    }
+
+    // ================================
+    // LISTAR RESUMO - tarefas para exibição em lista (sem descrição)
+    // ================================
+    /**
+     * Igual a listar(consulta), mas sem ler a coluna descricao
+     * (getDescricao() das tarefas retornadas é null). Use buscarPorId
+     * quando precisar da tarefa completa.
+     */
+    public ArrayList<Tarefa> listarResumo(ConsultaTarefas consulta){
+        verificarThread();
+        List<Object> chave = CacheTarefas.chave("resumo", consulta);
+        int versao = cache.getVersao();
+        ArrayList<Tarefa> lista = cache.obterLista(chave);
+        if (lista != null) return comFila(lista);
+
+        lista = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        PlanoConsulta plano = planoResumo(consulta);
+        Cursor cursor = db.rawQuery(plano.getSql(), plano.getArgumentos());
+        lerTarefas(cursor, lista);
+
+        cursor.close();
+        cache.guardarLista(versao, chave, lista);
+        return comFila(lista);
+    }
+
+    // ================================
+    // BUSCAR POR ID - tarefa completa (com descrição)
+    // ================================
+    /**
+     * @return a tarefa com todos os campos, ou null se não existir
+     */
+    public Tarefa buscarPorId(int id){
+        verificarThread();
+        int versao = cache.getVersao();
+        Tarefa emCache = cache.obterTarefa(id);
+        if (emCache != null) return comFila(emCache);
+
+        ArrayList<Tarefa> lista = new ArrayList<>(1);
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        Cursor cursor = db.rawQuery("SELECT " + COLUNAS_COMPLETAS + " FROM tarefas WHERE id = ?",
+                new String[]{String.valueOf(id)});
+        lerTarefas(cursor, lista);
+
+        cursor.close();
+        if (lista.isEmpty()) return null;
+
+        cache.guardarTarefa(versao, lista.get(0));
+        return comFila(lista.get(0));
+    }
+
+    // ================================
+    // BUSCAR - busca textual em título e descrição
+    // ================================
+    /**
+     * Procura tarefas cujo título ou descrição contenham TODAS as palavras digitadas.
+     * Cada palavra com 2+ letras também casa como prefixo ("compr" encontra "comprar").
+     *
+     * Ordem dos resultados (relevância):
+     *  1. tarefas com as palavras no título
+     *  2. mais ocorrências das palavras
+     *  3. id (ordem de inserção)
+     *
+     * @param texto Texto digitado pelo usuário
+     * @param sinal Permite abortar a consulta em andamento (pode ser null);
+     *              se cancelada, lança android.os.OperationCanceledException
+     * @return tarefas na projeção resumo (sem descrição), no máximo LIMITE_BUSCA
+     */
+    public ArrayList<Tarefa> buscar(String texto, CancellationSignal sinal){
+        verificarThread();
         ArrayList<Tarefa> lista = new ArrayList<>();
-        SQLiteDatabase db = dbHelper.getReadableDatabase(); // abre banco somente leitura
+        String expressao = montarExpressaoBusca(texto);
+        if (expressao.isEmpty()) return lista;
 
-        // Recupera preferências do usuário
-        Preferencias prefs = new Preferencias(context);
-        boolean ocultarConcluidas = prefs.getOcultarConcluidas(); // ocultar tarefas concluídas?
-        int ordenacao = prefs.getOrdenacao();                     // tipo de ordenação
-        int prioridadeMinima = prefs.getPrioridadeMinima();       // prioridade mínima
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
 
-        // Monta SQL básico
-        StringBuilder sql = new StringBuilder();
-        sql.append("SELECT id, titulo, descricao, data, prioridade, concluido FROM tarefas ");
+        // offsets() devolve 4 números por ocorrência, separados por espaço
+        String sql = "SELECT t.id, t.titulo, t.data, t.prioridade, t.concluido, " +
+                "(tarefas_fts.docid IN (SELECT docid FROM tarefas_fts WHERE titulo MATCH ?)) AS no_titulo, " +
+                "(length(offsets(tarefas_fts)) - length(replace(offsets(tarefas_fts), ' ', '')) + 1) / 4 AS ocorrencias " +
+                "FROM tarefas_fts JOIN tarefas t ON t.id = tarefas_fts.docid " +
+                "WHERE tarefas_fts MATCH ? " +
+                "ORDER BY no_titulo DESC, ocorrencias DESC, t.id ASC " +
+                "LIMIT " + LIMITE_BUSCA;
 
-        boolean whereAdicionado = false; // flag para controlar cláusula WHERE
+        Cursor cursor = db.rawQuery(sql, new String[]{expressao, expressao}, sinal);
+        try {
+            lerTarefas(cursor, lista);
+        } finally {
+            cursor.close();
+        }
+        return comFila(lista);
+    }
+
+    // Converte o texto digitado numa expressão MATCH segura:
+    // cada palavra vira um prefixo ("palavra*"); caracteres da sintaxe FTS são removidos
+    static String montarExpressaoBusca(String texto){
+        if (texto == null) return "";
+
+        StringBuilder expressao = new StringBuilder();
+        for (String palavra : texto.trim().split("\\s+")) {
+            String limpa = palavra.replaceAll("[\"*:^()\\-]", "");
+            if (limpa.isEmpty()) continue;
+
+            // Operadores FTS escritos em maiúsculas seriam interpretados; minúsculas são termos comuns
+            if (expressao.length() > 0) expressao.append(' ');
+            expressao.append(limpa.toLowerCase(Locale.ROOT));
 
-        // Filtro: ocultar concluídas
-        if (ocultarConcluidas){
-            sql.append("WHERE concluido = 0 ");
-            whereAdicionado = true;
+            // Prefixo só a partir de 2 letras: "c*" casaria com quase toda a tabela
+            if (limpa.length() >= 2) expressao.append('*');
         }
+        return expressao.toString();
+    }
+
+    // ================================
+    // LISTAR PÁGINA - paginação por chave (keyset / seek)
+    // ================================
+    /**
+     * Retorna até "limite" tarefas que vêm DEPOIS de "depoisDe" na ordem da consulta.
+     *
+     * Em vez de OFFSET (que lê e descarta todas as linhas anteriores), a página
+     * continua a partir da chave da última tarefa recebida: o SQLite faz uma busca
+     * no índice da ordenação e lê só as linhas da página.
+     *
+     * As tarefas vêm na projeção resumo (sem descrição). A tela principal não pagina
+     * mais (a lista sai de TarefasEmMemoria); fica como consulta para leituras em
+     * páginas que não cabem em memória.
+     *
+     * @param consulta  Filtros e ordenação
+     * @param depoisDe  Última tarefa da página anterior (null = primeira página)
+     * @param limite    Tamanho máximo da página
+     */
+    public ArrayList<Tarefa> listarPagina(ConsultaTarefas consulta, Tarefa depoisDe, int limite){
+        verificarThread();
+        String[] args = depoisDe == null ? null : argumentosChave(consulta, depoisDe);
+
+        // A página depende da consulta, do limite e dos valores da chave
+        List<Object> chave = CacheTarefas.chave("pagina", consulta, limite,
+                args == null ? null : Arrays.asList(args));
+        int versao = cache.getVersao();
+        ArrayList<Tarefa> lista = cache.obterLista(chave);
+        if (lista != null) return comFila(lista);
+
+        lista = new ArrayList<>(limite);
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        PlanoConsulta plano = PlanoConsulta.de(COLUNAS_RESUMO, consulta,
+                depoisDe == null ? PlanoConsulta.PRIMEIRA_PAGINA : PlanoConsulta.PROXIMA_PAGINA);
+        String[] extras = args == null ? new String[1] : Arrays.copyOf(args, args.length + 1);
+        extras[extras.length - 1] = String.valueOf(limite); // LIMIT ?
+
+        Cursor cursor = db.rawQuery(plano.getSql(), plano.getArgumentos(extras));
+        lerTarefas(cursor, lista);
+
+        cursor.close();
+        cache.guardarLista(versao, chave, lista);
+        return comFila(lista);
+    }
+
+    // ================================
+    // CONTAR - total e concluídas de uma consulta
+    // ================================
+    /**
+     * Lido de tarefas_contadores (mantida por triggers): no máximo 4 linhas,
+     * qualquer que seja o tamanho da tabela de tarefas.
+     *
+     * @return {total, concluidas} das tarefas que atendem aos filtros da consulta
+     */
+    public int[] contar(ConsultaTarefas consulta){
+        verificarThread();
+        List<Object> chave = CacheTarefas.chave("contar", consulta);
+        int versao = cache.getVersao();
+        int[] emCache = (int[]) cache.obterValor(chave);
+        if (emCache != null) return emCache;
+
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        Cursor cursor = db.rawQuery(
+                "SELECT IFNULL(SUM(total), 0), IFNULL(SUM(concluidas), 0) FROM tarefas_contadores WHERE prioridade >= ?",
+                new String[]{String.valueOf(consulta.getPrioridadeMinima())});
+        cursor.moveToFirst();
+        int total = cursor.getInt(0);
+        int concluidas = cursor.getInt(1);
+        cursor.close();
+
+        // Ocultando concluídas, a consulta só tem as pendentes
+        int[] contagem = consulta.isOcultarConcluidas()
+                ? new int[]{total - concluidas, 0}
+                : new int[]{total, concluidas};
+
+        cache.guardarValor(versao, chave, contagem);
+        return contagem;
+    }
+
+    // ================================
+    // CONTADORES - totais do banco inteiro (para o topo da tela)
+    // ================================
+    public ContadoresTarefas lerContadores(){
+        verificarThread();
+        List<Object> chave = CacheTarefas.chave("contadores");
+        int versao = cache.getVersao();
+        ContadoresTarefas emCache = (ContadoresTarefas) cache.obterValor(chave);
+        if (emCache != null) return emCache; // imutável: pode ser compartilhado
+
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        int total = 0;
+        int concluidas = 0;
+        int[] porPrioridade = new int[4];
 
-        // Filtro: prioridade mínima
-        if (prioridadeMinima == 2 || prioridadeMinima == 3){
-            sql.append(whereAdicionado ? "AND " : "WHERE ");
-            sql.append("prioridade >= ").append(prioridadeMinima).append(" ");
-            whereAdicionado = true;
+        Cursor cursor = db.rawQuery("SELECT prioridade, total, concluidas FROM tarefas_contadores", null);
+        while (cursor.moveToNext()) {
+            int prioridade = cursor.getInt(0);
+            total += cursor.getInt(1);
+            concluidas += cursor.getInt(2);
+            if (prioridade >= 0 && prioridade < porPrioridade.length) {
+                porPrioridade[prioridade] = cursor.getInt(1);
+            }
         }
+        cursor.close();
+
+        ContadoresTarefas contadores = new ContadoresTarefas(total, concluidas, porPrioridade);
+        cache.guardarValor(versao, chave, contadores);
+        return contadores;
+    }
+
+    // ================================
+    // Planos (SELECT + parâmetros) de listar() e listarResumo()
+    // ================================
+    // Montados uma vez por combinação de filtros/ordenação (ver PlanoConsulta)
+    static PlanoConsulta planoListagem(ConsultaTarefas consulta){
+        return PlanoConsulta.de(COLUNAS_COMPLETAS, consulta, PlanoConsulta.SEM_LIMITE);
+    }
+
+    // Mesma consulta na projeção resumo (sem descrição)
+    static PlanoConsulta planoResumo(ConsultaTarefas consulta){
+        return PlanoConsulta.de(COLUNAS_RESUMO, consulta, PlanoConsulta.SEM_LIMITE);
+    }
 
-        // Ordenação
-        switch (ordenacao){
-            case 1:
-                sql.append("ORDER BY titulo COLLATE NOCASE ASC"); // ordem alfabética
+    // Valores para os "?" da condição de paginação, na ordem em que aparecem
+    private static String[] argumentosChave(ConsultaTarefas consulta, Tarefa ultima){
+        String id = String.valueOf(ultima.getId());
+        String valor;
+        switch (consulta.getOrdenacao()){
+            case ConsultaTarefas.ORDEM_TITULO:
+                valor = ultima.getTitulo();
                 break;
-            case 2:
-                // ordena datas corretamente (converte dd/MM/yyyy → yyyyMMdd)
-                sql.append("ORDER BY (substr(data,7,4)||substr(data,4,2)||substr(data,1,2)) ASC");
+            case ConsultaTarefas.ORDEM_DATA:
+                valor = String.valueOf(ultima.getDataEpoch());
                 break;
-            case 3:
-                sql.append("ORDER BY prioridade DESC"); // prioridade alta primeiro
+            case ConsultaTarefas.ORDEM_PRIORIDADE:
+                valor = String.valueOf(ultima.getPrioridade());
                 break;
-            case 0:
+            case ConsultaTarefas.ORDEM_ID:
             default:
-                sql.append("ORDER BY id ASC"); // ordem de inserção
-                break;
+                return new String[]{id};
         }
+        return new String[]{valor, valor, id};
+    }
+
+    // ================================
+    // LISTAR POR PERÍODO - tarefas com data entre inicio e fim (inclusive)
+    // ================================
+    /**
+     * Lista as tarefas cuja data está no intervalo, ordenadas por data.
+     * Usa o índice de data_epoch (busca por faixa, sem varrer a tabela).
+     *
+     * @param inicio Data inicial no formato dd/MM/yyyy
+     * @param fim    Data final no formato dd/MM/yyyy
+     */
+    public ArrayList<Tarefa> listarPorPeriodo(String inicio, String fim){
+        verificarThread();
+        ArrayList<Tarefa> lista = new ArrayList<>();
+        int epochInicio = DataCodec.paraEpochDay(inicio);
+        int epochFim = DataCodec.paraEpochDay(fim);
+        if (epochInicio == DataCodec.SEM_DATA || epochFim == DataCodec.SEM_DATA) return lista;
 
-        // Executa a query
-        Cursor cursor = db.rawQuery(sql.toString(), null);
+        List<Object> chave = CacheTarefas.chave("periodo", epochInicio, epochFim);
+        int versao = cache.getVersao();
+        ArrayList<Tarefa> emCache = cache.obterLista(chave);
+        if (emCache != null) return comFila(emCache);
 
-        // Percorre os resultados
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Cursor cursor = db.rawQuery(
+                "SELECT " + COLUNAS_COMPLETAS + " FROM tarefas " +
+                "WHERE data_epoch BETWEEN ? AND ? ORDER BY data_epoch ASC",
+                new String[]{String.valueOf(epochInicio), String.valueOf(epochFim)});
+
+        lerTarefas(cursor, lista);
+
+        cursor.close();
+        cache.guardarLista(versao, chave, lista);
+        return comFila(lista);
+    }
+
+    // ================================
+    // Converte cada linha do cursor em Tarefa
+    // (aceita a projeção completa ou a resumo, sem descricao)
+    // ================================
+    private static void lerTarefas(Cursor cursor, List<Tarefa> lista){
         if (cursor.moveToFirst()){
+            int colId = cursor.getColumnIndexOrThrow("id");
+            int colTitulo = cursor.getColumnIndexOrThrow("titulo");
+            int colDescricao = cursor.getColumnIndex("descricao"); // -1 na projeção resumo
+            int colData = cursor.getColumnIndexOrThrow("data");
+            int colPrioridade = cursor.getColumnIndexOrThrow("prioridade");
+            int colConcluido = cursor.getColumnIndexOrThrow("concluido");
+
             do {
                 Tarefa t = new Tarefa();
-                t.setId(cursor.getInt(cursor.getColumnIndexOrThrow("id")));
-                t.setTitulo(cursor.getString(cursor.getColumnIndexOrThrow("titulo")));
-                t.setDescricao(cursor.getString(cursor.getColumnIndexOrThrow("descricao")));
-                t.setData(cursor.getString(cursor.getColumnIndexOrThrow("data")));
-                t.setPrioridade(cursor.getInt(cursor.getColumnIndexOrThrow("prioridade")));
-                t.setConcluido(cursor.getInt(cursor.getColumnIndexOrThrow("concluido")) == 1);
+                t.setId(cursor.getInt(colId));
+                t.setTitulo(cursor.getString(colTitulo));
+                if (colDescricao >= 0) t.setDescricao(cursor.getString(colDescricao));
+                t.setData(cursor.getString(colData));
+                t.setPrioridade(cursor.getInt(colPrioridade));
+                t.setConcluido(cursor.getInt(colConcluido) == 1);
+                t.limparAlteracoes(); // igual ao banco
 
                 lista.add(t); // adiciona à lista
             } while (cursor.moveToNext());
         }
-
-        cursor.close();
-        db.close();
-        return lista; // retorna todas as tarefas filtradas
     }
 }
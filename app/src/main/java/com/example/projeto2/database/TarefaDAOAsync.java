@@ -0,0 +1,599 @@
+package com.example.projeto2.database;
+
+import android.content.Context;
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.OperationCanceledException;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.projeto2.model.ContadoresTarefas;
+import com.example.projeto2.model.Tarefa;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ================================
+ * TarefaDAOAsync
+ * ================================
+ *
+ * Fachada assíncrona do TarefaDAO: todo acesso ao banco roda fora da thread principal
+ * e o resultado é entregue na thread principal (Callback).
+ *
+ * Execução (compartilhada por todo o processo):
+ *  - UMA thread de escrita → escritas em ordem, sem disputa pelo lock de escrita;
+ *  - um pool pequeno de leitura → leituras em paralelo (o banco está em WAL);
+ *  - a fila de escrita não tem limite (escrita nunca é recusada: são dados do usuário);
+ *    a de leitura é limitada e, se lotar, a leitura é recusada.
+ *
+ * Falhas (exceção no banco ou leitura recusada) vão para o Erro da chamada ou, sem
+ * ele, para o de setOnErroListener — sempre na thread principal. O Callback de
+ * resultado não é chamado quando há falha.
+ *
+ * Ciclo de vida: cada instância é ligada a um LifecycleOwner (Activity). Em onDestroy,
+ * leituras pendentes e consultas observadas são canceladas e nenhum callback é mais
+ * entregue. Escritas já enviadas NÃO são canceladas (são dados do usuário) — só o
+ * callback é descartado.
+ */
+public class TarefaDAOAsync implements DefaultLifecycleObserver {
+
+    private static final String TAG = "TarefaDAOAsync";
+
+    private static final int THREADS_LEITURA = 3;
+    private static final int FILA_MAXIMA = 128; // fila de leitura
+    private static final long ESPERA_DESCARGA_MS = 1000; // descarregarStatus na thread principal
+
+    // ================================
+    // Executores do processo
+    // ================================
+    // Visível no pacote: a FilaStatus grava por esta mesma thread
+    static final ExecutorService ESCRITA = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), fabrica("tarefas-escrita")); // sem limite
+
+    private static final ExecutorService LEITURA = new ThreadPoolExecutor(
+            THREADS_LEITURA, THREADS_LEITURA, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(FILA_MAXIMA), fabrica("tarefas-leitura"));
+
+    private static final Handler PRINCIPAL = new Handler(Looper.getMainLooper());
+
+    // ================================
+    // Interfaces
+    // ================================
+
+    /** Resultado entregue na thread principal */
+    public interface Callback<T> {
+        void onResultado(T resultado);
+    }
+
+    /** Falha de uma operação, entregue na thread principal */
+    public interface Erro {
+        void onErro(Exception erro);
+    }
+
+    /** Trabalho executado em segundo plano com o DAO */
+    public interface Operacao<T> {
+        T executar(TarefaDAO dao);
+    }
+
+    /** Andamento de uma operação em blocos, entregue na thread principal (total -1 = desconhecido) */
+    public interface Progresso {
+        void onProgresso(int feitas, int total);
+    }
+
+    // Exclusões em blocos ainda em andamento, por excluidaEm (desfazer interrompe)
+    private static final Map<Long, ExclusaoEmBlocos> EXCLUSOES = new ConcurrentHashMap<>();
+
+    private final TarefaDAO dao;
+
+    // Leituras em andamento (canceladas em onDestroy)
+    private final Set<Future<?>> pendentes = Collections.newSetFromMap(new IdentityHashMap<>());
+    private volatile boolean ativo = true;
+    private volatile Erro erroPadrao; // para operações chamadas sem Erro próprio
+
+    // Consultas observadas (canceladas em onDestroy)
+    private final List<ConsultaObservada<?>> observadas = new ArrayList<>();
+
+    /**
+     * @param context Contexto da Activity
+     * @param dono    Activity dona das operações (cancela tudo em onDestroy)
+     */
+    public TarefaDAOAsync(Context context, LifecycleOwner dono) {
+        this(new TarefaDAO(context), dono);
+    }
+
+    TarefaDAOAsync(TarefaDAO dao, LifecycleOwner dono) {
+        this.dao = dao;
+        if (dono != null) dono.getLifecycle().addObserver(this);
+    }
+
+    /**
+     * Recebe as falhas das operações chamadas sem Erro próprio (ex.: mostrar um Toast)
+     */
+    public void setOnErroListener(Erro erro) {
+        erroPadrao = erro;
+    }
+
+    /**
+     * Cache compartilhado do DAO (estatísticas de acerto/falha)
+     */
+    public CacheTarefas getCache() {
+        return dao.getCache();
+    }
+
+    // ================================
+    // Ciclo de vida
+    // ================================
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner dono) {
+        cancelarTudo();
+        dono.getLifecycle().removeObserver(this);
+    }
+
+    /**
+     * Cancela leituras pendentes e deixa de entregar callbacks
+     */
+    public void cancelarTudo() {
+        ativo = false;
+        synchronized (pendentes) {
+            for (Future<?> f : pendentes) f.cancel(true);
+            pendentes.clear();
+        }
+        synchronized (observadas) {
+            for (ConsultaObservada<?> o : observadas) o.cancelar();
+            observadas.clear();
+        }
+    }
+
+    // ================================
+    // Execução genérica
+    // ================================
+
+    /**
+     * Executa uma leitura no pool de leitura
+     */
+    public <T> Future<?> ler(Operacao<T> operacao, Callback<T> callback) {
+        return enviar(LEITURA, operacao, callback, null, true);
+    }
+
+    /**
+     * Executa uma escrita na thread de escrita (em ordem de chegada)
+     */
+    public <T> Future<?> escrever(Operacao<T> operacao, Callback<T> callback) {
+        return escrever(operacao, callback, null);
+    }
+
+    /**
+     * Escrita com tratamento de falha próprio (null = o de setOnErroListener)
+     */
+    public <T> Future<?> escrever(Operacao<T> operacao, Callback<T> callback, Erro erro) {
+        return enviar(ESCRITA, operacao, callback, erro, false);
+    }
+
+    private <T> Future<?> enviar(ExecutorService executor, Operacao<T> operacao,
+                                 Callback<T> callback, Erro erro, boolean cancelavel) {
+        final Future<?>[] referencia = new Future<?>[1];
+        Runnable tarefa = () -> {
+            try {
+                T resultado = operacao.executar(dao);
+                entregar(callback, resultado);
+            } catch (OperationCanceledException e) {
+                // cancelada pelo chamador: sem resultado
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Falha em operação do banco", e);
+                falhar(erro, e);
+            } finally {
+                if (cancelavel) {
+                    synchronized (pendentes) {
+                        pendentes.remove(referencia[0]);
+                    }
+                }
+            }
+        };
+
+        try {
+            synchronized (pendentes) {
+                referencia[0] = executor.submit(tarefa);
+                if (cancelavel && !referencia[0].isDone()) pendentes.add(referencia[0]);
+            }
+        } catch (RejectedExecutionException e) {
+            // Só a fila de leitura é limitada (ver ESCRITA)
+            Log.e(TAG, "Fila do banco cheia, operação recusada", e);
+            falhar(erro, e);
+        }
+        return referencia[0];
+    }
+
+    // Entrega a falha na thread principal (Erro da chamada ou o padrão)
+    private void falhar(Erro erro, Exception e) {
+        PRINCIPAL.post(() -> {
+            Erro destino = erro != null ? erro : erroPadrao;
+            if (ativo && destino != null) destino.onErro(e);
+        });
+    }
+
+    private <T> void entregar(Callback<T> callback, T resultado) {
+        if (callback == null) return;
+        PRINCIPAL.post(() -> {
+            if (ativo) callback.onResultado(resultado);
+        });
+    }
+
+    // ================================
+    // Consultas observadas
+    // ================================
+
+    /**
+     * Entrega o resultado da consulta agora e de novo sempre que as tarefas mudarem
+     * (escritas em rajada geram uma entrega só). Entregue na thread principal;
+     * cancelada automaticamente em onDestroy.
+     */
+    public <T> ConsultaObservada<T> observar(Operacao<T> consulta, Callback<T> callback) {
+        ConsultaObservada<T> observada = dao.observar(consulta, resultado -> entregar(callback, resultado));
+        synchronized (observadas) {
+            observadas.add(observada);
+        }
+        return observada;
+    }
+
+    // ================================
+    // Leituras
+    // ================================
+    public Future<?> listar(ConsultaTarefas consulta, Callback<ArrayList<Tarefa>> callback) {
+        return ler(d -> d.listar(consulta), callback);
+    }
+
+    public Future<?> listarResumo(ConsultaTarefas consulta, Callback<ArrayList<Tarefa>> callback) {
+        return ler(d -> d.listarResumo(consulta), callback);
+    }
+
+    public Future<?> buscarPorId(int id, Callback<Tarefa> callback) {
+        return ler(d -> d.buscarPorId(id), callback);
+    }
+
+    /**
+     * Busca textual; cancelar o "sinal" aborta a consulta no SQLite
+     */
+    public Future<?> buscar(String texto, CancellationSignal sinal, Callback<ArrayList<Tarefa>> callback) {
+        return ler(d -> d.buscar(texto, sinal), callback);
+    }
+
+    public Future<?> contar(ConsultaTarefas consulta, Callback<int[]> callback) {
+        return ler(d -> d.contar(consulta), callback);
+    }
+
+    public Future<?> lerContadores(Callback<ContadoresTarefas> callback) {
+        return ler(TarefaDAO::lerContadores, callback);
+    }
+
+    // ================================
+    // Escritas
+    // ================================
+    public Future<?> inserir(Tarefa t, Callback<Long> callback) {
+        return inserir(t, callback, null);
+    }
+
+    public Future<?> inserir(Tarefa t, Callback<Long> callback, Erro erro) {
+        return escrever(d -> d.inserir(t), callback, erro);
+    }
+
+    public Future<?> atualizar(Tarefa t, Callback<Integer> callback) {
+        return escrever(d -> d.atualizar(t), callback);
+    }
+
+    /**
+     * Grava só os campos alterados da tarefa (ver TarefaDAO.atualizarAlteracoes)
+     */
+    public Future<?> atualizarAlteracoes(Tarefa t, Callback<Integer> callback) {
+        return atualizarAlteracoes(t, callback, null);
+    }
+
+    public Future<?> atualizarAlteracoes(Tarefa t, Callback<Integer> callback, Erro erro) {
+        return escrever(d -> d.atualizarAlteracoes(t), callback, erro);
+    }
+
+    public Future<?> atualizarStatus(int id, boolean concluido, Callback<Integer> callback) {
+        return escrever(d -> d.atualizarStatus(id, concluido), callback);
+    }
+
+    /**
+     * Marca/desmarca sem esperar o banco: vai para a FilaStatus, que agrupa os
+     * toques e grava em lote (ver FilaStatus). Leituras seguintes já veem o novo valor.
+     */
+    public void enfileirarStatus(int id, boolean concluido) {
+        dao.getFilaStatus().enfileirar(id, concluido);
+    }
+
+    /**
+     * Grava já os status enfileirados, pela thread de escrita, e espera a gravação
+     * (chamar em onPause: depois dele o processo pode ser encerrado a qualquer momento).
+     * Sem status pendentes não bloqueia. Se a thread de escrita estiver ocupada por mais
+     * de ESPERA_DESCARGA_MS (ex.: importação), para de esperar: a gravação continua
+     * na fila, logo depois da escrita em andamento.
+     */
+    public void descarregarStatus() {
+        FilaStatus fila = dao.getFilaStatus();
+        if (fila.getPendentes() == 0) return;
+        try {
+            fila.descarregarNaEscrita().get(ESPERA_DESCARGA_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            Log.w(TAG, "Status ainda na fila de escrita após " + ESPERA_DESCARGA_MS + " ms");
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Falha ao gravar status", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Future<?> deletar(int id, Callback<Integer> callback) {
+        return escrever(d -> d.deletar(id), callback);
+    }
+
+    /**
+     * Exclui as concluídas em blocos de TarefaDAO.BLOCO_EXCLUSAO. Cada bloco é uma
+     * tarefa separada na thread de escrita, então outras escritas entram entre os
+     * blocos. As tarefas vão para a lixeira; a exclusão continua mesmo se a Activity
+     * for destruída (só os callbacks deixam de ser entregues).
+     *
+     * @param progresso excluídas até agora / total (pode ser null)
+     * @param callback  total excluído, ao terminar
+     * @param erro      falha num bloco: a exclusão para, e os blocos já movidos
+     *                  continuam na lixeira (restaurarLixeira devolve)
+     * @return identificador da exclusão, para restaurarLixeira/esvaziarLixeira
+     */
+    public long excluirConcluidas(Progresso progresso, Callback<Integer> callback, Erro erro) {
+        ExclusaoEmBlocos exclusao = new ExclusaoEmBlocos(System.currentTimeMillis(), progresso, callback, erro);
+        EXCLUSOES.put(exclusao.excluidaEm, exclusao);
+        exclusao.agendar();
+        return exclusao.excluidaEm;
+    }
+
+    /**
+     * Desfaz a exclusão: interrompe os blocos que faltam e devolve as tarefas já excluídas
+     */
+    public Future<?> restaurarLixeira(long excluidaEm, Callback<Integer> callback) {
+        ExclusaoEmBlocos exclusao = EXCLUSOES.remove(excluidaEm);
+        if (exclusao != null) exclusao.interrompida = true;
+        return escrever(d -> d.restaurarLixeira(excluidaEm), callback);
+    }
+
+    /**
+     * Apaga de vez o que foi excluído até "excluidasAte" (fim do prazo para desfazer).
+     * Exclusões ainda movendo blocos ficam de fora (decidido na thread de escrita,
+     * entre um bloco e outro): o que sobrar delas é apagado numa chamada posterior.
+     */
+    public Future<?> esvaziarLixeira(long excluidasAte) {
+        return escrever(d -> d.esvaziarLixeira(foraDasEmAndamento(excluidasAte)), null);
+    }
+
+    /** A exclusão "excluidaEm" ainda está movendo blocos para a lixeira? */
+    public boolean isExcluindo(long excluidaEm) {
+        return EXCLUSOES.containsKey(excluidaEm);
+    }
+
+    // Limite anterior à exclusão em andamento mais antiga (esvaziarLixeira apaga até o limite)
+    private static long foraDasEmAndamento(long excluidasAte) {
+        for (long emAndamento : EXCLUSOES.keySet()) {
+            excluidasAte = Math.min(excluidasAte, emAndamento - 1);
+        }
+        return excluidasAte;
+    }
+
+    // Um bloco por execução; ao terminar, agenda o próximo no fim da fila de escrita
+    private final class ExclusaoEmBlocos implements Runnable {
+        final long excluidaEm;
+        final Progresso progresso;
+        final Callback<Integer> callback;
+        final Erro erro;
+        volatile boolean interrompida;
+        int total = -1;
+        int excluidas;
+
+        ExclusaoEmBlocos(long excluidaEm, Progresso progresso, Callback<Integer> callback, Erro erro) {
+            this.excluidaEm = excluidaEm;
+            this.progresso = progresso;
+            this.callback = callback;
+            this.erro = erro;
+        }
+
+        void agendar() {
+            try {
+                ESCRITA.execute(this);
+            } catch (RejectedExecutionException e) {
+                Log.e(TAG, "Exclusão interrompida", e);
+                terminarComFalha(e);
+            }
+        }
+
+        // O que já foi movido continua na lixeira (pode ser restaurado)
+        private void terminarComFalha(Exception e) {
+            EXCLUSOES.remove(excluidaEm);
+            falhar(erro, e);
+        }
+
+        @Override
+        public void run() {
+            if (interrompida) return;
+            try {
+                if (total < 0) total = dao.lerContadores().getConcluidas();
+                int movidas = dao.moverConcluidasParaLixeira(excluidaEm, TarefaDAO.BLOCO_EXCLUSAO);
+                excluidas += movidas;
+
+                if (movidas == TarefaDAO.BLOCO_EXCLUSAO) {
+                    avisar(progresso, excluidas, Math.max(total, excluidas));
+                    agendar();
+                    return;
+                }
+                EXCLUSOES.remove(excluidaEm);
+                entregar(callback, excluidas);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Falha ao excluir concluídas", e);
+                terminarComFalha(e);
+            }
+        }
+    }
+
+    public Future<?> inserirLote(List<Tarefa> tarefas, Callback<long[]> callback) {
+        return escrever(d -> d.inserirLote(tarefas), callback);
+    }
+
+    // ================================
+    // Exportação / importação (ver TransferenciaTarefas)
+    // ================================
+
+    /**
+     * Exporta todas as tarefas para "saida" (fechado ao terminar) no pool de leitura.
+     * Não é cancelada em onDestroy: o arquivo não fica pela metade por uma rotação.
+     */
+    public Future<?> exportar(OutputStream saida, int formato, Progresso progresso,
+                              Callback<TransferenciaTarefas.Resultado> callback) {
+        return enviar(LEITURA, d -> {
+            try (OutputStream s = saida) {
+                int exportadas = new TransferenciaTarefas(d).exportar(s, formato,
+                        (feitas, total) -> avisar(progresso, feitas, total));
+                return new TransferenciaTarefas.Resultado(exportadas, null);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Falha ao exportar", e);
+                return new TransferenciaTarefas.Resultado(0, e);
+            }
+        }, callback, null, false);
+    }
+
+    /**
+     * Importa de "entrada" (fechado ao terminar) um lote por vez na thread de escrita,
+     * como excluirConcluidas: outras escritas entram entre os lotes.
+     *
+     * @param pular    registros já importados numa tentativa anterior (Resultado.getRetomada)
+     * @param callback ao terminar ou falhar; se isRetomavel(), getRetomada() é o ponto de retomada
+     */
+    public void importar(InputStream entrada, int formato, int pular, Progresso progresso,
+                         Callback<TransferenciaTarefas.Resultado> callback) {
+        new ImportacaoEmBlocos(new TransferenciaTarefas(dao).importar(entrada, formato, pular),
+                entrada, progresso, callback).agendar();
+    }
+
+    private final class ImportacaoEmBlocos implements Runnable {
+        final TransferenciaTarefas.Importacao importacao;
+        final InputStream entrada;
+        final Progresso progresso;
+        final Callback<TransferenciaTarefas.Resultado> callback;
+
+        ImportacaoEmBlocos(TransferenciaTarefas.Importacao importacao, InputStream entrada,
+                           Progresso progresso, Callback<TransferenciaTarefas.Resultado> callback) {
+            this.importacao = importacao;
+            this.entrada = entrada;
+            this.progresso = progresso;
+            this.callback = callback;
+        }
+
+        void agendar() {
+            try {
+                ESCRITA.execute(this);
+            } catch (RejectedExecutionException e) {
+                Log.e(TAG, "Fila do banco cheia, importação interrompida", e);
+                terminar(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (importacao.importarLote() > 0) {
+                    avisar(progresso, importacao.getImportadas(), -1);
+                    agendar();
+                    return;
+                }
+                terminar(null);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Falha ao importar", e);
+                terminar(e);
+            }
+        }
+
+        private void terminar(Exception erro) {
+            try {
+                entrada.close();
+            } catch (IOException e) {
+                // nada a fazer
+            }
+            entregar(callback, new TransferenciaTarefas.Resultado(importacao.getImportadas(), erro,
+                    importacao.getProcessados(), importacao.getIgnoradas(), importacao.getPrimeiroIgnorado()));
+        }
+    }
+
+    // ================================
+    // Backup binário (ver SnapshotTarefas)
+    // ================================
+
+    /**
+     * Grava o snapshot de todas as tarefas (pool de leitura; não cancelada em onDestroy)
+     */
+    public Future<?> gravarSnapshot(File arquivo, Callback<TransferenciaTarefas.Resultado> callback) {
+        return enviar(LEITURA, d -> {
+            try {
+                return new TransferenciaTarefas.Resultado(new SnapshotTarefas(d).gravar(arquivo), null);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Falha ao gravar snapshot", e);
+                return new TransferenciaTarefas.Resultado(0, e);
+            }
+        }, callback, null, false);
+    }
+
+    /**
+     * Substitui todas as tarefas pelas do snapshot (tudo ou nada)
+     */
+    public Future<?> restaurarSnapshot(File arquivo, Callback<TransferenciaTarefas.Resultado> callback) {
+        return escrever(d -> {
+            try {
+                return new TransferenciaTarefas.Resultado(new SnapshotTarefas(d).restaurar(arquivo), null);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Falha ao restaurar snapshot", e);
+                return new TransferenciaTarefas.Resultado(0, e);
+            }
+        }, callback);
+    }
+
+    // Progresso de operações em blocos, na thread principal
+    private void avisar(Progresso progresso, int feitas, int total) {
+        if (progresso == null) return;
+        PRINCIPAL.post(() -> {
+            if (ativo) progresso.onProgresso(feitas, total);
+        });
+    }
+
+    // ================================
+    // Threads nomeadas (facilita ver no profiler)
+    // ================================
+    private static ThreadFactory fabrica(String nome) {
+        AtomicInteger contador = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, nome + "-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,420 @@
+package com.example.projeto2.database;
+
+import com.example.projeto2.model.Tarefa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * ================================
+ * TarefasEmMemoria
+ * ================================
+ *
+ * Todas as tarefas carregadas + as quatro ordenações de listar() já prontas,
+ * como permutações de posições (int[]). Trocar a ordenação ou o filtro nas
+ * configurações vira: escolher a permutação + uma passada de filtro, sem voltar
+ * ao banco e sem criar objeto por tarefa.
+ *
+ * A ordem é idêntica à do SELECT de PlanoConsulta:
+ *  - id: id ASC;
+ *  - título: titulo COLLATE NOCASE ASC, id ASC (ver compararNocase);
+ *  - data: data_epoch ASC, id ASC (a coluna gravada; sem data = DataCodec.SEM_DATA, vem primeiro);
+ *  - prioridade: prioridade DESC, id ASC.
+ *
+ * Carregar tudo custa O(n log n) por ordenação e só acontece na primeira vez
+ * (ou quando o banco não sabe dizer o que mudou, ex.: restauração de backup).
+ * Depois, a cada escrita, atualizar() relê só as tarefas alteradas e monta uma
+ * instância nova em O(n + k log k): as ordens antigas são aproveitadas e as k
+ * tarefas alteradas entram por intercalação. Fazer em segundo plano (ver acompanhar).
+ *
+ * Cada instância é só leitura, inclusive as Tarefas que ela entrega (ninguém
+ * chama set* nelas: a mesma Tarefa é lida por listar() em qualquer thread).
+ * O status marcado na tela, ainda não gravado, entra por comStatus(): outra
+ * instância, com uma cópia só da tarefa marcada.
+ */
+public final class TarefasEmMemoria {
+
+    private final Tarefa[] tarefas;      // em ordem de id (posição = índice neste array)
+    private final int[] prioridades;     // prioridade de cada posição (filtro sem tocar na Tarefa)
+    private final int[] datas;           // data_epoch de cada posição, como gravado no banco
+    private final int[][] ordens = new int[ConsultaTarefas.ORDEM_PRIORIDADE + 1][]; // [ORDEM_*] → posições
+    private final long versao;           // versão da tabela tarefas quando a leitura começou
+
+    // ================================
+    // Carga e atualização (fora da thread principal)
+    // ================================
+
+    /**
+     * Operação para dao.observar(...): a primeira execução carrega todas as tarefas;
+     * as seguintes relêem só as alteradas desde a anterior (ver atualizar).
+     * Cada chamada cria um acompanhamento independente.
+     */
+    public static TarefaDAOAsync.Operacao<TarefasEmMemoria> acompanhar() {
+        return new TarefaDAOAsync.Operacao<TarefasEmMemoria>() {
+            private TarefasEmMemoria ultima; // as execuções da observação não se sobrepõem
+
+            @Override
+            public TarefasEmMemoria executar(TarefaDAO dao) {
+                ultima = atualizar(dao, ultima);
+                return ultima;
+            }
+        };
+    }
+
+    /**
+     * Lê todas as tarefas (projeção resumo + data_epoch) e monta as ordenações
+     */
+    public static TarefasEmMemoria carregar(TarefaDAO dao) {
+        long versao = dao.getVersaoTarefas(); // antes de ler (ver TarefaDAO.getVersaoTarefas)
+        Lidas lidas = new Lidas();
+        dao.lerResumo(null, lidas);
+        return lidas.ordenarPorId().montar(versao);
+    }
+
+    /**
+     * Instância com as alterações gravadas desde "anterior": relê só as tarefas
+     * alteradas; sem anterior, ou se o banco não souber quais mudaram, carrega tudo.
+     * Nada mudou = devolve a própria "anterior".
+     */
+    public static TarefasEmMemoria atualizar(TarefaDAO dao, TarefasEmMemoria anterior) {
+        if (anterior == null) return carregar(dao);
+
+        long versao = dao.getVersaoTarefas();
+        int[] alteradas = dao.alteradasDesde(anterior.versao);
+        if (alteradas == null) return carregar(dao);
+        if (alteradas.length == 0) return anterior;
+
+        Lidas lidas = new Lidas();
+        dao.lerResumo(alteradas, lidas);
+        return anterior.comAlteracoes(alteradas, lidas.ordenarPorId(), versao);
+    }
+
+    // Tarefas (+ data_epoch) recebidas de TarefaDAO.lerResumo
+    private static final class Lidas implements TarefaDAO.VisitanteResumo {
+        ArrayList<Tarefa> tarefas = new ArrayList<>();
+        int[] datas = new int[16];
+
+        @Override
+        public void visitar(Tarefa t, int dataEpoch) {
+            if (tarefas.size() == datas.length) datas = Arrays.copyOf(datas, datas.length * 2);
+            datas[tarefas.size()] = dataEpoch;
+            tarefas.add(t);
+        }
+
+        int getTamanho() {
+            return tarefas.size();
+        }
+
+        // Reordena por id (a leitura vem em qualquer ordem). Chave no alto, índice no baixo: sem boxing
+        Lidas ordenarPorId() {
+            int n = tarefas.size();
+            long[] chaves = new long[n];
+            for (int i = 0; i < n; i++) {
+                chaves[i] = ((long) tarefas.get(i).getId() << 32) | i;
+            }
+            Arrays.sort(chaves);
+            Lidas ordenadas = new Lidas();
+            ordenadas.tarefas = new ArrayList<>(n);
+            ordenadas.datas = new int[Math.max(n, 1)];
+            for (int k = 0; k < n; k++) {
+                int i = (int) chaves[k];
+                ordenadas.tarefas.add(tarefas.get(i));
+                ordenadas.datas[k] = datas[i];
+            }
+            return ordenadas;
+        }
+
+        // Carga completa: monta as quatro ordenações do zero
+        TarefasEmMemoria montar(long versao) {
+            int n = tarefas.size();
+            TarefasEmMemoria memoria = new TarefasEmMemoria(tarefas.toArray(new Tarefa[n]),
+                    Arrays.copyOf(datas, n), versao);
+            memoria.ordenarTudo();
+            return memoria;
+        }
+    }
+
+    private TarefasEmMemoria(Tarefa[] tarefas, int[] datas, long versao) {
+        this.tarefas = tarefas;
+        this.datas = datas;
+        this.versao = versao;
+        prioridades = new int[tarefas.length];
+        for (int p = 0; p < tarefas.length; p++) {
+            prioridades[p] = tarefas[p].getPrioridade();
+        }
+    }
+
+    // Mesmas datas, prioridades e ordenações de "base" (o status não entra em nenhuma)
+    private TarefasEmMemoria(TarefasEmMemoria base, Tarefa[] tarefas) {
+        this.tarefas = tarefas;
+        this.datas = base.datas;
+        this.prioridades = base.prioridades;
+        this.versao = base.versao;
+        System.arraycopy(base.ordens, 0, ordens, 0, ordens.length);
+    }
+
+    /**
+     * Nova instância: tira as posições de "alteradas" (todas removidas ou relidas)
+     * e junta as "lidas" (em ordem de id), mantendo as ordenações — O(n + k log k).
+     */
+    private TarefasEmMemoria comAlteracoes(int[] alteradas, Lidas lidas, long novaVersao) {
+        int n = tarefas.length;
+        int k = lidas.getTamanho();
+        int[] novaPosicao = new int[n]; // posição antiga → nova (-1 = saiu)
+        int[] posicoesLidas = new int[k];
+
+        // Intercala por id as que ficam (já em ordem) com as lidas
+        Tarefa[] novas = new Tarefa[n + k];
+        int[] novasDatas = new int[n + k];
+        int m = 0, a = 0, b = 0, x = 0;
+        while (a < n || b < k) {
+            if (a < n) {
+                int id = tarefas[a].getId();
+                while (x < alteradas.length && alteradas[x] < id) x++;
+                if (x < alteradas.length && alteradas[x] == id) { // relida ou removida
+                    novaPosicao[a++] = -1;
+                    continue;
+                }
+                if (b >= k || id < lidas.tarefas.get(b).getId()) {
+                    novaPosicao[a] = m;
+                    novasDatas[m] = datas[a];
+                    novas[m++] = tarefas[a++];
+                    continue;
+                }
+            }
+            posicoesLidas[b] = m;
+            novasDatas[m] = lidas.datas[b];
+            novas[m++] = lidas.tarefas.get(b++);
+        }
+
+        TarefasEmMemoria memoria = new TarefasEmMemoria(Arrays.copyOf(novas, m),
+                Arrays.copyOf(novasDatas, m), novaVersao);
+        memoria.ordens[ConsultaTarefas.ORDEM_ID] = identidade(m);
+        for (int ordem = ConsultaTarefas.ORDEM_ID + 1; ordem < ordens.length; ordem++) {
+            memoria.ordens[ordem] = memoria.intercalar(ordem, ordens[ordem], novaPosicao, posicoesLidas);
+        }
+        return memoria;
+    }
+
+    /**
+     * Instância com a tarefa "id" marcada como "concluido" (status da tela, antes
+     * da gravação). A Tarefa desta instância não é alterada: a nova recebe uma
+     * cópia. Id ausente ou status igual = devolve esta mesma instância.
+     */
+    public TarefasEmMemoria comStatus(int id, boolean concluido) {
+        int p = posicao(id);
+        if (p < 0 || tarefas[p].isConcluido() == concluido) return this;
+
+        Tarefa t = tarefas[p];
+        Tarefa[] novas = tarefas.clone();
+        novas[p] = new Tarefa(t.getId(), t.getTitulo(), t.getDescricao(), t.getData(),
+                t.getPrioridade(), concluido);
+        return new TarefasEmMemoria(this, novas);
+    }
+
+    // Posição da tarefa "id" (busca binária: tarefas estão em ordem de id); -1 se não houver
+    private int posicao(int id) {
+        int inicio = 0, fim = tarefas.length - 1;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            int atual = tarefas[meio].getId();
+            if (atual < id) inicio = meio + 1;
+            else if (atual > id) fim = meio - 1;
+            else return meio;
+        }
+        return -1;
+    }
+
+    /**
+     * Versão da tabela tarefas em que esta instância foi lida
+     */
+    public long getVersao() {
+        return versao;
+    }
+
+    // ================================
+    // Consulta em memória
+    // ================================
+
+    /**
+     * Mesmo resultado de TarefaDAO.listarResumo(consulta) sobre as tarefas carregadas.
+     * Passada O(n): chamar fora da thread principal (a instância não muda, qualquer thread serve).
+     */
+    public ArrayList<Tarefa> listar(ConsultaTarefas consulta) {
+        int[] ordem = ordens[consulta.getOrdenacao()];
+        boolean ocultar = consulta.isOcultarConcluidas();
+        int minima = consulta.getPrioridadeMinima();
+
+        ArrayList<Tarefa> lista = new ArrayList<>(contar(consulta));
+        for (int p : ordem) {
+            if (passa(p, ocultar, minima)) {
+                lista.add(tarefas[p]);
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Quantas tarefas passam pelos filtros da consulta (a ordenação não importa)
+     */
+    public int contar(ConsultaTarefas consulta) {
+        boolean ocultar = consulta.isOcultarConcluidas();
+        int minima = consulta.getPrioridadeMinima();
+        int total = 0;
+        for (int p = 0; p < tarefas.length; p++) {
+            if (passa(p, ocultar, minima)) total++;
+        }
+        return total;
+    }
+
+    // Filtros de PlanoConsulta (prioridade mínima 0 = sem filtro, nem "prioridade >= 0")
+    private boolean passa(int p, boolean ocultar, int minima) {
+        return (minima == 0 || prioridades[p] >= minima) && !(ocultar && tarefas[p].isConcluido());
+    }
+
+    /**
+     * Total de tarefas carregadas
+     */
+    public int getTamanho() {
+        return tarefas.length;
+    }
+
+    // ================================
+    // Montagem das ordenações
+    // ================================
+
+    // Compara duas posições numa ordenação (empate: menor posição = menor id)
+    private int comparar(int ordem, int p, int q) {
+        int c;
+        switch (ordem) {
+            case ConsultaTarefas.ORDEM_TITULO:
+                c = compararNocase(tarefas[p].getTitulo(), tarefas[q].getTitulo());
+                break;
+            case ConsultaTarefas.ORDEM_DATA:
+                c = Integer.compare(datas[p], datas[q]);
+                break;
+            case ConsultaTarefas.ORDEM_PRIORIDADE:
+                c = Integer.compare(prioridades[q], prioridades[p]); // decrescente
+                break;
+            default:
+                c = 0;
+        }
+        return c != 0 ? c : Integer.compare(p, q);
+    }
+
+    // Carga completa
+    private void ordenarTudo() {
+        int n = tarefas.length;
+        ordens[ConsultaTarefas.ORDEM_ID] = identidade(n);
+
+        // Chave no alto, posição no baixo: Arrays.sort(long[]) ordena por chave e,
+        // no empate, por posição (= por id). Sem boxing.
+        long[] chaves = new long[n];
+        for (int p = 0; p < n; p++) {
+            chaves[p] = ((long) datas[p] << 32) | p;
+        }
+        ordens[ConsultaTarefas.ORDEM_DATA] = posicoes(chaves);
+
+        for (int p = 0; p < n; p++) {
+            chaves[p] = ((long) -prioridades[p] << 32) | p; // decrescente
+        }
+        ordens[ConsultaTarefas.ORDEM_PRIORIDADE] = posicoes(chaves);
+
+        ordens[ConsultaTarefas.ORDEM_TITULO] = ordenar(ConsultaTarefas.ORDEM_TITULO, identidade(n));
+    }
+
+    /**
+     * Ordem "ordem" desta instância a partir da ordem da instância anterior:
+     * as posições que ficaram já estão na ordem certa (só mudam de número);
+     * as lidas são ordenadas entre si e intercaladas com elas.
+     */
+    private int[] intercalar(int ordem, int[] anterior, int[] novaPosicao, int[] posicoesLidas) {
+        int[] lidas = ordenar(ordem, posicoesLidas.clone());
+        int[] resultado = new int[tarefas.length];
+        int a = 0, b = 0, k = 0;
+        while (k < resultado.length) {
+            while (a < anterior.length && novaPosicao[anterior[a]] < 0) a++; // saiu
+            if (b >= lidas.length
+                    || (a < anterior.length && comparar(ordem, novaPosicao[anterior[a]], lidas[b]) < 0)) {
+                resultado[k++] = novaPosicao[anterior[a++]];
+            } else {
+                resultado[k++] = lidas[b++];
+            }
+        }
+        return resultado;
+    }
+
+    private static int[] identidade(int n) {
+        int[] ordem = new int[n];
+        for (int p = 0; p < n; p++) ordem[p] = p;
+        return ordem;
+    }
+
+    // Posições (parte baixa) das chaves, depois de ordenadas
+    private static int[] posicoes(long[] chaves) {
+        Arrays.sort(chaves);
+        int[] ordem = new int[chaves.length];
+        for (int k = 0; k < chaves.length; k++) {
+            ordem[k] = (int) chaves[k];
+        }
+        return ordem;
+    }
+
+    // Merge sort (de baixo para cima) das posições pela ordenação; o array pode ser reaproveitado
+    private int[] ordenar(int ordem, int[] origem) {
+        int n = origem.length;
+        int[] destino = new int[n];
+
+        for (int largura = 1; largura < n; largura <<= 1) {
+            for (int inicio = 0; inicio < n; inicio += largura << 1) {
+                int meio = Math.min(inicio + largura, n);
+                int fim = Math.min(inicio + (largura << 1), n);
+                int a = inicio, b = meio, k = inicio;
+                while (a < meio && b < fim) {
+                    destino[k++] = comparar(ordem, origem[a], origem[b]) <= 0
+                            ? origem[a++] : origem[b++];
+                }
+                while (a < meio) destino[k++] = origem[a++];
+                while (b < fim) destino[k++] = origem[b++];
+            }
+            int[] troca = origem;
+            origem = destino;
+            destino = troca;
+        }
+        return origem;
+    }
+
+    /**
+     * Mesma comparação do COLLATE NOCASE do SQLite: só A–Z viram a–z (acentos e
+     * outros alfabetos NÃO são ignorados) e o resto é comparado byte a byte em
+     * UTF-8 — que equivale a comparar por code point. Em UTF-16 isso só difere do
+     * compareTo do Java entre surrogates (acima de U+FFFF) e U+E000–U+FFFF, corrigido abaixo.
+     * null vem antes de tudo, como NULL no ORDER BY.
+     * (Exceção não tratada: título com caractere nulo, em que o SQLite para de comparar.)
+     */
+    static int compararNocase(String a, String b) {
+        if (a == null || b == null) return a == null ? (b == null ? 0 : -1) : 1;
+
+        int n = Math.min(a.length(), b.length());
+        for (int i = 0; i < n; i++) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(i);
+            if (ca == cb) continue;
+
+            if (ca >= 'A' && ca <= 'Z') ca += 'a' - 'A';
+            if (cb >= 'A' && cb <= 'Z') cb += 'a' - 'A';
+            if (ca == cb) continue;
+
+            // Ordem de code point: surrogates (D800–DFFF) passam para depois de E000–FFFF
+            if (ca >= 0xD800 && cb >= 0xD800) {
+                return corrigirSurrogate(ca) - corrigirSurrogate(cb);
+            }
+            return ca - cb;
+        }
+        return a.length() - b.length();
+    }
+
+    private static int corrigirSurrogate(char c) {
+        return c >= 0xE000 ? c - 0x800 : c + 0x2000;
+    }
+}
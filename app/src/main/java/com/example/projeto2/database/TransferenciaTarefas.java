@@ -0,0 +1,591 @@
+package com.example.projeto2.database;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+import android.util.MalformedJsonException;
+
+import com.example.projeto2.model.Tarefa;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ================================
+ * TransferenciaTarefas
+ * ================================
+ *
+ * Exportação e importação de tarefas em JSON ou CSV, com memória constante:
+ *  - exportar: lê do banco em páginas (TarefaDAO.percorrer) e escreve direto no stream,
+ *    sem montar a lista de tarefas;
+ *  - importar: lê um registro por vez (JsonReader / leitor de CSV) e grava em lotes de
+ *    LOTE_IMPORTACAO tarefas, cada lote uma transação (TarefaDAO.inserirLote).
+ *
+ * Registro inválido (sem título, prioridade que não é número, campo do tipo errado)
+ * é ignorado e contado (getIgnoradas, getPrimeiroIgnorado); a importação continua.
+ * Arquivo com a estrutura quebrada (JSON malformado ou truncado, aspas não fechadas,
+ * sem a coluna titulo) para com ArquivoInvalidoException: tentar de novo não adianta.
+ *
+ * Outras falhas (I/O, banco): getProcessados() diz quantos registros do arquivo já foram
+ * tratados (só lotes completos). Para retomar, importar o mesmo arquivo com "pular" igual
+ * a esse número. O id do arquivo é ignorado (o banco gera novos ids).
+ *
+ * Formatos:
+ *  - JSON: {"versao":1,"tarefas":[{"id":..,"titulo":..,"descricao":..,"data":..,
+ *    "prioridade":..,"concluido":..}, ...]} (também aceita só o array);
+ *  - CSV (RFC 4180, UTF-8): cabeçalho id,titulo,descricao,data,prioridade,concluido;
+ *    colunas reconhecidas pelo nome, em qualquer ordem;
+ *  - FORMATO_DETECTAR (só importação): JSON se o conteúdo começa com { ou [, senão CSV
+ *    (o tipo MIME do arquivo não é confiável, ex.: text/plain).
+ *
+ * Faz I/O e acesso ao banco: chamar fora da thread principal (ver TarefaDAOAsync).
+ */
+public class TransferenciaTarefas {
+
+    public static final int FORMATO_JSON = 0;
+    public static final int FORMATO_CSV = 1;
+    public static final int FORMATO_DETECTAR = 2; // importação: decide pelo conteúdo
+
+    public static final int LOTE_IMPORTACAO = 1000;   // tarefas por transação
+    private static final int VERSAO_JSON = 1;
+
+    private static final String[] COLUNAS = {"id", "titulo", "descricao", "data", "prioridade", "concluido"};
+
+    // ================================
+    // Progresso (chamado na thread da transferência)
+    // ================================
+    public interface OnProgressoListener {
+        /** @param total total esperado, ou -1 se desconhecido (importação) */
+        void onProgresso(int feitas, int total);
+    }
+
+    // ================================
+    // Resultado (entregue pelo TarefaDAOAsync)
+    // ================================
+    public static final class Resultado {
+        private final int quantidade;
+        private final Exception erro;
+        private final int retomada;
+        private final int ignoradas;
+        private final String primeiroIgnorado;
+
+        Resultado(int quantidade, Exception erro) {
+            this(quantidade, erro, quantidade, 0, null);
+        }
+
+        Resultado(int quantidade, Exception erro, int retomada, int ignoradas, String primeiroIgnorado) {
+            this.quantidade = quantidade;
+            this.erro = erro;
+            this.retomada = retomada;
+            this.ignoradas = ignoradas;
+            this.primeiroIgnorado = primeiroIgnorado;
+        }
+
+        /** Exportadas, ou importadas nesta execução (mesmo com erro) */
+        public int getQuantidade() {
+            return quantidade;
+        }
+
+        /** Importação: valor de "pular" para retomar (ver isRetomavel) */
+        public int getRetomada() {
+            return retomada;
+        }
+
+        /** Importação: registros inválidos ignorados */
+        public int getIgnoradas() {
+            return ignoradas;
+        }
+
+        /** Importação: motivo do primeiro registro ignorado (ex.: "registro 12: sem título"), ou null */
+        public String getPrimeiroIgnorado() {
+            return primeiroIgnorado;
+        }
+
+        /** Falhou, mas o arquivo está bem formado: tentar de novo a partir de getRetomada() */
+        public boolean isRetomavel() {
+            return erro != null && !(erro instanceof ArquivoInvalidoException);
+        }
+
+        /** null = terminou sem erro */
+        public Exception getErro() {
+            return erro;
+        }
+
+        public boolean isSucesso() {
+            return erro == null;
+        }
+    }
+
+    private final TarefaDAO dao;
+
+    public TransferenciaTarefas(TarefaDAO dao) {
+        this.dao = dao;
+    }
+
+    // ================================
+    // EXPORTAR
+    // ================================
+
+    /**
+     * Escreve todas as tarefas em "saida" (o stream não é fechado).
+     *
+     * @return quantidade exportada
+     */
+    public int exportar(OutputStream saida, int formato, OnProgressoListener progresso) throws IOException {
+        // Contagem e páginas de percorrer num retrato só (ver lerEmTransacao), sem travar as escritas
+        return dao.lerEmTransacao(() -> escrever(saida, formato, progresso));
+    }
+
+    private int escrever(OutputStream saida, int formato, OnProgressoListener progresso) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        int total = dao.lerContadores().getTotal(); // só para o progresso
+        int[] feitas = new int[1];
+
+        int exportadas;
+        if (formato == FORMATO_CSV) {
+            escreverLinhaCsv(escritor, COLUNAS);
+            String[] campos = new String[COLUNAS.length];
+            exportadas = dao.percorrer(t -> {
+                campos[0] = String.valueOf(t.getId());
+                campos[1] = t.getTitulo();
+                campos[2] = t.getDescricao();
+                campos[3] = t.getData();
+                campos[4] = String.valueOf(t.getPrioridade());
+                campos[5] = t.isConcluido() ? "1" : "0";
+                escreverLinhaCsv(escritor, campos);
+                avisar(progresso, ++feitas[0], total);
+            });
+        } else {
+            JsonWriter json = new JsonWriter(escritor);
+            json.beginObject();
+            json.name("versao").value(VERSAO_JSON);
+            json.name("tarefas").beginArray();
+            exportadas = dao.percorrer(t -> {
+                json.beginObject();
+                json.name("id").value(t.getId());
+                json.name("titulo").value(t.getTitulo());
+                json.name("descricao").value(t.getDescricao());
+                json.name("data").value(t.getData());
+                json.name("prioridade").value(t.getPrioridade());
+                json.name("concluido").value(t.isConcluido());
+                json.endObject();
+                avisar(progresso, ++feitas[0], total);
+            });
+            json.endArray();
+            json.endObject();
+            json.flush();
+        }
+        escritor.flush();
+        return exportadas;
+    }
+
+    // Avisa a cada página (não a cada linha)
+    private static void avisar(OnProgressoListener progresso, int feitas, int total) {
+        if (progresso != null && feitas % TarefaDAO.PAGINA_PERCORRER == 0) {
+            progresso.onProgresso(feitas, Math.max(total, feitas));
+        }
+    }
+
+    // Campo entre aspas só quando precisa (vírgula, aspas ou quebra de linha)
+    private static void escreverLinhaCsv(Writer escritor, String[] campos) throws IOException {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) escritor.write(',');
+            String campo = campos[i];
+            if (campo == null) continue; // vazio
+            boolean aspas = false;
+            for (int j = 0; j < campo.length() && !aspas; j++) {
+                char c = campo.charAt(j);
+                aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (aspas) {
+                escritor.write('"');
+                escritor.write(campo.replace("\"", "\"\""));
+                escritor.write('"');
+            } else {
+                escritor.write(campo);
+            }
+        }
+        escritor.write("\r\n");
+    }
+
+    // ================================
+    // IMPORTAR
+    // ================================
+
+    /**
+     * Prepara a importação de "entrada" (o stream não é fechado nem lido aqui).
+     *
+     * @param pular registros do início do arquivo a ignorar (retomada: getProcessados() da tentativa anterior)
+     */
+    public Importacao importar(InputStream entrada, int formato, int pular) {
+        Reader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        LeitorRegistros registros;
+        if (formato == FORMATO_CSV) registros = new LeitorCsv(leitor);
+        else if (formato == FORMATO_JSON) registros = new LeitorJson(leitor);
+        else registros = new LeitorDetectado(leitor);
+        return new Importacao(registros, pular);
+    }
+
+    /** Estrutura do arquivo quebrada: a importação não pode continuar nem ser retomada */
+    public static final class ArquivoInvalidoException extends IOException {
+        ArquivoInvalidoException(String mensagem, Throwable causa) {
+            super(mensagem, causa);
+        }
+    }
+
+    // Registro ignorado (já consumido do arquivo; o próximo pode ser lido normalmente)
+    private static final class RegistroInvalidoException extends IOException {
+        RegistroInvalidoException(int registro, String motivo) {
+            super("registro " + registro + ": " + motivo);
+        }
+    }
+
+    /**
+     * Importação em andamento: cada importarLote() lê e grava um lote
+     */
+    public class Importacao {
+        private final LeitorRegistros leitor;
+        private final List<Tarefa> lote = new ArrayList<>(LOTE_IMPORTACAO);
+        private int pular;
+        private int processados; // registros do arquivo já tratados (inclui pulados e ignorados)
+        private int importadas;  // tarefas gravadas nesta importação
+        private int ignoradas;   // registros inválidos nesta importação
+        private String primeiroIgnorado;
+        private boolean terminada;
+
+        private Importacao(LeitorRegistros leitor, int pular) {
+            this.leitor = leitor;
+            this.pular = pular;
+            this.processados = pular;
+        }
+
+        /**
+         * Lê até LOTE_IMPORTACAO registros e grava os válidos numa transação
+         * (os inválidos são ignorados e contados). Em caso de exceção, nada deste
+         * lote é gravado nem contado (getProcessados() não muda).
+         *
+         * @return registros tratados neste lote (0 = fim do arquivo)
+         */
+        public int importarLote() throws IOException {
+            if (terminada) return 0;
+            lote.clear();
+            int invalidos = 0;
+            String primeiroInvalido = null;
+            while (lote.size() + invalidos < LOTE_IMPORTACAO) {
+                Tarefa t;
+                try {
+                    t = leitor.proxima();
+                } catch (RegistroInvalidoException e) {
+                    if (pular > 0) {
+                        pular--; // já tratado numa tentativa anterior
+                    } else {
+                        invalidos++;
+                        if (primeiroInvalido == null) primeiroInvalido = e.getMessage();
+                    }
+                    continue;
+                }
+                if (t == null) {
+                    terminada = true;
+                    break;
+                }
+                if (pular > 0) {
+                    pular--; // já importado numa tentativa anterior
+                    continue;
+                }
+                lote.add(t);
+            }
+
+            if (!lote.isEmpty()) dao.inserirLote(lote);
+            int tratados = lote.size() + invalidos;
+            processados += tratados;
+            importadas += lote.size();
+            ignoradas += invalidos;
+            if (primeiroIgnorado == null) primeiroIgnorado = primeiroInvalido;
+            lote.clear();
+            return tratados;
+        }
+
+        /**
+         * Importa até o fim (na thread atual)
+         *
+         * @return getImportadas() ao terminar
+         */
+        public int importarTudo(OnProgressoListener progresso) throws IOException {
+            while (importarLote() > 0) {
+                if (progresso != null) progresso.onProgresso(importadas, -1);
+            }
+            return importadas;
+        }
+
+        /** Tarefas gravadas no banco por esta importação (sem as puladas) */
+        public int getImportadas() {
+            return importadas;
+        }
+
+        /** Registros do arquivo já tratados, gravados ou ignorados (ponto de retomada) */
+        public int getProcessados() {
+            return processados;
+        }
+
+        /** Registros inválidos ignorados por esta importação */
+        public int getIgnoradas() {
+            return ignoradas;
+        }
+
+        /** Motivo do primeiro registro ignorado, ou null */
+        public String getPrimeiroIgnorado() {
+            return primeiroIgnorado;
+        }
+
+        public boolean isTerminada() {
+            return terminada;
+        }
+    }
+
+    // ================================
+    // Leitores de registros (um registro por chamada)
+    // ================================
+    private interface LeitorRegistros {
+        /**
+         * @return próxima tarefa, ou null no fim
+         * @throws RegistroInvalidoException registro consumido e descartado (pode continuar)
+         */
+        Tarefa proxima() throws IOException;
+    }
+
+    // Escolhe JSON ou CSV pelo primeiro caractere do conteúdo
+    private static final class LeitorDetectado implements LeitorRegistros {
+        private static final int MAX_ESPACOS = 4096; // espaços iniciais examinados
+        private final Reader leitor;
+        private LeitorRegistros formato;
+
+        LeitorDetectado(Reader leitor) {
+            this.leitor = leitor;
+        }
+
+        @Override
+        public Tarefa proxima() throws IOException {
+            if (formato == null) formato = detectar();
+            return formato.proxima();
+        }
+
+        private LeitorRegistros detectar() throws IOException {
+            leitor.mark(1);
+            if (leitor.read() != '\uFEFF') leitor.reset(); // BOM do UTF-8 não é conteúdo
+            leitor.mark(MAX_ESPACOS + 1);
+            int c;
+            int lidos = 0;
+            do {
+                c = leitor.read();
+            } while (c != -1 && Character.isWhitespace(c) && ++lidos < MAX_ESPACOS);
+            leitor.reset();
+            return c == '{' || c == '[' ? new LeitorJson(leitor) : new LeitorCsv(leitor);
+        }
+    }
+
+    // JSON em streaming: só o objeto atual fica em memória
+    private static final class LeitorJson implements LeitorRegistros {
+        private final JsonReader json;
+        private boolean iniciado;
+        private boolean fim;
+        private int registro;
+
+        LeitorJson(Reader leitor) {
+            json = new JsonReader(leitor);
+        }
+
+        @Override
+        public Tarefa proxima() throws IOException {
+            try {
+                return ler();
+            } catch (MalformedJsonException | EOFException | IllegalStateException e) {
+                // Sintaxe ou estrutura quebrada: o JsonReader não consegue seguir adiante
+                fim = true;
+                throw new ArquivoInvalidoException("JSON inválido: " + e.getMessage(), e);
+            }
+        }
+
+        private Tarefa ler() throws IOException {
+            if (fim) return null;
+            if (!iniciado) {
+                iniciar();
+                iniciado = true;
+            }
+            if (!json.hasNext()) {
+                fim = true;
+                return null;
+            }
+
+            registro++;
+            if (json.peek() != JsonToken.BEGIN_OBJECT) {
+                json.skipValue();
+                throw new RegistroInvalidoException(registro, "não é um objeto");
+            }
+            Tarefa t = new Tarefa();
+            String problema = null;
+            json.beginObject();
+            while (json.hasNext()) {
+                String nome = json.nextName();
+                if (json.peek() == JsonToken.NULL) {
+                    json.nextNull();
+                    continue;
+                }
+                try {
+                    switch (nome) {
+                        case "titulo":     t.setTitulo(json.nextString()); break;
+                        case "descricao":  t.setDescricao(json.nextString()); break;
+                        case "data":       t.setData(json.nextString()); break;
+                        case "prioridade": t.setPrioridade(json.nextInt()); break;
+                        case "concluido":  t.setConcluido(lerBooleano(json)); break;
+                        default:           json.skipValue(); // id e campos desconhecidos
+                    }
+                } catch (IllegalStateException | NumberFormatException e) {
+                    // Tipo errado: o valor não foi consumido; pula só ele e descarta o registro
+                    json.skipValue();
+                    if (problema == null) problema = nome + " inválido";
+                }
+            }
+            json.endObject();
+            if (problema != null) throw new RegistroInvalidoException(registro, problema);
+            return validar(t, registro);
+        }
+
+        // Posiciona no início do array de tarefas ({"tarefas":[...]} ou [...])
+        private void iniciar() throws IOException {
+            if (json.peek() == JsonToken.BEGIN_ARRAY) {
+                json.beginArray();
+                return;
+            }
+            json.beginObject();
+            while (json.hasNext()) {
+                if (json.nextName().equals("tarefas")) {
+                    json.beginArray();
+                    return;
+                }
+                json.skipValue();
+            }
+            throw new ArquivoInvalidoException("JSON sem o array \"tarefas\"", null);
+        }
+
+        private static boolean lerBooleano(JsonReader json) throws IOException {
+            if (json.peek() == JsonToken.BOOLEAN) return json.nextBoolean();
+            return json.nextInt() == 1;
+        }
+    }
+
+    // CSV (RFC 4180): aspas, aspas duplicadas e quebras de linha dentro de campos
+    private static final class LeitorCsv implements LeitorRegistros {
+        private final Reader leitor;
+        private final List<String> campos = new ArrayList<>();
+        private final StringBuilder campo = new StringBuilder();
+        private Map<String, Integer> indices;
+        private int registro;
+
+        LeitorCsv(Reader leitor) {
+            this.leitor = leitor;
+        }
+
+        @Override
+        public Tarefa proxima() throws IOException {
+            if (indices == null) {
+                if (!lerLinha()) return null; // arquivo vazio
+                indices = new HashMap<>();
+                for (int i = 0; i < campos.size(); i++) {
+                    indices.put(campos.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+                if (!indices.containsKey("titulo")) throw new ArquivoInvalidoException("CSV sem a coluna titulo", null);
+            }
+
+            do {
+                if (!lerLinha()) return null;
+            } while (campos.size() == 1 && campos.get(0).isEmpty()); // linha em branco
+
+            registro++;
+            Tarefa t = new Tarefa();
+            t.setTitulo(valor("titulo"));
+            t.setDescricao(valor("descricao"));
+            t.setData(valor("data"));
+            String prioridade = valor("prioridade");
+            String concluido = valor("concluido");
+            try {
+                if (prioridade != null) t.setPrioridade(Integer.parseInt(prioridade.trim()));
+            } catch (NumberFormatException e) {
+                throw new RegistroInvalidoException(registro, "prioridade inválida");
+            }
+            if (concluido != null) {
+                String c = concluido.trim();
+                t.setConcluido(c.equals("1") || c.equalsIgnoreCase("true"));
+            }
+            return validar(t, registro);
+        }
+
+        // Campo da coluna (null se a coluna não existe ou está vazia)
+        private String valor(String coluna) {
+            Integer i = indices.get(coluna);
+            if (i == null || i >= campos.size()) return null;
+            String v = campos.get(i);
+            return v.isEmpty() ? null : v;
+        }
+
+        // Lê um registro (pode ocupar várias linhas) para "campos"; false no fim do arquivo
+        private boolean lerLinha() throws IOException {
+            campos.clear();
+            campo.setLength(0);
+            boolean entreAspas = false;
+            boolean leuAlgo = false;
+            int c;
+            while ((c = leitor.read()) != -1) {
+                leuAlgo = true;
+                if (entreAspas) {
+                    if (c == '"') {
+                        leitor.mark(1);
+                        if (leitor.read() == '"') {
+                            campo.append('"'); // aspas duplicadas
+                        } else {
+                            leitor.reset();
+                            entreAspas = false;
+                        }
+                    } else {
+                        campo.append((char) c);
+                    }
+                } else if (c == '"') {
+                    entreAspas = true;
+                } else if (c == ',') {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    campo.append((char) c);
+                }
+            }
+            if (!leuAlgo) return false;
+            if (entreAspas) {
+                throw new ArquivoInvalidoException("registro " + (registro + 1) + ": aspas não fechadas", null);
+            }
+            campos.add(campo.toString());
+            return true;
+        }
+    }
+
+    private static Tarefa validar(Tarefa t, int registro) throws IOException {
+        if (t.getTitulo() == null || t.getTitulo().isEmpty()) {
+            throw new RegistroInvalidoException(registro, "sem título");
+        }
+        return t;
+    }
+}
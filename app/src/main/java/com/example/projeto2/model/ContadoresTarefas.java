@@ -0,0 +1,63 @@
+package com.example.projeto2.model;
+
+/**
+ * ================================
+ * Classe ContadoresTarefas
+ * ================================
+ *
+ * Totais de tarefas do banco inteiro (não só da lista filtrada):
+ * total, concluídas, pendentes e total por prioridade.
+ * Lidos da tabela tarefas_contadores, mantida por triggers no SQLite.
+ */
+public class ContadoresTarefas {
+
+    // ================================
+    // Atributos da classe
+    // ================================
+
+    private final int total;        // Todas as tarefas
+    private final int concluidas;   // Tarefas com concluido = 1
+    private final int[] porPrioridade = new int[4]; // índice 1..3 = Baixa/Média/Alta (0 = sem prioridade)
+
+    /**
+     * Construtor
+     *
+     * @param total         Total de tarefas
+     * @param concluidas    Total de tarefas concluídas
+     * @param porPrioridade Total por prioridade, índice = prioridade (0..3)
+     */
+    public ContadoresTarefas(int total, int concluidas, int[] porPrioridade) {
+        this.total = total;
+        this.concluidas = concluidas;
+        System.arraycopy(porPrioridade, 0, this.porPrioridade, 0,
+                Math.min(porPrioridade.length, this.porPrioridade.length));
+    }
+
+    /**
+     * Retorna o total de tarefas
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Retorna o total de tarefas concluídas
+     */
+    public int getConcluidas() {
+        return concluidas;
+    }
+
+    /**
+     * Retorna o total de tarefas pendentes
+     */
+    public int getPendentes() {
+        return Math.max(0, total - concluidas);
+    }
+
+    /**
+     * Retorna o total de tarefas com a prioridade informada (1 = Baixa, 2 = Média, 3 = Alta)
+     */
+    public int getTotalPrioridade(int prioridade) {
+        return prioridade >= 0 && prioridade < porPrioridade.length ? porPrioridade[prioridade] : 0;
+    }
+}
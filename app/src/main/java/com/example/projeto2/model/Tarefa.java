@@ -1,14 +1,31 @@
 package com.example.projeto2.model;
 
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import com.example.projeto2.utils.DataCodec;
+
+import java.util.Objects;
+
 /**
  * ================================
  * Classe Tarefa
  * ================================
  *
  * Representa uma tarefa do aplicativo de ToDo.
- * Implementa Serializable para permitir envio via Intent (passagem de objetos entre Activities).
+ * Implementa Parcelable (campos gravados um a um, sem reflexão) para quando um objeto
+ * precisa mesmo atravessar um Bundle. Entre Activities, prefira passar só o id e
+ * carregar a tarefa pelo DAO: a descrição pode ter centenas de KB e o Binder
+ * limita a transação a ~1 MB (TransactionTooLargeException).
+ *
+ * Registra quais campos foram alterados pelos setters desde que a tarefa foi
+ * criada/lida (getCamposAlterados). TarefaDAO.atualizarAlteracoes usa isso para
+ * gravar só as colunas alteradas. Atribuir o mesmo valor não conta como alteração.
+ *
+ * A data também fica guardada como epoch day (getDataEpoch), convertida uma vez
+ * em setData: comparar/ordenar datas (ex: tarefa vencida) vira comparar ints.
  */
-public class Tarefa implements java.io.Serializable {
+public class Tarefa implements Parcelable {
 
     // ================================
     // Atributos da classe
@@ -18,9 +35,21 @@ public class Tarefa implements java.io.Serializable {
     private String titulo;      // Título da tarefa (obrigatório)
     private String descricao;   // Descrição detalhada da tarefa (opcional)
     private String data;        // Data de conclusão ou vencimento no formato dd/MM/yyyy
+    private int dataEpoch = DataCodec.SEM_DATA; // A mesma data em epoch day (SEM_DATA se vazia/inválida)
     private int prioridade;     // Prioridade da tarefa: 1 = Baixa, 2 = Média, 3 = Alta
     private boolean concluido;  // Status da tarefa: true = concluída, false = pendente
 
+    // ================================
+    // Controle de alterações (bits de CAMPO_*)
+    // ================================
+    public static final int CAMPO_TITULO = 1;
+    public static final int CAMPO_DESCRICAO = 1 << 1;
+    public static final int CAMPO_DATA = 1 << 2;
+    public static final int CAMPO_PRIORIDADE = 1 << 3;
+    public static final int CAMPO_CONCLUIDO = 1 << 4;
+
+    private int alterados; // campos alterados desde a leitura (vai junto no Parcel)
+
     // ================================
     // Construtores
     // ================================
@@ -49,6 +78,7 @@ public class Tarefa implements java.io.Serializable {
         this.titulo = titulo;
         this.descricao = descricao;
         this.data = data;
+        this.dataEpoch = DataCodec.paraEpochDay(data);
         this.prioridade = prioridade;
         this.concluido = concluido;
     }
@@ -82,6 +112,7 @@ public class Tarefa implements java.io.Serializable {
      * Define o título da tarefa
      */
     public void setTitulo(String titulo) {
+        if (!Objects.equals(this.titulo, titulo)) alterados |= CAMPO_TITULO;
         this.titulo = titulo;
     }
 
@@ -96,6 +127,7 @@ public class Tarefa implements java.io.Serializable {
      * Define a descrição da tarefa
      */
     public void setDescricao(String descricao) {
+        if (!Objects.equals(this.descricao, descricao)) alterados |= CAMPO_DESCRICAO;
         this.descricao = descricao;
     }
 
@@ -110,7 +142,17 @@ public class Tarefa implements java.io.Serializable {
      * Define a data da tarefa
      */
     public void setData(String data) {
+        if (Objects.equals(this.data, data)) return;
+        alterados |= CAMPO_DATA;
         this.data = data;
+        this.dataEpoch = DataCodec.paraEpochDay(data);
+    }
+
+    /**
+     * Retorna a data em epoch day (DataCodec.SEM_DATA se vazia ou inválida)
+     */
+    public int getDataEpoch() {
+        return dataEpoch;
     }
 
     /**
@@ -124,6 +166,7 @@ public class Tarefa implements java.io.Serializable {
      * Define a prioridade da tarefa
      */
     public void setPrioridade(int prioridade) {
+        if (this.prioridade != prioridade) alterados |= CAMPO_PRIORIDADE;
         this.prioridade = prioridade;
     }
 
@@ -138,6 +181,76 @@ public class Tarefa implements java.io.Serializable {
      * Define o status de conclusão da tarefa
      */
     public void setConcluido(boolean concluido) {
+        if (this.concluido != concluido) alterados |= CAMPO_CONCLUIDO;
         this.concluido = concluido;
     }
+
+    // ================================
+    // Controle de alterações
+    // ================================
+
+    /**
+     * Campos alterados pelos setters (combinação de CAMPO_*; 0 = nada mudou)
+     */
+    public int getCamposAlterados() {
+        return alterados;
+    }
+
+    /**
+     * Retorna se algum campo foi alterado
+     */
+    public boolean isAlterada() {
+        return alterados != 0;
+    }
+
+    /**
+     * Marca a tarefa como igual à do banco (chamado pelo DAO depois de gravar)
+     */
+    public void limparAlteracoes() {
+        alterados = 0;
+    }
+
+    // ================================
+    // Parcelable
+    // ================================
+
+    private Tarefa(Parcel origem) {
+        id = origem.readInt();
+        titulo = origem.readString();
+        descricao = origem.readString();
+        data = origem.readString();
+        dataEpoch = origem.readInt();
+        prioridade = origem.readInt();
+        concluido = origem.readInt() != 0;
+        alterados = origem.readInt();
+    }
+
+    @Override
+    public void writeToParcel(Parcel destino, int flags) {
+        destino.writeInt(id);
+        destino.writeString(titulo);
+        destino.writeString(descricao);
+        destino.writeString(data);
+        destino.writeInt(dataEpoch);
+        destino.writeInt(prioridade);
+        destino.writeInt(concluido ? 1 : 0);
+        destino.writeInt(alterados);
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    public static final Creator<Tarefa> CREATOR = new Creator<Tarefa>() {
+        @Override
+        public Tarefa createFromParcel(Parcel origem) {
+            return new Tarefa(origem);
+        }
+
+        @Override
+        public Tarefa[] newArray(int tamanho) {
+            return new Tarefa[tamanho];
+        }
+    };
 }
@@ -22,7 +22,8 @@ import com.example.projeto2.utils.Preferencias;
  *   - Ordenação da lista de tarefas
  *   - Prioridade mínima a exibir
  *
- * As configurações são salvas usando SharedPreferences via classe Preferencias.
+ * As configurações são salvas usando SharedPreferences via classe Preferencias,
+ * todas juntas numa única gravação (Preferencias.editar).
  */
 public class ConfiguracoesActivity extends AppCompatActivity {
 
@@ -74,14 +75,17 @@ public class ConfiguracoesActivity extends AppCompatActivity {
     // ================================
     private void carregarPreferencias() {
 
+        // Valores atuais (já em memória)
+        Preferencias.Snapshot atuais = prefs.getSnapshot();
+
         // Recupera e aplica estado do checkbox (ocultar tarefas concluídas)
-        chkOcultarConcluidas.setChecked(prefs.getOcultarConcluidas());
+        chkOcultarConcluidas.setChecked(atuais.getOcultarConcluidas());
 
         // ================================
         // Spinner Ordenação
         // ================================
         // Recupera valor salvo de ordenação (0..3)
-        int ordenacao = prefs.getOrdenacao();
+        int ordenacao = atuais.getOrdenacao();
         if (ordenacao >= 0 && ordenacao <= 3) {
             spinnerOrdenacao.setSelection(ordenacao); // Define posição do spinner
         } else {
@@ -92,7 +96,7 @@ public class ConfiguracoesActivity extends AppCompatActivity {
         // Spinner Prioridade mínima
         // ================================
         // Recupera valor salvo da prioridade mínima
-        int prioridadeMinima = prefs.getPrioridadeMinima();
+        int prioridadeMinima = atuais.getPrioridadeMinima();
         int posPrioridade = 0;
 
         // Converte valor salvo (0,2,3) para posição do spinner (0,1,2)
@@ -109,18 +113,12 @@ public class ConfiguracoesActivity extends AppCompatActivity {
     private void salvar() {
 
         // ================================
-        // Salva estado do checkbox
-        // ================================
-        prefs.setOcultarConcluidas(chkOcultarConcluidas.isChecked());
-
-        // ================================
-        // Salva ordenação
+        // Ordenação
         // ================================
-        int ordenacaoSel = spinnerOrdenacao.getSelectedItemPosition();
-        prefs.setOrdenacao(ordenacaoSel); // Valor 0..3 diretamente salvo
+        int ordenacaoSel = spinnerOrdenacao.getSelectedItemPosition(); // Valor 0..3 diretamente salvo
 
         // ================================
-        // Salva prioridade mínima
+        // Prioridade mínima
         // ================================
         int posPrioridade = spinnerPrioridadeMinima.getSelectedItemPosition();
         int valorPrioridade = 0;
@@ -129,7 +127,14 @@ public class ConfiguracoesActivity extends AppCompatActivity {
         if (posPrioridade == 1) valorPrioridade = 2;
         if (posPrioridade == 2) valorPrioridade = 3;
 
-        prefs.setPrioridadeMinima(valorPrioridade);
+        // ================================
+        // Salva tudo numa única gravação
+        // ================================
+        prefs.editar()
+                .setOcultarConcluidas(chkOcultarConcluidas.isChecked())
+                .setOrdenacao(ordenacaoSel)
+                .setPrioridadeMinima(valorPrioridade)
+                .aplicar();
 
         // Feedback rápido ao usuário
         Toast.makeText(this, "Configurações salvas!", Toast.LENGTH_SHORT).show();
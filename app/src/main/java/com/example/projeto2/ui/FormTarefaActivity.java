@@ -12,12 +12,10 @@ import android.widget.Spinner;
 import android.widget.ArrayAdapter;
 import android.widget.Toast;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-
 import com.example.projeto2.R;
-import com.example.projeto2.database.TarefaDAO;
+import com.example.projeto2.database.TarefaDAOAsync;
 import com.example.projeto2.model.Tarefa;
+import com.example.projeto2.utils.DataCodec;
 
 /**
  * ================================
@@ -33,11 +31,15 @@ import com.example.projeto2.model.Tarefa;
  */
 public class FormTarefaActivity extends AppCompatActivity {
 
+    // Extra com o id da tarefa a editar (sem ele, o formulário cria uma tarefa nova).
+    // Só o id atravessa o Intent; a tarefa completa vem do DAO (cache ou banco).
+    public static final String EXTRA_ID_TAREFA = "id_tarefa";
+
     // ================================
     // Objetos auxiliares (DAO e Tarefa)
     // ================================
     private Tarefa tarefaEdicao = null;  // Objeto da tarefa caso seja edição
-    private TarefaDAO dao;               // Objeto de acesso ao banco de dados
+    private TarefaDAOAsync dao;          // Acesso ao banco (fora da thread principal)
 
     // ================================
     // Ciclo de vida: onCreate
@@ -49,8 +51,13 @@ public class FormTarefaActivity extends AppCompatActivity {
         // Define qual layout XML esta Activity vai usar
         setContentView(R.layout.activity_form_tarefa);
 
-        // Inicializa DAO para acesso ao banco
-        dao = new TarefaDAO(this);
+        // Inicializa DAO para acesso ao banco (ligado ao ciclo de vida desta Activity)
+        dao = new TarefaDAOAsync(this, this);
+        // Falha ao carregar a tarefa para edição: sem ela não há o que salvar
+        dao.setOnErroListener(erro -> {
+            Toast.makeText(this, "Não foi possível carregar a tarefa.", Toast.LENGTH_SHORT).show();
+            finish();
+        });
 
         // ================================
         // Componentes da interface (variáveis locais)
@@ -82,22 +89,44 @@ public class FormTarefaActivity extends AppCompatActivity {
         // ================================
         // Preenchimento de campos caso seja edição
         // ================================
-        if (getIntent().hasExtra("tarefa")) {
-            // Recupera a tarefa passada via Intent
-            tarefaEdicao = (Tarefa) getIntent().getSerializableExtra("tarefa");
-
-            // Preenche os campos com os dados da tarefa existente
-            edtTitulo.setText(tarefaEdicao.getTitulo());
-            edtDescricao.setText(tarefaEdicao.getDescricao());
-            edtData.setText(tarefaEdicao.getData());
-
-            // Converte prioridade salva (1,2,3) para posição do Spinner (0,1,2)
-            int prioridade = tarefaEdicao.getPrioridade();
-            int posicaoSpinner = (prioridade >= 1 && prioridade <= 3) ? prioridade - 1 : 0;
-            spinnerPrioridade.setSelection(posicaoSpinner);
-
-            // Define se a tarefa está marcada como concluída
-            chkConcluidaForm.setChecked(tarefaEdicao.isConcluido());
+        if (getIntent().hasExtra(EXTRA_ID_TAREFA)) {
+            // Recupera o id passado via Intent
+            int idTarefa = getIntent().getIntExtra(EXTRA_ID_TAREFA, 0);
+
+            // Salvar só depois que a tarefa completa chegar do banco
+            btnSalvar.setEnabled(false);
+
+            // Busca a tarefa completa (com descrição) só agora, ao abrir para edição
+            final boolean preencherCampos = savedInstanceState == null; // após rotação, os campos já foram restaurados
+            dao.buscarPorId(idTarefa, completa -> {
+                tarefaEdicao = completa;
+                if (tarefaEdicao == null) {
+                    Toast.makeText(this, "Tarefa não encontrada.", Toast.LENGTH_SHORT).show();
+                    finish();
+                    return;
+                }
+                btnSalvar.setEnabled(true);
+                if (!preencherCampos) return;
+
+                // Preenche os campos com os dados da tarefa existente
+                edtTitulo.setText(tarefaEdicao.getTitulo());
+                edtDescricao.setText(tarefaEdicao.getDescricao());
+                // Data exibida a partir do epoch day; texto salvo fora do formato fica como está
+                char[] data = new char[10];
+                if (DataCodec.formatar(tarefaEdicao.getDataEpoch(), data, 0)) {
+                    edtData.setText(data, 0, data.length);
+                } else {
+                    edtData.setText(tarefaEdicao.getData());
+                }
+
+                // Converte prioridade salva (1,2,3) para posição do Spinner (0,1,2)
+                int prioridade = tarefaEdicao.getPrioridade();
+                int posicaoSpinner = (prioridade >= 1 && prioridade <= 3) ? prioridade - 1 : 0;
+                spinnerPrioridade.setSelection(posicaoSpinner);
+
+                // Define se a tarefa está marcada como concluída
+                chkConcluidaForm.setChecked(tarefaEdicao.isConcluido());
+            });
         }
 
         // ================================
@@ -134,8 +163,11 @@ public class FormTarefaActivity extends AppCompatActivity {
             if (tarefaEdicao == null) {
                 // Se não houver tarefaEdicao → nova tarefa
                 Tarefa nova = new Tarefa(0, titulo, descricao, data, prioridade, concluida);
-                dao.inserir(nova); // Salva no banco
-                Toast.makeText(this, "Tarefa adicionada!", Toast.LENGTH_SHORT).show();
+                btnSalvar.setEnabled(false); // evita gravar duas vezes
+                dao.inserir(nova, id -> {    // Salva no banco
+                    Toast.makeText(this, "Tarefa adicionada!", Toast.LENGTH_SHORT).show();
+                    finish(); // Fecha a Activity e retorna à tela anterior
+                }, erro -> falhaAoSalvar(btnSalvar));
             } else {
                 // Atualiza a tarefa existente
                 tarefaEdicao.setTitulo(titulo);
@@ -144,31 +176,30 @@ public class FormTarefaActivity extends AppCompatActivity {
                 tarefaEdicao.setPrioridade(prioridade);
                 tarefaEdicao.setConcluido(concluida);
 
-                dao.atualizar(tarefaEdicao); // Atualiza no banco
-                Toast.makeText(this, "Tarefa atualizada!", Toast.LENGTH_SHORT).show();
+                btnSalvar.setEnabled(false); // evita gravar duas vezes
+                // Grava só o que mudou (sem alterações, nem toca no banco)
+                dao.atualizarAlteracoes(tarefaEdicao, linhas -> {
+                    Toast.makeText(this, "Tarefa atualizada!", Toast.LENGTH_SHORT).show();
+                    finish(); // Fecha a Activity e retorna à tela anterior
+                }, erro -> falhaAoSalvar(btnSalvar));
             }
-
-            // Fecha a Activity e retorna à tela anterior
-            finish();
         });
     }
 
+    // ================================
+    // Gravação falhou: avisa e libera o botão para tentar de novo
+    // ================================
+    private void falhaAoSalvar(Button btnSalvar) {
+        btnSalvar.setEnabled(true);
+        Toast.makeText(this, "Não foi possível salvar a tarefa. Tente novamente.", Toast.LENGTH_SHORT).show();
+    }
+
     // ================================
     // Método de validação de data rigorosa (dd/MM/yyyy)
     // ================================
     private boolean isDataValida(String data) {
-        if (data == null || data.length() != 10) return false;
-
-        // Cria objeto SimpleDateFormat com formato de data
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-        sdf.setLenient(false); // Faz validação estrita (não permite datas inválidas como 31/02/2025)
-
-        try {
-            sdf.parse(data); // Tenta converter para Date
-            return true;     // Sucesso → data válida
-        } catch (ParseException e) {
-            return false;    // Erro → data inválida
-        }
+        // Validação estrita sem SimpleDateFormat (não permite datas inválidas como 31/02/2025)
+        return DataCodec.isValida(data);
     }
 
     // ================================
@@ -0,0 +1,164 @@
+package com.example.projeto2.utils;
+
+import java.util.TimeZone;
+
+// Conversão de datas dd/MM/yyyy ↔ "epoch day"
+// - epoch day = nº de dias desde 01/01/1970 (pode ser negativo)
+// - inteiro ordena igual à data, então serve de chave/índice no banco
+// - não usa Calendar nem SimpleDateFormat (lê os dígitos direto da String)
+// - nada aloca, exceto formatar() (a String devolvida) e hoje() uma vez por dia
+
+public final class DataCodec {
+
+    // Valor gravado quando a data está vazia ou inválida (ordena antes de todas)
+    public static final int SEM_DATA = Integer.MIN_VALUE;
+
+    private static final long MS_POR_DIA = 86_400_000L;
+
+    // "Hoje" (fuso do aparelho) e o intervalo [desde, ate) em que vale (ms UTC).
+    // Trocado inteiro (objeto imutável) para as threads nunca verem dia e limites misturados.
+    private static final class Hoje {
+        final int dia;
+        final long desde;
+        final long ate;
+
+        Hoje(int dia, long desde, long ate) {
+            this.dia = dia;
+            this.desde = desde;
+            this.ate = ate;
+        }
+    }
+
+    private static volatile Hoje hoje = new Hoje(SEM_DATA, 0, 0);
+
+    private DataCodec() { }
+
+    // Epoch day de hoje no fuso do aparelho. Calculado uma vez por dia:
+    // nas outras chamadas é só comparar currentTimeMillis com os limites do dia.
+    public static int hoje(){
+        long agora = System.currentTimeMillis();
+        Hoje h = hoje;
+        if (agora >= h.ate || agora < h.desde) { // virou o dia (ou o relógio mudou)
+            h = calcularHoje(agora, TimeZone.getDefault());
+            hoje = h;
+        }
+        return h.dia;
+    }
+
+    // Descarta o "hoje" guardado: o fuso ou o relógio do aparelho mudou (MainActivity
+    // recebe ACTION_TIMEZONE_CHANGED / ACTION_TIME_CHANGED e chama aqui)
+    public static void invalidarHoje(){
+        hoje = new Hoje(SEM_DATA, 0, 0);
+    }
+
+    // Epoch day de hoje no instante/fuso informados
+    static int hoje(long agora, TimeZone fuso){
+        return calcularHoje(agora, fuso).dia;
+    }
+
+    // Dia local no instante "agora" e os instantes das meias-noites que o limitam
+    private static Hoje calcularHoje(long agora, TimeZone fuso){
+        int dia = (int) Math.floorDiv(agora + fuso.getOffset(agora), MS_POR_DIA);
+        long inicio = dia * MS_POR_DIA;
+        long fim = inicio + MS_POR_DIA;
+        return new Hoje(dia, inicio - fuso.getOffset(inicio), fim - fuso.getOffset(fim));
+    }
+
+    // "dd/MM/yyyy" é uma data válida? (mesma regra de paraEpochDay)
+    public static boolean isValida(String data){
+        return paraEpochDay(data) != SEM_DATA;
+    }
+
+    // Converte "dd/MM/yyyy" em epoch day.
+    // Retorna SEM_DATA se o texto for nulo, mal formatado ou data inexistente (ex: 31/02).
+    public static int paraEpochDay(String data){
+        if (data == null || data.length() != 10) return SEM_DATA;
+        if (data.charAt(2) != '/' || data.charAt(5) != '/') return SEM_DATA;
+
+        int dia = digitos(data, 0, 2);
+        int mes = digitos(data, 3, 5);
+        int ano = digitos(data, 6, 10);
+        if (dia < 0 || mes < 0 || ano < 0) return SEM_DATA;
+        if (!isValida(dia, mes, ano)) return SEM_DATA;
+
+        return epochDay(dia, mes, ano);
+    }
+
+    // Dia/mês/ano existem no calendário gregoriano?
+    public static boolean isValida(int dia, int mes, int ano){
+        if (ano < 1 || mes < 1 || mes > 12 || dia < 1) return false;
+        return dia <= diasNoMes(mes, ano);
+    }
+
+    // Epoch day → "dd/MM/yyyy" (null para SEM_DATA ou anos fora de 1..9999)
+    public static String formatar(int epochDay){
+        char[] texto = new char[10];
+        return formatar(epochDay, texto, 0) ? new String(texto) : null;
+    }
+
+    // Escreve "dd/MM/yyyy" em destino[inicio, inicio + 10) sem alocar.
+    // Retorna false (sem escrever) para SEM_DATA ou anos fora de 1..9999.
+    public static boolean formatar(int epochDay, char[] destino, int inicio){
+        if (epochDay == SEM_DATA) return false;
+
+        // Algoritmo "civil from days" (inverso de epochDay)
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int diaDaEra = z - era * 146097;
+        int anoDaEra = (diaDaEra - diaDaEra / 1460 + diaDaEra / 36524 - diaDaEra / 146096) / 365;
+        int diaDoAno = diaDaEra - (365 * anoDaEra + anoDaEra / 4 - anoDaEra / 100);
+        int mp = (5 * diaDoAno + 2) / 153;
+        int dia = diaDoAno - (153 * mp + 2) / 5 + 1;
+        int mes = mp < 10 ? mp + 3 : mp - 9;
+        int ano = anoDaEra + era * 400 + (mes <= 2 ? 1 : 0);
+        if (ano < 1 || ano > 9999) return false;
+
+        escreverDigitos(destino, inicio, 2, dia);
+        destino[inicio + 2] = '/';
+        escreverDigitos(destino, inicio + 3, 2, mes);
+        destino[inicio + 5] = '/';
+        escreverDigitos(destino, inicio + 6, 4, ano);
+        return true;
+    }
+
+    // Algoritmo "days from civil" (sem tabelas, sem alocação)
+    public static int epochDay(int dia, int mes, int ano){
+        int y = mes <= 2 ? ano - 1 : ano;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int anoDaEra = y - era * 400;
+        int diaDoAno = (153 * (mes + (mes > 2 ? -3 : 9)) + 2) / 5 + dia - 1;
+        int diaDaEra = anoDaEra * 365 + anoDaEra / 4 - anoDaEra / 100 + diaDoAno;
+        return era * 146097 + diaDaEra - 719468;
+    }
+
+    private static int diasNoMes(int mes, int ano){
+        switch (mes) {
+            case 2:
+                boolean bissexto = (ano % 4 == 0 && ano % 100 != 0) || ano % 400 == 0;
+                return bissexto ? 29 : 28;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Escreve "valor" com "casas" dígitos (zeros à esquerda) em destino[inicio...]
+    private static void escreverDigitos(char[] destino, int inicio, int casas, int valor){
+        for (int i = inicio + casas - 1; i >= inicio; i--) {
+            destino[i] = (char) ('0' + valor % 10);
+            valor /= 10;
+        }
+    }
+
+    // Lê s[inicio, fim) como número; -1 se houver caractere não numérico
+    private static int digitos(String s, int inicio, int fim){
+        int valor = 0;
+        for (int i = inicio; i < fim; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+}
@@ -2,24 +2,232 @@ package com.example.projeto2.utils;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.CopyOnWriteArrayList;
 
 // SharedPreferences
 // - Armazena dados simples
 // - usado para configuracoes, preferencias
 // - Não é um BD.
+//
+// As configurações ficam em memória num Snapshot imutável e versionado,
+// compartilhado pelo app inteiro (ler = uma leitura de campo, sem SharedPreferences):
+// - carregar() lê o arquivo em segundo plano logo na abertura do app;
+//   getSnapshot() antes disso espera a leitura (ou lê na hora)
+// - editar() ... aplicar() grava todas as mudanças juntas (um único apply = uma escrita)
+//   e publica um Snapshot novo com versão + 1 (nada muda → mesma versão)
+// - observar() avisa na thread principal a cada Snapshot novo
+// Quem guarda a versão do último Snapshot usado pode pular o trabalho se ela não mudou.
 
 public class Preferencias {
     private static final String NOME_ARQUIVO = "configuracoes_app";
-    private SharedPreferences prefs;
+
+    private static final String CHAVE_OCULTAR_CONCLUIDAS = "ocultarConcluidas";
+    private static final String CHAVE_ORDENACAO = "ordenacao";
+    private static final String CHAVE_PRIORIDADE_MINIMA = "prioridadeMinima";
+
+    // Valores atuais (null = arquivo ainda não lido); trocado inteiro, nunca alterado
+    private static volatile Snapshot atual;
+    private static final Object TRAVA = new Object(); // leitura inicial e gravações
+    // Última versão publicada (com TRAVA): só cresce, mesmo depois de descartarCache()
+    private static int ultimaVersao;
+    private static final CopyOnWriteArrayList<OnAlteracaoListener> ouvintes = new CopyOnWriteArrayList<>();
+    private static Handler principal;
+
+    private final SharedPreferences prefs;
 
     public Preferencias(Context context){
-        prefs = context.getSharedPreferences(NOME_ARQUIVO,Context.MODE_PRIVATE);
+        prefs = context.getApplicationContext().getSharedPreferences(NOME_ARQUIVO, Context.MODE_PRIVATE);
+    }
+
+    // ================================
+    // Snapshot — valores de um momento (imutável)
+    // ================================
+    public static final class Snapshot {
+        private final int versao;
+        private final boolean ocultarConcluidas;
+        private final int ordenacao;
+        private final int prioridadeMinima;
+
+        Snapshot(int versao, boolean ocultarConcluidas, int ordenacao, int prioridadeMinima) {
+            this.versao = versao;
+            this.ocultarConcluidas = ocultarConcluidas;
+            this.ordenacao = ordenacao;
+            this.prioridadeMinima = prioridadeMinima;
+        }
+
+        // Aumenta a cada gravação que muda algum valor
+        public int getVersao() {
+            return versao;
+        }
+
+        public boolean getOcultarConcluidas() {
+            return ocultarConcluidas;
+        }
+
+        public int getOrdenacao() {
+            return ordenacao;
+        }
+
+        public int getPrioridadeMinima() {
+            return prioridadeMinima;
+        }
+
+        boolean mesmosValores(Snapshot outro) {
+            return ocultarConcluidas == outro.ocultarConcluidas
+                    && ordenacao == outro.ordenacao
+                    && prioridadeMinima == outro.prioridadeMinima;
+        }
+    }
+
+    // Avisado na thread principal a cada Snapshot novo (pode repetir uma versão já vista)
+    public interface OnAlteracaoListener {
+        void onPreferenciasAlteradas(Snapshot snapshot);
+    }
+
+    // ================================
+    // Leitura
+    // ================================
+
+    // Lê o arquivo em segundo plano (chamar cedo, ex: onCreate da primeira tela)
+    public static void carregar(Context context){
+        if (atual != null) return;
+        Preferencias preferencias = new Preferencias(context);
+        Thread carga = new Thread(preferencias::getSnapshot, "preferencias-carga");
+        carga.setDaemon(true);
+        carga.start();
+    }
+
+    // Valores atuais. Só acessa o disco se carregar() ainda não terminou.
+    public Snapshot getSnapshot(){
+        Snapshot s = atual;
+        if (s != null) return s;
+        synchronized (TRAVA) {
+            if (atual == null) {
+                publicar(new Snapshot(ultimaVersao + 1,
+                        prefs.getBoolean(CHAVE_OCULTAR_CONCLUIDAS, false),
+                        prefs.getInt(CHAVE_ORDENACAO, 0),
+                        prefs.getInt(CHAVE_PRIORIDADE_MINIMA, 0)));
+            }
+            return atual;
+        }
+    }
+
+    // ================================
+    // Observação
+    // ================================
+
+    // Recebe o Snapshot atual (assim que carregado) e cada Snapshot novo depois dele
+    public static void observar(OnAlteracaoListener ouvinte){
+        ouvintes.addIfAbsent(ouvinte);
+        Snapshot s = atual;
+        if (s != null) {
+            postar(() -> {
+                if (ouvintes.contains(ouvinte)) ouvinte.onPreferenciasAlteradas(s);
+            });
+        }
     }
+
+    public static void pararDeObservar(OnAlteracaoListener ouvinte){
+        ouvintes.remove(ouvinte);
+    }
+
+    // Chamado com TRAVA
+    private static void publicar(Snapshot s){
+        ultimaVersao = s.getVersao();
+        atual = s;
+        postar(() -> {
+            if (atual != s) return; // já existe um mais novo (e o aviso dele vem atrás)
+            for (OnAlteracaoListener ouvinte : ouvintes) {
+                ouvinte.onPreferenciasAlteradas(s);
+            }
+        });
+    }
+
+    private static void postar(Runnable r){
+        synchronized (ouvintes) {
+            if (principal == null) principal = new Handler(Looper.getMainLooper());
+        }
+        principal.post(r);
+    }
+
+    // Esquece os valores em memória (testes: força uma nova leitura do arquivo).
+    // A versão não volta: a próxima leitura continua a contagem
+    static void descartarCache(){
+        synchronized (TRAVA) {
+            atual = null;
+        }
+    }
+
+    // ================================
+    // Gravação em lote
+    // ================================
+
+    // Começa uma alteração a partir dos valores atuais
+    public Edicao editar(){
+        return new Edicao(getSnapshot());
+    }
+
+    public final class Edicao {
+        private boolean ocultarConcluidas;
+        private int ordenacao;
+        private int prioridadeMinima;
+
+        private Edicao(Snapshot base) {
+            ocultarConcluidas = base.getOcultarConcluidas();
+            ordenacao = base.getOrdenacao();
+            prioridadeMinima = base.getPrioridadeMinima();
+        }
+
+        public Edicao setOcultarConcluidas(boolean valor) {
+            ocultarConcluidas = valor;
+            return this;
+        }
+
+        public Edicao setOrdenacao(int tipo) {
+            ordenacao = tipo;
+            return this;
+        }
+
+        public Edicao setPrioridadeMinima(int valor) {
+            prioridadeMinima = valor;
+            return this;
+        }
+
+        // Grava tudo de uma vez e publica o Snapshot novo (o mesmo, se nada mudou)
+        public Snapshot aplicar() {
+            synchronized (TRAVA) {
+                Snapshot base = getSnapshot();
+                Snapshot novo = new Snapshot(ultimaVersao + 1, ocultarConcluidas, ordenacao, prioridadeMinima);
+                if (novo.mesmosValores(base)) return base;
+
+                SharedPreferences.Editor editor = prefs.edit();
+                if (novo.getOcultarConcluidas() != base.getOcultarConcluidas()) {
+                    editor.putBoolean(CHAVE_OCULTAR_CONCLUIDAS, novo.getOcultarConcluidas());
+                }
+                if (novo.getOrdenacao() != base.getOrdenacao()) {
+                    editor.putInt(CHAVE_ORDENACAO, novo.getOrdenacao());
+                }
+                if (novo.getPrioridadeMinima() != base.getPrioridadeMinima()) {
+                    editor.putInt(CHAVE_PRIORIDADE_MINIMA, novo.getPrioridadeMinima());
+                }
+                editor.apply(); // uma única escrita em disco, em segundo plano
+                publicar(novo);
+                return novo;
+            }
+        }
+    }
+
+    // ================================
+    // Acesso individual (cada set é uma gravação; para vários valores use editar())
+    // ================================
     public void setOcultarConcluidas( boolean valor ){
-        prefs.edit().putBoolean("ocultarConcluidas", valor).apply();
+        editar().setOcultarConcluidas(valor).aplicar();
     }
     public boolean getOcultarConcluidas(){
-        return prefs.getBoolean("ocultarConcluidas", false);
+        return getSnapshot().getOcultarConcluidas();
     }
 
     // Ordenação da lista de tarefas
@@ -29,10 +237,10 @@ public class Preferencias {
     // 2 = por data (mais antigas primeiro)
     // 3 = por prioridade (da mais alta para a mais baixa)
     public void setOrdenacao(int tipo){
-        prefs.edit().putInt("ordenacao", tipo).apply();
+        editar().setOrdenacao(tipo).aplicar();
     }
     public int getOrdenacao(){
-        return prefs.getInt("ordenacao", 0);
+        return getSnapshot().getOrdenacao();
     }
 
     // Filtro de prioridade mínima:
@@ -40,11 +248,9 @@ public class Preferencias {
     // 2 = média em diante (2 e 3)
     // 3 = apenas alta
     public void setPrioridadeMinima(int prioridadeMinima){
-        prefs.edit().putInt("prioridadeMinima", prioridadeMinima).apply();
+        editar().setPrioridadeMinima(prioridadeMinima).aplicar();
     }
     public int getPrioridadeMinima(){
-        return prefs.getInt("prioridadeMinima", 0);
+        return getSnapshot().getPrioridadeMinima();
     }
-
-
 }
@@ -0,0 +1,65 @@
+package com.example.projeto2.adapter;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * rank/select do bitset de visíveis comparados com uma varredura simples,
+ * depois de montar e de ocultar/mostrar itens um a um.
+ */
+public class IndiceVisiveisTest {
+
+    @Test
+    public void confereComVarredura() {
+        Random r = new Random(42);
+        for (int tamanho : new int[]{0, 1, 63, 64, 65, 1000, 4097}) {
+            boolean[] esperado = new boolean[tamanho];
+            for (int i = 0; i < tamanho; i++) esperado[i] = r.nextInt(3) != 0;
+            IndiceVisiveis indice = new IndiceVisiveis(tamanho, i -> esperado[i]);
+            conferir(indice, esperado);
+
+            for (int op = 0; op < tamanho; op++) {
+                int i = r.nextInt(tamanho);
+                boolean visivel = r.nextBoolean();
+                assertEquals(esperado[i] != visivel, indice.definir(i, visivel));
+                esperado[i] = visivel;
+            }
+            conferir(indice, esperado);
+        }
+    }
+
+    @Test
+    public void copiaEIndependente() {
+        IndiceVisiveis original = new IndiceVisiveis(100, i -> true);
+        IndiceVisiveis copia = original.copiar();
+        original.definir(10, false);
+
+        assertEquals(99, original.contar());
+        assertEquals(100, copia.contar());
+        assertTrue(copia.isVisivel(10));
+        assertEquals(11, original.select(10));
+        assertEquals(10, copia.select(10));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void selectForaDosVisiveis() {
+        new IndiceVisiveis(10, i -> i < 5).select(5);
+    }
+
+    private static void conferir(IndiceVisiveis indice, boolean[] esperado) {
+        int visiveis = 0;
+        for (int i = 0; i < esperado.length; i++) {
+            assertEquals(visiveis, indice.rank(i));
+            assertEquals(esperado[i], indice.isVisivel(i));
+            if (esperado[i]) {
+                assertEquals(i, indice.select(visiveis));
+                visiveis++;
+            }
+        }
+        assertEquals(visiveis, indice.contar());
+        assertEquals(esperado.length, indice.getTamanho());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.projeto2.adapter;
+
+import android.graphics.Color;
+
+import com.example.projeto2.model.Tarefa;
+import com.example.projeto2.utils.DataCodec;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Estado da linha calculado fora do bind: cores, transparência e destaque
+ * da data iguais aos que o TarefaAdapter aplicava linha a linha.
+ */
+public class LinhaTarefaTest {
+
+    private static final int HOJE = DataCodec.paraEpochDay("15/06/2025");
+
+    @Test
+    public void pendenteUsaCorDaPrioridade() {
+        LinhaTarefa alta = LinhaTarefa.de(new Tarefa(1, "A", null, "20/06/2025", 3, false), HOJE);
+        assertEquals(LinhaTarefa.COR_ALTA, alta.getCorTitulo());
+        assertEquals(LinhaTarefa.COR_ALTA, alta.getCorData());
+        assertEquals(1f, alta.getAlfa(), 0f);
+        assertFalse(alta.isIconeAtrasada());
+        assertFalse(alta.isDataDestaque());
+
+        LinhaTarefa semPrioridade = LinhaTarefa.de(new Tarefa(2, "B", null, null, 0, false), HOJE);
+        assertEquals(Color.BLACK, semPrioridade.getCorTitulo());
+        assertEquals(Color.DKGRAY, semPrioridade.getCorData());
+    }
+
+    @Test
+    public void vencidaDependeDoDia() {
+        Tarefa t = new Tarefa(1, "A", null, "14/06/2025", 1, false);
+        LinhaTarefa vencida = LinhaTarefa.de(t, HOJE);
+        assertTrue(vencida.isIconeAtrasada());
+        assertTrue(vencida.isDataDestaque());
+        assertEquals(HOJE, vencida.getDia());
+
+        assertFalse(LinhaTarefa.de(t, HOJE - 1).isDataDestaque()); // no dia da data ainda não venceu
+        assertFalse(LinhaTarefa.de(new Tarefa(2, "B", null, "", 1, false), HOJE).isDataDestaque());
+    }
+
+    @Test
+    public void concluidaFicaCinzaSemIcone() {
+        LinhaTarefa pendente = LinhaTarefa.de(new Tarefa(1, "A", null, "01/01/2025", 2, false), HOJE);
+        LinhaTarefa concluida = pendente.comStatus(true);
+
+        assertNotSame(pendente, concluida);
+        assertTrue(concluida.isConcluido());
+        assertEquals(Color.GRAY, concluida.getCorTitulo());
+        assertEquals(LinhaTarefa.ALFA_CONCLUIDA, concluida.getAlfa(), 0f);
+        assertFalse(concluida.isIconeAtrasada()); // ícone some mesmo se vencida
+        assertTrue(concluida.isDataDestaque());   // a data continua destacada
+        assertSame(concluida, concluida.comStatus(true));
+        assertEquals(LinhaTarefa.COR_MEDIA, concluida.comStatus(false).getCorTitulo());
+    }
+
+    @Test
+    public void noDiaMantemStatusMarcadoSemAlterarATarefa() {
+        Tarefa t = new Tarefa(1, "A", null, "14/06/2025", 1, false);
+        LinhaTarefa marcada = LinhaTarefa.de(t, HOJE - 1).comStatus(true);
+
+        LinhaTarefa outroDia = marcada.noDia(HOJE);
+        assertTrue(outroDia.isConcluido());
+        assertTrue(outroDia.isDataDestaque()); // venceu no dia novo
+        assertEquals(HOJE, outroDia.getDia());
+        assertSame(outroDia, outroDia.noDia(HOJE));
+        assertFalse(t.isConcluido());
+    }
+}
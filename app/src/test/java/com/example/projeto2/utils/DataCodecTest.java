@@ -0,0 +1,84 @@
+package com.example.projeto2.utils;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Conversão dd/MM/yyyy ↔ epoch day comparada com Calendar, e o "hoje" por fuso.
+ */
+public class DataCodecTest {
+
+    @Test
+    public void epochDayConfereComCalendar() {
+        Calendar c = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        c.clear();
+        c.set(1899, Calendar.JANUARY, 1);
+
+        // percorre ~250 anos dia a dia
+        for (int i = 0; i < 250 * 366; i++) {
+            int dia = c.get(Calendar.DAY_OF_MONTH);
+            int mes = c.get(Calendar.MONTH) + 1;
+            int ano = c.get(Calendar.YEAR);
+            String texto = String.format("%02d/%02d/%04d", dia, mes, ano);
+
+            long esperado = Math.floorDiv(c.getTimeInMillis(), 86_400_000L);
+            assertEquals(texto, esperado, DataCodec.paraEpochDay(texto));
+            assertEquals(texto, DataCodec.formatar((int) esperado));
+
+            c.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    @Test
+    public void datasInvalidasViramSemData() {
+        assertEquals(0, DataCodec.paraEpochDay("01/01/1970"));
+        assertEquals(DataCodec.SEM_DATA, DataCodec.paraEpochDay(null));
+        assertEquals(DataCodec.SEM_DATA, DataCodec.paraEpochDay(""));
+        assertEquals(DataCodec.SEM_DATA, DataCodec.paraEpochDay("31/02/2025"));
+        assertEquals(DataCodec.SEM_DATA, DataCodec.paraEpochDay("29/02/2023"));
+        assertNotEquals(DataCodec.SEM_DATA, DataCodec.paraEpochDay("29/02/2024"));
+        assertEquals(DataCodec.SEM_DATA, DataCodec.paraEpochDay("1/1/2025"));
+        assertEquals(DataCodec.SEM_DATA, DataCodec.paraEpochDay("aa/bb/cccc"));
+        assertEquals(DataCodec.SEM_DATA, DataCodec.paraEpochDay("01-01-2025"));
+    }
+
+    @Test
+    public void formatarSemAlocarEscreveNoBuffer() {
+        char[] buffer = "xx??????????xx".toCharArray();
+        assertTrue(DataCodec.formatar(DataCodec.paraEpochDay("09/03/2025"), buffer, 2));
+        assertEquals("xx09/03/2025xx", new String(buffer));
+
+        assertFalse(DataCodec.formatar(DataCodec.SEM_DATA, buffer, 2));
+        assertNull(DataCodec.formatar(DataCodec.SEM_DATA));
+        assertEquals("01/01/0001", DataCodec.formatar(DataCodec.epochDay(1, 1, 1)));
+        assertNull(DataCodec.formatar(DataCodec.epochDay(1, 1, 1) - 1));
+    }
+
+    @Test
+    public void isValidaSegueParaEpochDay() {
+        assertTrue(DataCodec.isValida("29/02/2024"));
+        assertFalse(DataCodec.isValida("29/02/2023"));
+        assertFalse(DataCodec.isValida("00/01/2025"));
+        assertFalse(DataCodec.isValida("2025-01-01"));
+    }
+
+    @Test
+    public void hojeRespeitaOFuso() {
+        TimeZone saoPaulo = TimeZone.getTimeZone("America/Sao_Paulo"); // UTC-3
+        int dia = DataCodec.paraEpochDay("15/06/2025");
+        long meiaNoiteUtc = dia * 86_400_000L;
+
+        // 00:00 UTC ainda é 21:00 do dia anterior em São Paulo
+        assertEquals(dia, DataCodec.hoje(meiaNoiteUtc, TimeZone.getTimeZone("UTC")));
+        assertEquals(dia - 1, DataCodec.hoje(meiaNoiteUtc, saoPaulo));
+        assertEquals(dia, DataCodec.hoje(meiaNoiteUtc + 3 * 3_600_000L, saoPaulo));
+        assertEquals(dia - 1, DataCodec.hoje(meiaNoiteUtc + 3 * 3_600_000L - 1, saoPaulo));
+
+        // o valor guardado bate com o calculado agora
+        assertEquals(DataCodec.hoje(System.currentTimeMillis(), TimeZone.getDefault()), DataCodec.hoje());
+    }
+}